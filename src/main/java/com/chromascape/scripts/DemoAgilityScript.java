@@ -7,6 +7,7 @@ import com.chromascape.utils.actions.MovingObject;
 import com.chromascape.utils.actions.PointSelector;
 import com.chromascape.utils.core.screen.colour.ColourObj;
 import com.chromascape.utils.core.screen.topology.ColourContours;
+import com.chromascape.utils.core.screen.window.ZoneWatcher;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -16,6 +17,7 @@ import java.util.Map;
 import java.util.Random;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Scalar;
 
 /**
@@ -93,7 +95,7 @@ public class DemoAgilityScript extends BaseScript {
   protected void cycle() {
     // Log the current XP before clicking obstacle for comparison later
     // The idea is to click the obstacle then wait for XP change then loop
-    int previousXp = Minimap.getXp(this);
+    long previousXp = Minimap.getXp(this);
 
     // Make sure it's read properly
     if (previousXp == -1) {
@@ -177,7 +179,7 @@ public class DemoAgilityScript extends BaseScript {
     // You'll see that there's an extra parameter on the point selector
     // This is "tightness", how closely grouped the click should be
     // 15.0 or more works best for ground items, best to look from a higher camera angle
-    Point clickLocation = PointSelector.getRandomPointByColourObj(gameView, MARK_COLOUR, 15, 15.0);
+    Point clickLocation = PointSelector.getRandomPointByColourObj(gameView, MARK_COLOUR, 15.0);
 
     if (clickLocation != null) {
       controller().mouse().moveTo(clickLocation, "medium");
@@ -192,10 +194,13 @@ public class DemoAgilityScript extends BaseScript {
    *
    * @param previousXp the XP value captured before the action started
    */
-  private void waitUntilXpChange(int previousXp) {
+  private void waitUntilXpChange(long previousXp) {
     LocalDateTime endTime = LocalDateTime.now().plusSeconds(TIMEOUT_XP_CHANGE);
-    // Ensure we do not hang if the initial OCR read failed and returned an empty string
-    while (previousXp == Minimap.getXp(this) && LocalDateTime.now().isBefore(endTime)) {
+    ZoneWatcher xpCounter = new ZoneWatcher(controller().zones().getMinimap().get("totalXP"));
+    // Ensure we do not hang if the initial OCR read failed and returned an empty string, and
+    // only read the counter again once its pixels have changed
+    while ((!xpCounter.hasChanged() || previousXp == Minimap.getXp(this))
+        && LocalDateTime.now().isBefore(endTime)) {
       waitMillis(300);
     }
   }
@@ -211,10 +216,11 @@ public class DemoAgilityScript extends BaseScript {
   /**
    * Checks if the obstacle highlight is currently present in the game view.
    *
-   * @return true if the colour contours are detected, false otherwise
+   * @return true if any blob of the highlight colour is detected, false otherwise
    */
   private boolean isObstacleVisible() {
-    BufferedImage gameView = controller().zones().getGameView();
-    return !ColourContours.getChromaObjsInColour(gameView, OBSTACLE_COLOUR).isEmpty();
+    try (Mat gameView = controller().zones().getGameViewMat()) {
+      return !ColourContours.getColourBlobs(gameView, OBSTACLE_COLOUR).isEmpty();
+    }
   }
 }
@@ -100,7 +100,7 @@ public class DemoFishingScript extends BaseScript {
   private String getCurrentWorldPos() {
     Rectangle zone = controller().zones().getGridInfo().get("Tile");
     ColourObj colour = ColourInstances.getByName("White");
-    return Ocr.extractText(zone, "Plain 12", colour, true);
+    return Ocr.extractText(zone, "Plain 12", colour);
   }
 
   /**
@@ -156,7 +156,7 @@ public class DemoFishingScript extends BaseScript {
   private boolean checkChatPopup(String phrase) {
     Rectangle chat = controller().zones().getChatTabs().get("Chat");
     ColourObj black = ColourInstances.getByName("Black");
-    String extraction = Ocr.extractText(chat, "Quill 8", black, true);
+    String extraction = Ocr.extractText(chat, "Quill 8", black);
     return extraction.contains(phrase);
   }
 
@@ -169,7 +169,7 @@ public class DemoFishingScript extends BaseScript {
     logger.info("Clicking fishing spot");
     BufferedImage gameView = controller().zones().getGameView();
 
-    Point clickLocation = PointSelector.getRandomPointInColour(gameView, "Cyan", 15);
+    Point clickLocation = PointSelector.getRandomPointInColour(gameView, "Cyan");
     if (clickLocation == null) {
       logger.error("clickLocation is null!");
       stop();
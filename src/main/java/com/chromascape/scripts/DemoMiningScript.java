@@ -54,7 +54,7 @@ public class DemoMiningScript extends BaseScript {
    */
   private void clickOre() {
     BufferedImage gameView = controller().zones().getGameView();
-    Point clickLoc = PointSelector.getRandomPointInColour(gameView, "Cyan", 15);
+    Point clickLoc = PointSelector.getRandomPointInColour(gameView, "Cyan");
     if (clickLoc == null) {
       logger.error("Click location is null");
       stop();
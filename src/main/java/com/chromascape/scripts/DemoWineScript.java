@@ -32,7 +32,6 @@ public class DemoWineScript extends BaseScript {
   private static final String dumpBank = "/images/user/Dump_bank.png";
   private static final String unfermented = "/images/user/Unfermented_wine.png";
 
-  private static final int MAX_ATTEMPTS = 15;
   private static final int INVENT_SLOT_GRAPES = 13;
   private static final int INVENT_SLOT_JUGS = 14;
 
@@ -104,14 +103,12 @@ public class DemoWineScript extends BaseScript {
 
   /**
    * Attempts to locate and click the purple bank object within the game view. It searches for
-   * purple contours, then clicks a randomly distributed point inside the contour bounding box,
-   * retrying up to a maximum number of attempts. Logs failures and stops the script if unable to
-   * click successfully.
+   * purple contours, then clicks a randomly distributed point inside the contour. Logs failures
+   * and stops the script if unable to click successfully.
    */
   private void clickBank() {
     Point clickLocation =
-        PointSelector.getRandomPointInColour(
-            controller().zones().getGameView(), "Cyan", MAX_ATTEMPTS);
+        PointSelector.getRandomPointInColour(controller().zones().getGameView(), "Cyan");
 
     if (clickLocation == null) {
       logger.error("clickBank click location is null");
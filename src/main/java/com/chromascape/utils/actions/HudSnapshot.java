@@ -0,0 +1,23 @@
+package com.chromascape.utils.actions;
+
+/**
+ * The minimap orb values and total XP, all read from the same captured frame by {@link
+ * Minimap#readHud}. Any value that could not be read is {@code -1}.
+ *
+ * @param hp The character's current hitpoints.
+ * @param prayer The character's current prayer points.
+ * @param run The character's current run energy.
+ * @param spec The character's current special attack energy.
+ * @param xp The total XP beside the minimap, which can exceed the range of an {@code int}.
+ */
+public record HudSnapshot(int hp, int prayer, int run, int spec, long xp) {
+
+  /**
+   * Checks whether every value was read.
+   *
+   * @return {@code true} if no value is {@code -1}
+   */
+  public boolean isComplete() {
+    return hp >= 0 && prayer >= 0 && run >= 0 && spec >= 0 && xp >= 0;
+  }
+}
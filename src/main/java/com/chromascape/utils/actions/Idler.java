@@ -2,6 +2,7 @@ package com.chromascape.utils.actions;
 
 import com.chromascape.base.BaseScript;
 import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.window.ZoneWatcher;
 import com.chromascape.utils.domain.ocr.Ocr;
 import java.awt.Rectangle;
 import java.time.Duration;
@@ -44,12 +45,17 @@ public class Idler {
     BaseScript.checkInterrupted();
     Instant start = Instant.now();
     Instant deadline = start.plus(Duration.ofSeconds(timeoutSeconds));
+    Rectangle latestMessage = base.controller().zones().getChatTabs().get("Latest Message");
+    ZoneWatcher chat = new ZoneWatcher(latestMessage);
     while (Instant.now().isBefore(deadline)) {
       // Throttle wait to reduce lag, this is enough.
       BaseScript.waitMillis(300);
-      Rectangle latestMessage = base.controller().zones().getChatTabs().get("Latest Message");
-      String idleText = Ocr.extractText(latestMessage, "Plain 12", chatRed, true);
-      String timeStamp = Ocr.extractText(latestMessage, "Plain 12", black, true);
+      // No new message can have arrived while the chat line is pixel for pixel the same
+      if (!chat.hasChanged()) {
+        continue;
+      }
+      String idleText = Ocr.extractText(latestMessage, "Plain 12", chatRed);
+      String timeStamp = Ocr.extractText(latestMessage, "Plain 12", black);
       if ((idleText.contains("moving") || idleText.contains("idle"))
           && !timeStamp.equals(lastMessage)) {
         lastMessage = timeStamp;
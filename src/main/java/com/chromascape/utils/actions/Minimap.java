@@ -2,8 +2,15 @@ package com.chromascape.utils.actions;
 
 import com.chromascape.base.BaseScript;
 import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.topology.ColourContours;
+import com.chromascape.utils.core.screen.window.FrameSnapshot;
+import com.chromascape.utils.core.screen.window.ScreenManager;
 import com.chromascape.utils.domain.ocr.Ocr;
+import com.chromascape.utils.domain.ocr.OcrEngine;
 import java.awt.Rectangle;
+import java.util.Map;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
 import org.bytedeco.opencv.opencv_core.Scalar;
 
 /**
@@ -25,11 +32,7 @@ public class Minimap {
    */
   public static int getHp(BaseScript script) {
     Rectangle textArea = script.controller().zones().getMinimap().get("hpText");
-    String hpText = Ocr.extractText(textArea, "Plain 11", textColour, true);
-    if (hpText.isEmpty()) {
-      return -1;
-    }
-    return Integer.parseInt(hpText);
+    return toInt(Ocr.readNumber(textArea, "Plain 11", textColour));
   }
 
   /**
@@ -39,11 +42,7 @@ public class Minimap {
    */
   public static int getPrayer(BaseScript script) {
     Rectangle textArea = script.controller().zones().getMinimap().get("prayerText");
-    String prayerText = Ocr.extractText(textArea, "Plain 11", textColour, true);
-    if (prayerText.isEmpty()) {
-      return -1;
-    }
-    return Integer.parseInt(prayerText);
+    return toInt(Ocr.readNumber(textArea, "Plain 11", textColour));
   }
 
   /**
@@ -53,11 +52,7 @@ public class Minimap {
    */
   public static int getRun(BaseScript script) {
     Rectangle textArea = script.controller().zones().getMinimap().get("runText");
-    String runText = Ocr.extractText(textArea, "Plain 11", textColour, true);
-    if (runText.isEmpty()) {
-      return -1;
-    }
-    return Integer.parseInt(runText);
+    return toInt(Ocr.readNumber(textArea, "Plain 11", textColour));
   }
 
   /**
@@ -67,11 +62,7 @@ public class Minimap {
    */
   public static int getSpec(BaseScript script) {
     Rectangle textArea = script.controller().zones().getMinimap().get("specText");
-    String specText = Ocr.extractText(textArea, "Plain 11", textColour, true);
-    if (specText.isEmpty()) {
-      return -1;
-    }
-    return Integer.parseInt(specText);
+    return toInt(Ocr.readNumber(textArea, "Plain 11", textColour));
   }
 
   /**
@@ -81,11 +72,88 @@ public class Minimap {
    * href="https://github.com/StaticSweep/ChromaScape/wiki/Requirements">see Requirements</a>
    *
    * @param script The current running script (typically pass {@code this})
-   * @return the XP integer, or empty if not found
+   * @return the total XP, which can exceed the range of an {@code int}, or -1 if not found
    */
-  public static int getXp(BaseScript script) {
+  public static long getXp(BaseScript script) {
     Rectangle xpZone = script.controller().zones().getMinimap().get("totalXP");
-    String xpText = Ocr.extractText(xpZone, "Plain 12", white, true);
-    return Integer.parseInt(xpText.trim().replace(",", ""));
+    return Ocr.readNumber(xpZone, "Plain 12", white);
+  }
+
+  /**
+   * Reads every orb value and the total XP at once, for scripts that check several vitals each
+   * cycle.
+   *
+   * <p>Takes one snapshot of the screen and thresholds the region covering all the text zones once
+   * per text colour. Each zone's mask is then cut out of its colour's mask and its number decoded
+   * on the calling thread, so the capture and colour conversion are paid once rather than per
+   * value. Unchanged masks are answered from the OCR cache, as the individual getters' zones are.
+   *
+   * @param script The current running script (typically pass {@code this})
+   * @return The values, each -1 if not found
+   * @throws RuntimeException If the screen could not be captured
+   */
+  public static HudSnapshot readHud(BaseScript script) {
+    Map<String, Rectangle> zones = script.controller().zones().getMinimap();
+    Rectangle hp = zones.get("hpText");
+    Rectangle prayer = zones.get("prayerText");
+    Rectangle run = zones.get("runText");
+    Rectangle spec = zones.get("specText");
+    Rectangle xp = zones.get("totalXP");
+    Rectangle bounds = hp.union(prayer).union(run).union(spec).union(xp);
+
+    Mat orbText;
+    Mat xpText;
+    try (FrameSnapshot frame = ScreenManager.snapshot()) {
+      if (frame == null) {
+        throw new RuntimeException("Screen could not be captured");
+      }
+      try (Mat region = frame.region(bounds)) {
+        orbText = ColourContours.extractColours(region, textColour);
+        xpText = ColourContours.extractColours(region, white);
+      }
+    }
+
+    try {
+      int hpValue = toInt(read(orbText, bounds, hp, "Plain 11"));
+      int prayerValue = toInt(read(orbText, bounds, prayer, "Plain 11"));
+      int runValue = toInt(read(orbText, bounds, run, "Plain 11"));
+      int specValue = toInt(read(orbText, bounds, spec, "Plain 11"));
+      long xpValue = read(xpText, bounds, xp, "Plain 12");
+      return new HudSnapshot(hpValue, prayerValue, runValue, specValue, xpValue);
+    } finally {
+      orbText.release();
+      xpText.release();
+    }
+  }
+
+  /**
+   * Internal helper to decode one zone's number from a mask of the shared region. The zone's mask
+   * goes through the {@link com.chromascape.utils.domain.ocr.OcrCache}, so an unchanged value costs
+   * one hash of the mask.
+   *
+   * @param mask The mask of the text's colour over the region covering every zone
+   * @param bounds The region the mask covers, in client relative co-ordinates
+   * @param zone The zone to read, in client relative co-ordinates
+   * @param font The font of the zone's text
+   * @return The number read, or -1 if not found
+   */
+  private static long read(Mat mask, Rectangle bounds, Rectangle zone, String font) {
+    BaseScript.checkInterrupted();
+    try (Rect roi = new Rect(zone.x - bounds.x, zone.y - bounds.y, zone.width, zone.height);
+        Mat zoneMask = new Mat(mask, roi)) {
+      return Ocr.engine().readNumber(zoneMask, font);
+    }
+  }
+
+  /**
+   * Internal helper to narrow an orb value to an {@code int}. A misread can produce up to 18
+   * digits, which no orb shows, so anything too large for an {@code int} is reported as not found
+   * rather than wrapped into an arbitrary value.
+   *
+   * @param value The number read, or {@link OcrEngine#NOT_FOUND}
+   * @return The value, or -1 if it was not found or is out of range
+   */
+  private static int toInt(long value) {
+    return value > Integer.MAX_VALUE ? (int) OcrEngine.NOT_FOUND : (int) value;
   }
 }
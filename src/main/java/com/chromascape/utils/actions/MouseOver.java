@@ -1,21 +1,19 @@
 package com.chromascape.utils.actions;
 
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
 import static org.bytedeco.opencv.global.opencv_core.bitwise_or;
 import static org.bytedeco.opencv.global.opencv_core.inRange;
 import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2HSV;
 import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
-import static org.opencv.core.CvType.CV_8UC1;
 
 import com.chromascape.base.BaseScript;
 import com.chromascape.utils.core.screen.colour.ColourObj;
 import com.chromascape.utils.core.screen.window.ScreenManager;
 import com.chromascape.utils.domain.ocr.Ocr;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Scalar;
 
@@ -24,7 +22,8 @@ import org.bytedeco.opencv.opencv_core.Scalar;
  *
  * <p>Uses OpenCV to iterate over a list of colours, and collates the resulting image into one
  * overall mask. This allows the user to get the text of the whole MouseOverText zone regardless of
- * colour.
+ * colour. The zone is a single line of text, so thresholding it once per colour is cheaper than
+ * compiling a {@link com.chromascape.utils.core.screen.colour.ColourClassifier} for it.
  *
  * <p>Allows the user to grab the MouseOverText immediately as a string, excluding spaces.
  */
@@ -53,18 +52,17 @@ public class MouseOver {
   public static String getText(BaseScript baseScript) {
     // Get image of MouseOverText
     Rectangle zone = baseScript.controller().zones().getMouseOver();
-    BufferedImage capture = ScreenManager.captureZone(zone);
 
-    // Convert the captured BGR image to HSV once here,
+    // Convert the captured image to HSV once here,
     // so we don't have to do it inside the loop for every single colour
     Mat hsvMat = new Mat();
-    try (Mat bgrMat = Java2DFrameUtils.toMat(capture)) {
+    try (Mat bgrMat = ScreenManager.captureZoneMat(zone)) {
       cvtColor(bgrMat, hsvMat, COLOR_BGR2HSV);
     }
 
     // Accumulate all colour matches into a single binary mask
-    try (Mat combinedMask =
-            new Mat(capture.getHeight(), capture.getWidth(), CV_8UC1, new Scalar(0));
+    try (Scalar zero = new Scalar(0);
+        Mat combinedMask = new Mat(hsvMat.rows(), hsvMat.cols(), CV_8UC1, zero);
         Mat tempMask = new Mat()) { // Reusable mask for the loop using try with resources
 
       for (ColourObj c : colours) {
@@ -79,7 +77,7 @@ public class MouseOver {
       // Cleanup
       hsvMat.release();
 
-      return Ocr.extractTextFromMask(combinedMask, "Bold 12", true);
+      return Ocr.extractTextFromMask(combinedMask, "Bold 12");
     }
   }
 }
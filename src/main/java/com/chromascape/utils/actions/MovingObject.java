@@ -8,6 +8,7 @@ import com.chromascape.utils.core.screen.window.ScreenManager;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,12 +35,12 @@ public class MovingObject {
   /** Logger that appends to the Web UI. */
   private static final Logger logger = LogManager.getLogger(MovingObject.class);
 
-  private static final String[] RED_CLICK_IMAGES = {
-    "/images/mouse_clicks/red_1.png",
-    "/images/mouse_clicks/red_2.png",
-    "/images/mouse_clicks/red_3.png",
-    "/images/mouse_clicks/red_4.png"
-  };
+  private static final List<String> RED_CLICK_IMAGES =
+      List.of(
+          "/images/mouse_clicks/red_1.png",
+          "/images/mouse_clicks/red_2.png",
+          "/images/mouse_clicks/red_3.png",
+          "/images/mouse_clicks/red_4.png");
 
   /**
    * Overload for the primary click method that accepts a colour name string. It performs a lookup
@@ -77,7 +78,7 @@ public class MovingObject {
     BaseScript.checkInterrupted();
     // Initial Calculation and Click
     BufferedImage gameView = baseScript.controller().zones().getGameView();
-    Point clickLocation = PointSelector.getRandomPointByColourObj(gameView, colour, 15);
+    Point clickLocation = PointSelector.getRandomPointByColourObj(gameView, colour);
 
     if (clickLocation == null) {
       return false;
@@ -98,7 +99,7 @@ public class MovingObject {
               () -> {
                 BufferedImage futureView = baseScript.controller().zones().getGameView();
                 // Increased scan radius for retries to catch moving targets
-                return PointSelector.getRandomPointByColourObj(futureView, colour, 15);
+                return PointSelector.getRandomPointByColourObj(futureView, colour);
               });
 
       // Wait for Red X to appear due to game delay
@@ -157,7 +158,7 @@ public class MovingObject {
   /**
    * Scans the captured click image for any frame of the Red X animation.
    *
-   * <p>Iterates through the preloaded red click images using template matching.
+   * <p>Matches every frame of the red click animation against the same image in one batch.
    *
    * @param clickImage The screenshot from the getClickImage method
    * @return true if any frame of the rec click animation is present, false otherwise
@@ -167,9 +168,6 @@ public class MovingObject {
       return false;
     }
 
-    for (String redClickImage : RED_CLICK_IMAGES) {
-      return TemplateMatching.match(redClickImage, clickImage, 0.15).success();
-    }
-    return false;
+    return TemplateMatching.matchBatch(RED_CLICK_IMAGES, clickImage, 0.15, false).success();
   }
 }
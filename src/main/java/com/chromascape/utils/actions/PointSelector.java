@@ -2,6 +2,7 @@ package com.chromascape.utils.actions;
 
 import com.chromascape.base.BaseScript;
 import com.chromascape.utils.core.input.distribution.ClickDistribution;
+import com.chromascape.utils.core.input.distribution.ContourPointSampler;
 import com.chromascape.utils.core.screen.colour.ColourInstances;
 import com.chromascape.utils.core.screen.colour.ColourObj;
 import com.chromascape.utils.core.screen.topology.ChromaObj;
@@ -39,7 +40,7 @@ import org.apache.logging.log4j.Logger;
  * // Default heuristic distribution
  * Point imgPoint = PointSelector.getRandomPointInImage(templatePath, gameView, 0.15);
  * // Custom tightness (maybe clicking a ground item)
- * Point colorPoint = PointSelector.getRandomPointInColour(gameView, "Purple", 5, 15.0);
+ * Point colorPoint = PointSelector.getRandomPointInColour(gameView, "Purple", 15.0);
  * </pre>
  *
  * <p>All methods are static and thread-safe.
@@ -98,21 +99,17 @@ public class PointSelector {
    * Attempts to find a random point inside the contour of the first object of the specified colour
    * using the default distribution heuristic.
    *
-   * <p>This is an overload for {@link #getRandomPointByColourObj(BufferedImage, ColourObj, int)}.
-   * It looks up the colour by name from {@link ColourInstances} at runtime.
+   * <p>This is an overload for {@link #getRandomPointByColourObj(BufferedImage, ColourObj)}. It
+   * looks up the colour by name from {@link ColourInstances} at runtime.
    *
    * @param image the image to search in (e.g. game view)
    * @param colourName the name of the colour (must match a {@link ColourInstances} key, e.g.
    *     "Purple")
-   * @param maxAttempts maximum number of re-rolls to find a point that falls exactly inside the
-   *     irregular contour
-   * @return a random {@link Point} inside the contour, or {@code null} if not found or max attempts
-   *     exceeded
+   * @return a random {@link Point} inside the contour, or {@code null} if no object is found
    */
-  public static Point getRandomPointInColour(
-      BufferedImage image, String colourName, int maxAttempts) {
+  public static Point getRandomPointInColour(BufferedImage image, String colourName) {
     // Calls the public API after grabbing the colour
-    return getRandomPointByColourObj(image, ColourInstances.getByName(colourName), maxAttempts);
+    return getRandomPointByColourObj(image, ColourInstances.getByName(colourName));
   }
 
   /**
@@ -122,40 +119,31 @@ public class PointSelector {
    * @param image the image to search in (e.g. game view)
    * @param colourName the name of the colour (must match a {@link ColourInstances} key, e.g.
    *     "Purple")
-   * @param maxAttempts maximum number of re-rolls to find a point that falls exactly inside the
-   *     irregular contour
    * @param tightness the distribution divisor. Higher values (e.g., 15.0) result in a tighter
    *     cluster around the center
-   * @return a random {@link Point} inside the contour, or {@code null} if not found or max attempts
-   *     exceeded
+   * @return a random {@link Point} inside the contour, or {@code null} if no object is found
    */
   public static Point getRandomPointInColour(
-      BufferedImage image, String colourName, int maxAttempts, double tightness) {
+      BufferedImage image, String colourName, double tightness) {
     // Call the public API after grabbing the colour
-    return getRandomPointByColourObj(
-        image, ColourInstances.getByName(colourName), maxAttempts, tightness);
+    return getRandomPointByColourObj(image, ColourInstances.getByName(colourName), tightness);
   }
 
   /**
    * Attempts to find a random point inside the contour of the first object of the specified {@link
    * ColourObj}.
    *
-   * <p>Uses {@link ColourContours} to mask the image and extract contours. It generates a random
-   * point within the bounding box of the detected {@link ChromaObj} and verifies if the point lies
-   * within the actual contour polygon.
+   * <p>Uses {@link ColourContours} to mask the image and extract contours. The point is drawn with
+   * a {@link ContourPointSampler} from the pixels inside the detected {@link ChromaObj}'s contour,
+   * weighted by the same Gaussian {@link ClickDistribution} uses on its bounding box.
    *
    * @param image the image to search in
    * @param colour the specific {@link ColourObj} to detect
-   * @param maxAttempts maximum number of re-rolls to find a point that falls exactly inside the
-   *     irregular contour
-   * @return a random {@link Point} inside the contour, or {@code null} if not found or max attempts
-   *     exceeded
+   * @return a random {@link Point} inside the contour, or {@code null} if no object is found
    */
-  public static Point getRandomPointByColourObj(
-      BufferedImage image, ColourObj colour, int maxAttempts) {
+  public static Point getRandomPointByColourObj(BufferedImage image, ColourObj colour) {
     // Defines which function to apply onto the rectangle found
-    return findPointInColourInternal(
-        image, colour, maxAttempts, ClickDistribution::generateRandomPoint);
+    return findPointInColourInternal(image, colour, ContourPointSampler::of);
   }
 
   /**
@@ -164,18 +152,88 @@ public class PointSelector {
    *
    * @param image the image to search in
    * @param colour the specific {@link ColourObj} to detect
-   * @param maxAttempts maximum number of re-rolls to find a point that falls exactly inside the
-   *     irregular contour
    * @param tightness the distribution divisor. Higher values (e.g., 15.0) result in a tighter
    *     cluster around the center
-   * @return a random {@link Point} inside the contour, or {@code null} if not found or max attempts
-   *     exceeded
+   * @return a random {@link Point} inside the contour, or {@code null} if no object is found
    */
   public static Point getRandomPointByColourObj(
-      BufferedImage image, ColourObj colour, int maxAttempts, double tightness) {
+      BufferedImage image, ColourObj colour, double tightness) {
     // Defines which function to apply onto the rectangle found
     return findPointInColourInternal(
-        image, colour, maxAttempts, rect -> ClickDistribution.generateRandomPoint(rect, tightness));
+        image, colour, obj -> ContourPointSampler.of(obj, tightness));
+  }
+
+  /**
+   * Attempts to find a random point inside the contour of the first object of the specified colour
+   * using the default distribution heuristic.
+   *
+   * @param image the image to search in (e.g. game view)
+   * @param colourName the name of the colour
+   * @param maxAttempts ignored
+   * @return a random {@link Point} inside the contour, or {@code null} if no object is found
+   * @deprecated Points are drawn from inside the contour and are never re-rolled, so there are no
+   *     attempts to limit. Use {@link #getRandomPointInColour(BufferedImage, String)}. Note an
+   *     {@code int} third argument still selects this overload, so write a tightness as a {@code
+   *     double}, e.g. {@code 15.0}.
+   */
+  @Deprecated
+  public static Point getRandomPointInColour(
+      BufferedImage image, String colourName, int maxAttempts) {
+    return getRandomPointInColour(image, colourName);
+  }
+
+  /**
+   * Attempts to find a random point inside the contour of the first object of the specified colour
+   * using a specific Gaussian tightness.
+   *
+   * @param image the image to search in (e.g. game view)
+   * @param colourName the name of the colour
+   * @param maxAttempts ignored
+   * @param tightness the distribution divisor
+   * @return a random {@link Point} inside the contour, or {@code null} if no object is found
+   * @deprecated Points are never re-rolled. Use {@link #getRandomPointInColour(BufferedImage,
+   *     String, double)}.
+   */
+  @Deprecated
+  public static Point getRandomPointInColour(
+      BufferedImage image, String colourName, int maxAttempts, double tightness) {
+    return getRandomPointInColour(image, colourName, tightness);
+  }
+
+  /**
+   * Attempts to find a random point inside the contour of the first object of the specified {@link
+   * ColourObj}.
+   *
+   * @param image the image to search in
+   * @param colour the specific {@link ColourObj} to detect
+   * @param maxAttempts ignored
+   * @return a random {@link Point} inside the contour, or {@code null} if no object is found
+   * @deprecated Points are never re-rolled. Use {@link #getRandomPointByColourObj(BufferedImage,
+   *     ColourObj)}. Note an {@code int} third argument still selects this overload, so write a
+   *     tightness as a {@code double}, e.g. {@code 15.0}.
+   */
+  @Deprecated
+  public static Point getRandomPointByColourObj(
+      BufferedImage image, ColourObj colour, int maxAttempts) {
+    return getRandomPointByColourObj(image, colour);
+  }
+
+  /**
+   * Attempts to find a random point inside the contour of the first object of the specified {@link
+   * ColourObj} using a specific Gaussian tightness.
+   *
+   * @param image the image to search in
+   * @param colour the specific {@link ColourObj} to detect
+   * @param maxAttempts ignored
+   * @param tightness the distribution divisor
+   * @return a random {@link Point} inside the contour, or {@code null} if no object is found
+   * @deprecated Points are never re-rolled. Use {@link #getRandomPointByColourObj(BufferedImage,
+   *     ColourObj, double)}.
+   */
+  @Deprecated
+  public static Point getRandomPointByColourObj(
+      BufferedImage image, ColourObj colour, int maxAttempts, double tightness) {
+    return getRandomPointByColourObj(image, colour, tightness);
   }
 
   /**
@@ -199,14 +257,13 @@ public class PointSelector {
   }
 
   /**
-   * Internal abstraction for colour contour logic. Handles object detection, contour validation
-   * loops, and memory cleanup.
+   * Internal abstraction for colour contour logic. Detects the objects, then draws a point from
+   * the chosen object's {@link ContourPointSampler}, which always lands inside its contour.
    */
   private static Point findPointInColourInternal(
       BufferedImage image,
       ColourObj colour,
-      int maxAttempts,
-      Function<Rectangle, Point> pointGenerator) {
+      Function<ChromaObj, ContourPointSampler> samplerFactory) {
 
     List<ChromaObj> objs;
     try {
@@ -224,30 +281,8 @@ public class PointSelector {
 
     // Use the closest object to screen centre since only one object is desired
     ChromaObj obj = ColourContours.getChromaObjClosestToCentre(objs);
-    try {
-      int attempts = 0;
-      // Generate initial point using the function provided (Heuristic or Tightness)
-      Point p = pointGenerator.apply(obj.boundingBox());
-
-      // Resample if the point is outside the actual pixel contour
-      while (!ColourContours.isPointInContour(p, obj.contour()) && attempts < maxAttempts) {
-        BaseScript.checkInterrupted();
-        // Apply the desired function on the bounding box
-        p = pointGenerator.apply(obj.boundingBox());
-        attempts++;
-      }
-
-      if (attempts >= maxAttempts) {
-        logger.error(
-            "Failed to find a valid point in {} contour after {} attempts.", colour, maxAttempts);
-        return null;
-      }
-      return p;
-    } finally {
-      // Release Mat contours to free memory.
-      for (ChromaObj chromaObj : objs) {
-        chromaObj.release();
-      }
-    }
+    BaseScript.checkInterrupted();
+    // Draw straight from the pixels inside the contour, so no point ever needs re-rolling
+    return samplerFactory.apply(obj).sample();
   }
 }
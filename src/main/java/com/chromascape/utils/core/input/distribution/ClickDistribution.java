@@ -2,23 +2,28 @@ package com.chromascape.utils.core.input.distribution;
 
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.security.SecureRandom;
-import org.apache.commons.math3.distribution.MultivariateNormalDistribution;
-import org.apache.commons.math3.random.MersenneTwister;
-import org.apache.commons.math3.random.RandomGenerator;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.commons.math3.special.Erf;
 
 /**
  * Utility class for generating biased, Gaussian-distributed click points within a rectangular UI
  * region.
  *
- * <p>Instead of uniformly sampling click coordinates, this utility uses a {@link
- * MultivariateNormalDistribution} centered within the given rectangle. This approach simulates
- * human-like behavior by favoring points near the center while still allowing edge hits.
+ * <p>Instead of uniformly sampling click coordinates, this utility uses a 2D normal distribution
+ * centered within the given rectangle. This approach simulates human-like behavior by favoring
+ * points near the center while still allowing edge hits. Each axis is drawn from a normal truncated
+ * to the rectangle, so sampling is exact, takes a bounded time and is safe to call from any thread.
  */
 public class ClickDistribution {
 
-  /** Shared random generator with a secure, non-deterministic seed. */
-  private static final RandomGenerator rng = new MersenneTwister(new SecureRandom().nextLong());
+  /** Square root of two, used to convert between the normal distribution and the error function. */
+  private static final double SQRT2 = Math.sqrt(2);
+
+  /**
+   * How many plain normal draws to try per axis before falling back to the inverse CDF, which is
+   * exact for any spread but costs an order of magnitude more per draw.
+   */
+  private static final int MAX_DRAWS = 4;
 
   /**
    * Generates a pseudo-random {@link Point} within the specified {@link Rectangle}, following a 2D
@@ -36,8 +41,8 @@ public class ClickDistribution {
     }
 
     // Calculate sigma based on internal heuristic
-    double stdDevX = rect.width / deviation(rect.getWidth());
-    double stdDevY = rect.height / deviation(rect.getHeight());
+    double stdDevX = heuristicStdDev(rect.getWidth());
+    double stdDevY = heuristicStdDev(rect.getHeight());
 
     return samplePoint(rect, stdDevX, stdDevY);
   }
@@ -74,41 +79,86 @@ public class ClickDistribution {
     return samplePoint(rect, stdDevX, stdDevY);
   }
 
-  /** Internal helper to execute the sampling logic given specific standard deviations. */
-  private static Point samplePoint(Rectangle rect, double stdDevX, double stdDevY) {
-    MultivariateNormalDistribution mnd = getMultivariateNormalDistribution(rect, stdDevX, stdDevY);
-
-    Point randomPoint;
-    do {
-      double[] sample = mnd.sample();
-      randomPoint = new Point((int) Math.round(sample[0]), (int) Math.round(sample[1]));
-    } while (!rect.contains(randomPoint)); // Resample until within bounds
-
-    return randomPoint;
+  /**
+   * Gets the standard deviation {@link #generateRandomPoint(Rectangle)} uses along one side of a
+   * rectangle, so that other samplers can match its spread.
+   *
+   * @param length the width or height (in pixels) of a side of the rectangle
+   * @return the standard deviation along that side, in pixels
+   */
+  public static double heuristicStdDev(double length) {
+    return length / deviation(length);
   }
 
   /**
-   * Constructs a {@link MultivariateNormalDistribution} centered within the given rectangle using
-   * explicit standard deviations.
+   * Internal helper to execute the sampling logic given specific standard deviations.
    *
-   * @param rect the rectangle to derive center from
-   * @param stdDevX the standard deviation for the X axis
-   * @param stdDevY the standard deviation for the Y axis
-   * @return a 2D normal distribution configured with the provided spread
+   * <p>With no correlation between the axes, a 2D normal truncated to a rectangle is two
+   * independent 1D normals truncated to its sides, so each axis is drawn on its own. A sample
+   * rounds to a pixel of the rectangle when it lies within half a pixel of its edges, so each axis
+   * is redrawn until it rounds into range, which gives exactly the distribution that resampling the
+   * whole point until it lands inside would, with no allocation beyond the returned point.
    */
-  private static MultivariateNormalDistribution getMultivariateNormalDistribution(
-      Rectangle rect, double stdDevX, double stdDevY) {
-
+  private static Point samplePoint(Rectangle rect, double stdDevX, double stdDevY) {
     double meanX = rect.getX() + rect.getWidth() / 2.0;
     double meanY = rect.getY() + rect.getHeight() / 2.0;
-    double[] mean = {meanX, meanY};
+    int x = truncatedNormal(meanX, stdDevX, rect.x, rect.x + rect.width - 1);
+    int y = truncatedNormal(meanY, stdDevY, rect.y, rect.y + rect.height - 1);
+    return new Point(x, y);
+  }
+
+  /**
+   * Draws a normally distributed value, rounded to the nearest integer and conditioned on landing
+   * within {@code [min, max]}.
+   *
+   * <p>Plain draws are kept when they round into range, which most do at the usual spreads. When
+   * {@link #MAX_DRAWS} in a row miss, the value is drawn by inverse transform sampling instead, so
+   * very broad spreads cost a bounded time. Either way the value follows the same conditioned
+   * distribution.
+   *
+   * @param mean the mean of the normal distribution
+   * @param stdDev the standard deviation of the normal distribution
+   * @param min the smallest integer to return
+   * @param max the largest integer to return
+   * @return an integer in {@code [min, max]}
+   */
+  private static int truncatedNormal(double mean, double stdDev, int min, int max) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < MAX_DRAWS; i++) {
+      long value = Math.round(mean + stdDev * random.nextGaussian());
+      if (value >= min && value <= max) {
+        return (int) value;
+      }
+    }
+
+    // Values in [min - 0.5, max + 0.5) round into range
+    double lower = normalCdf((min - 0.5 - mean) / stdDev);
+    double upper = normalCdf((max + 0.5 - mean) / stdDev);
+    double u = lower + random.nextDouble() * (upper - lower);
+    long value = Math.round(mean + stdDev * inverseNormalCdf(u));
+    // Guards against rounding at the very edges of the interval
+    return (int) Math.max(min, Math.min(max, value));
+  }
 
-    double[][] covariance = {
-      {stdDevX * stdDevX, 0}, // No correlation between X and Y
-      {0, stdDevY * stdDevY}
-    };
+  /**
+   * The standard normal cumulative distribution function.
+   *
+   * @param z the standard score
+   * @return the probability of a standard normal value below {@code z}
+   */
+  private static double normalCdf(double z) {
+    return 0.5 * Erf.erfc(-z / SQRT2);
+  }
 
-    return new MultivariateNormalDistribution(ClickDistribution.rng, mean, covariance);
+  /**
+   * The inverse of the standard normal cumulative distribution function.
+   *
+   * @param p a probability in {@code [0, 1]}
+   * @return the standard score below which a standard normal value falls with probability {@code
+   *     p}
+   */
+  private static double inverseNormalCdf(double p) {
+    return -SQRT2 * Erf.erfcInv(2 * p);
   }
 
   /**
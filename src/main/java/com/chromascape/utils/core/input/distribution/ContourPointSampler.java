@@ -0,0 +1,264 @@
+package com.chromascape.utils.core.input.distribution;
+
+import com.chromascape.utils.core.screen.topology.ChromaObj;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws Gaussian-distributed click points directly from the pixels inside an object's contour.
+ *
+ * <p>{@link ClickDistribution} samples a bounding box, so points must be re-rolled until one lands
+ * inside the contour, which thin or concave objects often never manage. This sampler instead
+ * rasterises the contour once, weights every pixel inside it by the same centre-biased Gaussian,
+ * and builds a cumulative distribution over them. Every draw is then a binary search that always
+ * lands inside the object, with no retries.
+ *
+ * <p>Pixels strictly inside the contour are used, matching {@link ChromaObj#contains(int, int)}.
+ * Objects too thin to have any, such as one pixel wide lines, fall back to the contour's own
+ * pixels, which are still part of the object.
+ */
+public final class ContourPointSampler {
+
+  /** Lower bound on the standard deviation, so tiny objects never weight every pixel to zero. */
+  private static final double MIN_STD_DEV = 0.5;
+
+  /** Pixels that can be drawn, as x and y in image co-ordinates. */
+  private final int[] pixels;
+
+  /** Running total of the pixels' weights, in the same order. */
+  private final double[] cumulative;
+
+  /**
+   * Internal constructor, taking ownership of the arrays.
+   *
+   * @param pixels Pixels that can be drawn, as x and y
+   * @param cumulative Running total of the pixels' weights
+   */
+  private ContourPointSampler(int[] pixels, double[] cumulative) {
+    this.pixels = pixels;
+    this.cumulative = cumulative;
+  }
+
+  /**
+   * Creates a sampler for an object, with the spread {@link
+   * ClickDistribution#generateRandomPoint(Rectangle)} would use on its bounding box.
+   *
+   * @param obj the object to sample inside
+   * @return the sampler
+   */
+  public static ContourPointSampler of(ChromaObj obj) {
+    Rectangle box = obj.boundingBox();
+    return of(
+        obj,
+        ClickDistribution.heuristicStdDev(box.getWidth()),
+        ClickDistribution.heuristicStdDev(box.getHeight()));
+  }
+
+  /**
+   * Creates a sampler for an object, with the spread {@link
+   * ClickDistribution#generateRandomPoint(Rectangle, double)} would use on its bounding box.
+   *
+   * @param obj the object to sample inside
+   * @param tightness the factor by which to divide the bounding box's dimensions to get sigma.
+   *     Must be positive.
+   * @return the sampler
+   * @throws IllegalArgumentException if tightness is less than or equal to zero
+   */
+  public static ContourPointSampler of(ChromaObj obj, double tightness) {
+    if (tightness <= 0) {
+      throw new IllegalArgumentException("Tightness factor must be greater than 0");
+    }
+    Rectangle box = obj.boundingBox();
+    return of(obj, box.width / tightness, box.height / tightness);
+  }
+
+  /**
+   * Internal factory that rasterises the contour and weights its pixels.
+   *
+   * @param obj the object to sample inside
+   * @param stdDevX the standard deviation along the x axis
+   * @param stdDevY the standard deviation along the y axis
+   * @return the sampler
+   */
+  private static ContourPointSampler of(ChromaObj obj, double stdDevX, double stdDevY) {
+    Rectangle box = obj.boundingBox();
+    int[] polygon = obj.polygon();
+    boolean[] edge = edgePixels(polygon, box);
+    int[] inside = interiorPixels(polygon, box, edge);
+    int[] pixels = inside.length > 0 ? inside : outlinePixels(box, edge);
+
+    // Centred as ClickDistribution centres its Gaussian on the bounding box
+    double meanX = box.getX() + box.getWidth() / 2.0;
+    double meanY = box.getY() + box.getHeight() / 2.0;
+    double scaleX = 1 / (2 * square(Math.max(stdDevX, MIN_STD_DEV)));
+    double scaleY = 1 / (2 * square(Math.max(stdDevY, MIN_STD_DEV)));
+    double[] cumulative = new double[pixels.length / 2];
+    double total = 0;
+    for (int i = 0; i < cumulative.length; i++) {
+      double dx = pixels[i * 2] - meanX;
+      double dy = pixels[i * 2 + 1] - meanY;
+      total += Math.exp(-(dx * dx * scaleX + dy * dy * scaleY));
+      cumulative[i] = total;
+    }
+    if (total == 0) {
+      // Every pixel is far out in the tails, fall back to drawing them uniformly
+      for (int i = 0; i < cumulative.length; i++) {
+        cumulative[i] = i + 1;
+      }
+    }
+    return new ContourPointSampler(pixels, cumulative);
+  }
+
+  /**
+   * Gets the number of pixels points are drawn from.
+   *
+   * @return the pixel count
+   */
+  public int size() {
+    return cumulative.length;
+  }
+
+  /**
+   * Draws a random point inside the object, favouring its bounding box's centre.
+   *
+   * @return a new {@link Point} on one of the object's pixels, in image co-ordinates
+   */
+  public Point sample() {
+    double target = ThreadLocalRandom.current().nextDouble() * cumulative[cumulative.length - 1];
+    int index = Arrays.binarySearch(cumulative, target);
+    // Not found gives -(insertion point) - 1, the first pixel whose running total exceeds target
+    if (index < 0) {
+      index = -index - 1;
+    }
+    index = Math.min(index, cumulative.length - 1);
+    return new Point(pixels[index * 2], pixels[index * 2 + 1]);
+  }
+
+  /**
+   * Marks every pixel the contour passes through. Contours from {@code findContours} only step
+   * horizontally, vertically or diagonally, so walking each edge in steps of the gcd of its
+   * extents visits exactly its integer points.
+   *
+   * @param polygon the contour's vertices as interleaved x and y
+   * @param box the contour's bounding box
+   * @return one flag per bounding box pixel, row by row
+   */
+  private static boolean[] edgePixels(int[] polygon, Rectangle box) {
+    boolean[] edge = new boolean[box.width * box.height];
+    int vertices = polygon.length / 2;
+    for (int i = 0; i < vertices; i++) {
+      int j = (i + 1) % vertices;
+      int x = polygon[i * 2];
+      int y = polygon[i * 2 + 1];
+      int dx = polygon[j * 2] - x;
+      int dy = polygon[j * 2 + 1] - y;
+      int steps = Math.max(gcd(Math.abs(dx), Math.abs(dy)), 1);
+      for (int s = 0; s <= steps; s++) {
+        int px = x + dx / steps * s;
+        int py = y + dy / steps * s;
+        edge[(py - box.y) * box.width + px - box.x] = true;
+      }
+    }
+    return edge;
+  }
+
+  /**
+   * Collects the pixels strictly inside the contour with an even-odd scanline fill, skipping the
+   * contour's own pixels.
+   *
+   * @param polygon the contour's vertices as interleaved x and y
+   * @param box the contour's bounding box
+   * @param edge the contour's pixels, from {@link #edgePixels}
+   * @return the pixels as interleaved x and y, row by row
+   */
+  private static int[] interiorPixels(int[] polygon, Rectangle box, boolean[] edge) {
+    int vertices = polygon.length / 2;
+    double[] crossings = new double[vertices];
+    int[] pixels = new int[16];
+    int count = 0;
+    for (int y = box.y; y < box.y + box.height; y++) {
+      int found = 0;
+      for (int i = 0, j = vertices - 1; i < vertices; j = i++) {
+        int xi = polygon[i * 2];
+        int yi = polygon[i * 2 + 1];
+        int xj = polygon[j * 2];
+        int yj = polygon[j * 2 + 1];
+        // The same half-open rule as ChromaObj.contains, so horizontal edges never count
+        if ((yi > y) != (yj > y)) {
+          crossings[found++] = xi + (double) (xj - xi) * (y - yi) / (yj - yi);
+        }
+      }
+      Arrays.sort(crossings, 0, found);
+      // A pixel is inside when an odd number of crossings lie at or before it
+      for (int k = 0; k + 1 < found; k += 2) {
+        int from = (int) Math.ceil(crossings[k]);
+        int to = (int) Math.ceil(crossings[k + 1]);
+        int row = (y - box.y) * box.width - box.x;
+        for (int x = from; x < to; x++) {
+          if (edge[row + x]) {
+            continue;
+          }
+          if (count + 2 > pixels.length) {
+            pixels = Arrays.copyOf(pixels, pixels.length * 2);
+          }
+          pixels[count++] = x;
+          pixels[count++] = y;
+        }
+      }
+    }
+    return Arrays.copyOf(pixels, count);
+  }
+
+  /**
+   * Collects the contour's own pixels, for objects with nothing strictly inside them.
+   *
+   * @param box the contour's bounding box
+   * @param edge the contour's pixels, from {@link #edgePixels}
+   * @return the pixels as interleaved x and y, row by row
+   */
+  private static int[] outlinePixels(Rectangle box, boolean[] edge) {
+    int count = 0;
+    for (boolean set : edge) {
+      if (set) {
+        count++;
+      }
+    }
+    int[] pixels = new int[count * 2];
+    int next = 0;
+    for (int i = 0; i < edge.length; i++) {
+      if (edge[i]) {
+        pixels[next++] = box.x + i % box.width;
+        pixels[next++] = box.y + i / box.width;
+      }
+    }
+    return pixels;
+  }
+
+  /**
+   * Internal helper for the greatest common divisor of two non-negative integers.
+   *
+   * @param a the first integer
+   * @param b the second integer
+   * @return their greatest common divisor, or {@code 0} if both are zero
+   */
+  private static int gcd(int a, int b) {
+    while (b != 0) {
+      int t = a % b;
+      a = b;
+      b = t;
+    }
+    return a;
+  }
+
+  /**
+   * Internal helper to square a value.
+   *
+   * @param value the value
+   * @return the value squared
+   */
+  private static double square(double value) {
+    return value * value;
+  }
+}
@@ -2,6 +2,8 @@ package com.chromascape.utils.core.input.keyboard;
 
 import com.chromascape.base.BaseScript;
 import com.chromascape.utils.core.input.remoteinput.RemoteInput;
+import com.chromascape.utils.core.screen.recording.RecordedInput;
+import com.chromascape.utils.core.screen.recording.SessionRecorder;
 import com.chromascape.utils.core.state.BotState;
 import com.chromascape.utils.core.state.StateManager;
 import com.chromascape.utils.core.statistics.StatisticsManager;
@@ -52,6 +54,7 @@ public class VirtualKeyboardUtils {
     prepareInput();
     if (!input.isKeyHeld(javaKeyCode)) {
       input.holdKey(javaKeyCode);
+      SessionRecorder.recordInput(RecordedInput.Kind.KEY_DOWN, 0, 0, javaKeyCode);
     }
   }
 
@@ -69,6 +72,7 @@ public class VirtualKeyboardUtils {
     prepareInput();
     if (input.isKeyHeld(javaKeyCode)) {
       input.releaseKey(javaKeyCode);
+      SessionRecorder.recordInput(RecordedInput.Kind.KEY_UP, 0, 0, javaKeyCode);
     }
   }
 
@@ -95,6 +99,7 @@ public class VirtualKeyboardUtils {
       int keyModWait = RANDOM.nextInt(30, 60);
       int keyPressWait = RANDOM.nextInt(40, 85);
       input.sendString(String.valueOf(c), keyWait, keyModWait);
+      SessionRecorder.recordInput(RecordedInput.Kind.KEY_TYPED, 0, 0, c);
       BaseScript.waitMillis(keyPressWait);
     }
   }
@@ -113,6 +118,7 @@ public class VirtualKeyboardUtils {
     prepareInput();
     for (char c : string.toCharArray()) {
       input.sendString(String.valueOf(c), keyWait, keyModWait);
+      SessionRecorder.recordInput(RecordedInput.Kind.KEY_TYPED, 0, 0, c);
       BaseScript.waitMillis(keyPressWait);
     }
   }
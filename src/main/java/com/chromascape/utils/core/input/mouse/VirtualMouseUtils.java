@@ -3,6 +3,8 @@ package com.chromascape.utils.core.input.mouse;
 import com.chromascape.base.BaseScript;
 import com.chromascape.utils.core.input.remoteinput.MouseButton;
 import com.chromascape.utils.core.input.remoteinput.RemoteInput;
+import com.chromascape.utils.core.screen.recording.RecordedInput;
+import com.chromascape.utils.core.screen.recording.SessionRecorder;
 import com.chromascape.utils.core.state.BotState;
 import com.chromascape.utils.core.state.StateManager;
 import com.chromascape.utils.core.statistics.StatisticsManager;
@@ -109,6 +111,7 @@ public class VirtualMouseUtils {
           synchronized (inputLock) {
             input.moveMouse(target);
           }
+          SessionRecorder.recordInput(RecordedInput.Kind.MOUSE_MOVE, target.x, target.y, 0);
           lastSentPoint = target;
         }
       } else {
@@ -180,6 +183,7 @@ public class VirtualMouseUtils {
     synchronized (inputLock) {
       input.moveMouse(target);
     }
+    SessionRecorder.recordInput(RecordedInput.Kind.MOUSE_MOVE, target.x, target.y, 0);
   }
 
   /**
@@ -192,8 +196,10 @@ public class VirtualMouseUtils {
     prepareInput();
     synchronized (inputLock) {
       input.holdMouse(button);
+      recordInput(RecordedInput.Kind.MOUSE_DOWN, button.ordinal());
       BaseScript.waitRandomMillis(50, 80);
       input.releaseMouse(button);
+      recordInput(RecordedInput.Kind.MOUSE_UP, button.ordinal());
     }
   }
 
@@ -222,6 +228,7 @@ public class VirtualMouseUtils {
     synchronized (inputLock) {
       if (!input.isMouseHeld(button)) {
         input.holdMouse(button);
+        recordInput(RecordedInput.Kind.MOUSE_DOWN, button.ordinal());
       }
     }
   }
@@ -246,6 +253,7 @@ public class VirtualMouseUtils {
     synchronized (inputLock) {
       if (input.isMouseHeld(button)) {
         input.releaseMouse(button);
+        recordInput(RecordedInput.Kind.MOUSE_UP, button.ordinal());
       }
     }
   }
@@ -265,6 +273,7 @@ public class VirtualMouseUtils {
 
     while (notchesSent < totalNotches) {
       input.scrollMouse(down ? 1 : -1);
+      recordInput(RecordedInput.Kind.SCROLL, down ? 1 : -1);
       notchesSent++;
 
       if (k % step == 0) {
@@ -277,4 +286,15 @@ public class VirtualMouseUtils {
       k++;
     }
   }
+
+  /**
+   * Passes an input event at the current mouse position to the {@link SessionRecorder}.
+   *
+   * @param kind What kind of input was sent
+   * @param code The mouse button ordinal or scroll direction
+   */
+  private void recordInput(RecordedInput.Kind kind, int code) {
+    Point position = currentPosition;
+    SessionRecorder.recordInput(kind, position.x, position.y, code);
+  }
 }
@@ -0,0 +1,301 @@
+package com.chromascape.utils.core.screen.colour;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2HSV;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+/**
+ * Classifies every pixel of an image against a fixed set of {@link ColourObj}s in a single pass.
+ *
+ * <p>When the classifier is compiled, every one of the 16.7 million BGR colours is converted to HSV
+ * once and tested against each colour's range. The results are stored in a lookup table that maps
+ * a BGR value straight to a bitmask with one bit per colour. Labelling a frame is then a table
+ * lookup per pixel on the raw BGRA buffer. The HSV conversion and range tests are paid once per
+ * classifier, instead of once per colour on every call as with {@code inRange}.
+ *
+ * <p>Compiling takes in the order of a second, so classifiers should be built once and reused. A
+ * classifier over every entry in {@link ColourInstances} is kept by {@link #forAllColours()}.
+ *
+ * <pre>{@code
+ * LabelMap labels = ColourClassifier.forAllColours().label(frame);
+ * Mat purple = labels.mask("Purple");
+ * Mat text = labels.mask("Yellow", "White");
+ * }</pre>
+ */
+public final class ColourClassifier {
+
+  private static final Logger logger = LogManager.getLogger(ColourClassifier.class);
+
+  /** One bit per colour in an {@code int} label. */
+  public static final int MAX_COLOURS = Integer.SIZE;
+
+  /** Selects how the BGR to label lookup table is stored. */
+  public enum Table {
+
+    /**
+     * A 32K entry table indexed by the top 5 bits of each channel. Blocks of 8x8x8 colours that
+     * straddle a range boundary keep a second level table of their 512 exact labels, so results
+     * are identical to {@link #FULL} in a fraction of the memory.
+     */
+    COMPACT,
+
+    /**
+     * A flat 16M entry table indexed by the full 24 bit colour. One lookup per pixel, at the cost
+     * of 64 MB of heap per classifier.
+     */
+    FULL
+  }
+
+  /** Shared classifier over every colour in {@link ColourInstances}. */
+  private static ColourClassifier allColours;
+
+  private final List<ColourObj> colours;
+
+  private final List<String> names;
+
+  /** Labels by full 24 bit colour for {@link Table#FULL}, otherwise {@code null}. */
+  private final int[] full;
+
+  /** Labels by 15 bit colour block for {@link Table#COMPACT}, otherwise {@code null}. */
+  private final int[] blocks;
+
+  /** Exact labels of the blocks that are not a single label, indexed by block. */
+  private final int[][] mixedBlocks;
+
+  /**
+   * Internal constructor, see {@link #compile(List, Table)}.
+   *
+   * @param colours The colours, in bit order
+   * @param table How to store the lookup table
+   */
+  private ColourClassifier(List<ColourObj> colours, Table table) {
+    this.colours = List.copyOf(colours);
+    this.names = colours.stream().map(ColourObj::name).toList();
+    if (table == Table.FULL) {
+      full = new int[1 << 24];
+      blocks = null;
+      mixedBlocks = null;
+      classifyPlanes(
+          colours, (blue, labels) -> System.arraycopy(labels, 0, full, blue << 16, labels.length));
+    } else {
+      full = null;
+      blocks = new int[1 << 15];
+      mixedBlocks = new int[1 << 15][];
+      boolean[] seen = new boolean[1 << 15];
+      classifyPlanes(colours, (blue, labels) -> fillBlocks(blue, labels, seen));
+    }
+  }
+
+  /**
+   * Compiles a classifier over the given colours with a {@link Table#COMPACT} table.
+   *
+   * @param colours The colours to classify, at most {@value #MAX_COLOURS}, with unique names
+   * @return The compiled classifier
+   * @throws IllegalArgumentException If there are too many colours or their names are not unique
+   */
+  public static ColourClassifier compile(List<ColourObj> colours) {
+    return compile(colours, Table.COMPACT);
+  }
+
+  /**
+   * Compiles a classifier over the given colours.
+   *
+   * @param colours The colours to classify, at most {@value #MAX_COLOURS}, with unique names
+   * @param table How to store the lookup table
+   * @return The compiled classifier
+   * @throws IllegalArgumentException If there are too many colours or their names are not unique
+   */
+  public static ColourClassifier compile(List<ColourObj> colours, Table table) {
+    if (colours.size() > MAX_COLOURS) {
+      throw new IllegalArgumentException(
+          "A classifier holds at most " + MAX_COLOURS + " colours, got " + colours.size());
+    }
+    Set<String> unique = new HashSet<>();
+    for (ColourObj colour : colours) {
+      if (!unique.add(colour.name())) {
+        throw new IllegalArgumentException("Duplicate colour name: " + colour.name());
+      }
+    }
+    long start = System.nanoTime();
+    ColourClassifier classifier = new ColourClassifier(colours, table);
+    logger.debug(
+        "Compiled {} colour classifier in {} ms",
+        colours.size(),
+        (System.nanoTime() - start) / 1_000_000);
+    return classifier;
+  }
+
+  /**
+   * Gets the shared classifier over every colour in {@link ColourInstances}, compiling it on first
+   * use.
+   *
+   * @return The shared {@link ColourClassifier}
+   */
+  public static synchronized ColourClassifier forAllColours() {
+    if (allColours == null) {
+      allColours = compile(ColourInstances.getAll());
+    }
+    return allColours;
+  }
+
+  /**
+   * Gets the colours this classifier labels, in bit order.
+   *
+   * @return An unmodifiable list of colours
+   */
+  public List<ColourObj> colours() {
+    return colours;
+  }
+
+  /**
+   * Labels every pixel of an image in one pass over its raw buffer.
+   *
+   * @param image A BGR or BGRA image, left unmodified. May be a region of interest.
+   * @return The {@link LabelMap} of the image
+   * @throws IllegalArgumentException If the image does not have 3 or 4 channels
+   */
+  public LabelMap label(Mat image) {
+    int channels = image.channels();
+    if (channels != 3 && channels != 4) {
+      throw new IllegalArgumentException("Expected a BGR or BGRA image, got " + channels);
+    }
+    int width = image.cols();
+    int height = image.rows();
+    int[] labels = new int[width * height];
+    byte[] row = new byte[width * channels];
+    for (int y = 0; y < height; y++) {
+      // Rows are read one at a time, so regions of interest need no copy
+      image.ptr(y).get(row);
+      int offset = y * width;
+      for (int x = 0, i = 0; x < width; x++, i += channels) {
+        labels[offset + x] = lookup(row[i] & 0xFF, row[i + 1] & 0xFF, row[i + 2] & 0xFF);
+      }
+    }
+    return new LabelMap(names, labels, width, height);
+  }
+
+  /**
+   * Labels a single colour.
+   *
+   * @param blue The blue channel
+   * @param green The green channel
+   * @param red The red channel
+   * @return The label, with bit {@code i} set if the colour is within colour {@code i}'s range
+   */
+  public int lookup(int blue, int green, int red) {
+    if (full != null) {
+      return full[(blue << 16) | (green << 8) | red];
+    }
+    int block = ((blue >> 3) << 10) | ((green >> 3) << 5) | (red >> 3);
+    int[] mixed = mixedBlocks[block];
+    if (mixed == null) {
+      return blocks[block];
+    }
+    return mixed[((blue & 7) << 6) | ((green & 7) << 3) | (red & 7)];
+  }
+
+  /**
+   * Internal helper to store one blue plane of labels in the compact table. A block keeps a single
+   * label until one of its colours disagrees, at which point it is given exact labels. Every colour
+   * in the block seen so far shared the single label, so the exact table starts filled with it.
+   *
+   * @param blue The blue value of the plane
+   * @param labels The labels of the plane, indexed by {@code green << 8 | red}
+   * @param seen Which blocks have been given a label so far
+   */
+  private void fillBlocks(int blue, int[] labels, boolean[] seen) {
+    for (int i = 0; i < labels.length; i++) {
+      int green = i >> 8;
+      int red = i & 0xFF;
+      int block = ((blue >> 3) << 10) | ((green >> 3) << 5) | (red >> 3);
+      int within = ((blue & 7) << 6) | ((green & 7) << 3) | (red & 7);
+      int label = labels[i];
+      if (mixedBlocks[block] != null) {
+        mixedBlocks[block][within] = label;
+      } else if (!seen[block]) {
+        blocks[block] = label;
+        seen[block] = true;
+      } else if (blocks[block] != label) {
+        int[] mixed = new int[512];
+        Arrays.fill(mixed, blocks[block]);
+        mixed[within] = label;
+        mixedBlocks[block] = mixed;
+      }
+    }
+  }
+
+  /** Receives the labels of every colour sharing one blue value. */
+  @FunctionalInterface
+  private interface PlaneConsumer {
+    void accept(int blue, int[] labels);
+  }
+
+  /**
+   * Internal helper to label every BGR colour, one blue plane of 256x256 colours at a time. Each
+   * plane is converted to HSV by OpenCV, so labels agree exactly with {@code inRange} on an HSV
+   * image.
+   *
+   * @param colours The colours to test, in bit order
+   * @param consumer Receives each plane's labels, indexed by {@code green << 8 | red}
+   */
+  private static void classifyPlanes(List<ColourObj> colours, PlaneConsumer consumer) {
+    int count = colours.size();
+    int[] min = new int[count * 3];
+    int[] max = new int[count * 3];
+    for (int c = 0; c < count; c++) {
+      try (Scalar low = colours.get(c).hsvMin();
+          Scalar high = colours.get(c).hsvMax()) {
+        for (int channel = 0; channel < 3; channel++) {
+          // inRange compares 8 bit pixels against the bounds, so round inwards
+          min[c * 3 + channel] = (int) Math.ceil(low.get(channel));
+          max[c * 3 + channel] = (int) Math.floor(high.get(channel));
+        }
+      }
+    }
+
+    byte[] bgr = new byte[256 * 256 * 3];
+    byte[] hsv = new byte[256 * 256 * 3];
+    int[] labels = new int[256 * 256];
+    try (Mat plane = new Mat(256, 256, CV_8UC3);
+        Mat converted = new Mat()) {
+      for (int blue = 0; blue < 256; blue++) {
+        for (int i = 0, p = 0; i < labels.length; i++, p += 3) {
+          bgr[p] = (byte) blue;
+          bgr[p + 1] = (byte) (i >> 8);
+          bgr[p + 2] = (byte) i;
+        }
+        plane.data().put(bgr);
+        cvtColor(plane, converted, COLOR_BGR2HSV);
+        converted.data().get(hsv);
+
+        for (int i = 0, p = 0; i < labels.length; i++, p += 3) {
+          int h = hsv[p] & 0xFF;
+          int s = hsv[p + 1] & 0xFF;
+          int v = hsv[p + 2] & 0xFF;
+          int label = 0;
+          for (int c = 0, b = 0; c < count; c++, b += 3) {
+            if (h >= min[b]
+                && h <= max[b]
+                && s >= min[b + 1]
+                && s <= max[b + 1]
+                && v >= min[b + 2]
+                && v <= max[b + 2]) {
+              label |= 1 << c;
+            }
+          }
+          labels[i] = label;
+        }
+        consumer.accept(blue, labels);
+      }
+    }
+  }
+}
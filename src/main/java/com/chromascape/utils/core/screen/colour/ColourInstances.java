@@ -67,6 +67,15 @@ public class ColourInstances {
     }
   }
 
+  /**
+   * Retrieves every loaded colour definition, e.g. to compile a {@link ColourClassifier}.
+   *
+   * @return An unmodifiable list of every {@link ColourObj}, in file order.
+   */
+  public static List<ColourObj> getAll() {
+    return COLOURS;
+  }
+
   /**
    * Retrieves a {@link ColourObj} by its name.
    *
@@ -3,14 +3,16 @@ package com.chromascape.utils.core.screen.colour;
 import org.bytedeco.opencv.opencv_core.Scalar;
 
 /**
- * This record class stores the name, min threshold, and max threshold of an HSV colour. Note: The
- * fourth channel (alpha) is always zero and unused due to how JavaCV handles Scalar.
+ * This record class stores the name, min threshold, and max threshold of an HSV colour, and how its
+ * mask is closed during object detection. Note: The fourth channel (alpha) is always zero and
+ * unused due to how JavaCV handles Scalar.
  *
  * @param name Name of the colour.
  * @param hsvMin Minimum HSV threshold; alpha channel is ignored (always zero).
  * @param hsvMax Maximum HSV threshold; alpha channel is ignored (always zero).
+ * @param closing How the colour's mask is closed before objects are extracted.
  */
-public record ColourObj(String name, Scalar hsvMin, Scalar hsvMax) {
+public record ColourObj(String name, Scalar hsvMin, Scalar hsvMax, MorphClosing closing) {
 
   /**
    * Constructs a ColourObj with copies of the provided HSV scalar bounds. This ensures immutability
@@ -20,11 +22,35 @@ public record ColourObj(String name, Scalar hsvMin, Scalar hsvMax) {
    * @param name The name identifier for the colour.
    * @param hsvMin The lower HSV bound (inclusive).
    * @param hsvMax The upper HSV bound (inclusive).
+   * @param closing How the colour's mask is closed, see {@link MorphClosing}.
    */
-  public ColourObj(String name, Scalar hsvMin, Scalar hsvMax) {
+  public ColourObj(String name, Scalar hsvMin, Scalar hsvMax, MorphClosing closing) {
     this.name = name;
     this.hsvMin = new Scalar(hsvMin.get(0), hsvMin.get(1), hsvMin.get(2), hsvMin.get(3));
     this.hsvMax = new Scalar(hsvMax.get(0), hsvMax.get(1), hsvMax.get(2), hsvMax.get(3));
+    this.closing = closing;
+  }
+
+  /**
+   * Constructs a ColourObj that is closed with {@link MorphClosing#DEFAULT}.
+   *
+   * @param name The name identifier for the colour.
+   * @param hsvMin The lower HSV bound (inclusive).
+   * @param hsvMax The upper HSV bound (inclusive).
+   */
+  public ColourObj(String name, Scalar hsvMin, Scalar hsvMax) {
+    this(name, hsvMin, hsvMax, MorphClosing.DEFAULT);
+  }
+
+  /**
+   * Returns a copy of this colour that is closed differently, e.g. {@link MorphClosing#NONE} for a
+   * solid highlight.
+   *
+   * @param closing The new {@link MorphClosing}.
+   * @return A new {@link ColourObj}
+   */
+  public ColourObj withClosing(MorphClosing closing) {
+    return new ColourObj(name, hsvMin, hsvMax, closing);
   }
 
   /**
@@ -0,0 +1,149 @@
+package com.chromascape.utils.core.screen.colour;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+
+import java.awt.Rectangle;
+import java.util.List;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * The per-pixel colour labels of an image, produced by {@link ColourClassifier#label(Mat)}. Each
+ * label is a bitmask with one bit per colour of the classifier, so the binary mask of any colour,
+ * or any combination of colours, can be sliced out without touching the image again.
+ */
+public final class LabelMap {
+
+  /** Mask value of pixels within the requested colours, as produced by {@code inRange}. */
+  private static final byte SET = (byte) 255;
+
+  private final List<String> names;
+
+  private final int[] labels;
+
+  private final int width;
+
+  private final int height;
+
+  /**
+   * Constructs a label map, taking ownership of the labels.
+   *
+   * @param names The colour names, in bit order
+   * @param labels The labels, row by row
+   * @param width The width of the labelled image
+   * @param height The height of the labelled image
+   */
+  LabelMap(List<String> names, int[] labels, int width, int height) {
+    this.names = names;
+    this.labels = labels;
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Gets the width of the labelled image.
+   *
+   * @return The width in pixels
+   */
+  public int width() {
+    return width;
+  }
+
+  /**
+   * Gets the height of the labelled image.
+   *
+   * @return The height in pixels
+   */
+  public int height() {
+    return height;
+  }
+
+  /**
+   * Gets the raw label of a pixel.
+   *
+   * @param x The column of the pixel
+   * @param y The row of the pixel
+   * @return The label, with bit {@code i} set if the pixel is within the classifier's colour
+   *     {@code i}
+   */
+  public int label(int x, int y) {
+    return labels[y * width + x];
+  }
+
+  /**
+   * Checks whether a pixel is within a colour.
+   *
+   * @param x The column of the pixel
+   * @param y The row of the pixel
+   * @param colour The name of the colour
+   * @return {@code true} if the pixel is within the colour's range
+   * @throws IllegalArgumentException If the classifier does not know the colour
+   */
+  public boolean contains(int x, int y, String colour) {
+    return (label(x, y) & bits(colour)) != 0;
+  }
+
+  /**
+   * Slices out the binary mask of one or more colours over the whole image.
+   *
+   * @param colours The names of the colours to include
+   * @return A new CV_8UC1 {@link Mat} where pixels within any of the colours are 255 and all
+   *     others 0, owned by the caller
+   * @throws IllegalArgumentException If the classifier does not know a colour
+   */
+  public Mat mask(String... colours) {
+    return mask(new Rectangle(0, 0, width, height), colours);
+  }
+
+  /**
+   * Slices out the binary mask of one or more colours within a zone of the image.
+   *
+   * @param zone The area to slice, in the labelled image's co-ordinates
+   * @param colours The names of the colours to include
+   * @return A new CV_8UC1 {@link Mat} the size of the zone, where pixels within any of the colours
+   *     are 255 and all others 0, owned by the caller
+   * @throws IllegalArgumentException If the zone lies outside the image or the classifier does not
+   *     know a colour
+   */
+  public Mat mask(Rectangle zone, String... colours) {
+    if (zone.x < 0
+        || zone.y < 0
+        || zone.width <= 0
+        || zone.height <= 0
+        || zone.x + zone.width > width
+        || zone.y + zone.height > height) {
+      throw new IllegalArgumentException("Zone is outside the labelled image: " + zone);
+    }
+    int bits = bits(colours);
+    byte[] pixels = new byte[zone.width * zone.height];
+    for (int y = 0; y < zone.height; y++) {
+      int source = (zone.y + y) * width + zone.x;
+      int target = y * zone.width;
+      for (int x = 0; x < zone.width; x++) {
+        if ((labels[source + x] & bits) != 0) {
+          pixels[target + x] = SET;
+        }
+      }
+    }
+    Mat mask = new Mat(zone.height, zone.width, CV_8UC1);
+    mask.data().put(pixels);
+    return mask;
+  }
+
+  /**
+   * Internal helper to combine the bits of several colours.
+   *
+   * @param colours The names of the colours
+   * @return The label bits of the colours
+   */
+  private int bits(String... colours) {
+    int bits = 0;
+    for (String colour : colours) {
+      int index = names.indexOf(colour);
+      if (index < 0) {
+        throw new IllegalArgumentException("Colour is not in the classifier: " + colour);
+      }
+      bits |= 1 << index;
+    }
+    return bits;
+  }
+}
@@ -0,0 +1,191 @@
+package com.chromascape.utils.core.screen.recording;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses BGRA frames for recording. A frame is XORed against the previous one, so unchanged
+ * pixels become zero, and the result is stored as alternating runs of zeros and literal bytes
+ * with varint lengths. The run list is then deflated at the fastest level. Keyframes are encoded
+ * the same way against an all-zero frame, which lets them be decoded without any history.
+ *
+ * <p>Instances reuse their buffers and are not thread-safe.
+ */
+public final class FrameDeltaCodec {
+
+  /** Equal bytes shorter than this are folded into the surrounding literal run. */
+  private static final int MIN_ZERO_RUN = 8;
+
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+  private final Inflater inflater = new Inflater();
+
+  /** Scratch buffer holding the uncompressed run list. */
+  private byte[] runs = new byte[64 * 1024];
+
+  /** Scratch buffer for deflated output. */
+  private byte[] compressed = new byte[64 * 1024];
+
+  /** An all-zero frame used as the reference for keyframes. */
+  private byte[] zeros = new byte[0];
+
+  /**
+   * Encodes a frame.
+   *
+   * @param current The frame to encode
+   * @param previous The frame to encode against, or {@code null} to encode a keyframe
+   * @param length The number of bytes of each frame to encode
+   * @return The encoded payload
+   */
+  public byte[] encode(byte[] current, byte[] previous, int length) {
+    byte[] reference = previous;
+    if (reference == null) {
+      if (zeros.length < length) {
+        zeros = new byte[length];
+      }
+      reference = zeros;
+    }
+
+    int size = 0;
+    int i = 0;
+    while (i < length) {
+      // Vectorised scan over the unchanged bytes
+      int mismatch = Arrays.mismatch(current, i, length, reference, i, length);
+      int zeroRun = mismatch < 0 ? length - i : mismatch;
+      size = ensureRuns(size, 10);
+      size = putVarint(runs, size, zeroRun);
+      i += zeroRun;
+      if (i >= length) {
+        break;
+      }
+
+      int j = i;
+      int equalRun = 0;
+      while (j < length && equalRun < MIN_ZERO_RUN) {
+        equalRun = current[j] == reference[j] ? equalRun + 1 : 0;
+        j++;
+      }
+      int end = equalRun >= MIN_ZERO_RUN ? j - equalRun : j;
+      size = ensureRuns(size, 5 + end - i);
+      size = putVarint(runs, size, end - i);
+      for (int k = i; k < end; k++) {
+        runs[size++] = (byte) (current[k] ^ reference[k]);
+      }
+      i = end;
+    }
+
+    deflater.reset();
+    deflater.setInput(runs, 0, size);
+    deflater.finish();
+    int written = 0;
+    while (!deflater.finished()) {
+      if (written == compressed.length) {
+        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+      }
+      written += deflater.deflate(compressed, written, compressed.length - written);
+    }
+    return Arrays.copyOf(compressed, written);
+  }
+
+  /**
+   * Decodes a payload in place. For a delta the buffer must hold the previous frame; for a keyframe
+   * its contents are ignored.
+   *
+   * @param payload The encoded payload, consumed by this call
+   * @param keyframe Whether the payload was encoded as a keyframe
+   * @param frame The buffer to decode into
+   * @param length The number of bytes of the frame
+   * @throws IllegalStateException If the payload is corrupt
+   */
+  public void decode(ByteBuffer payload, boolean keyframe, byte[] frame, int length) {
+    if (keyframe) {
+      Arrays.fill(frame, 0, length, (byte) 0);
+    }
+
+    int size = 0;
+    inflater.reset();
+    inflater.setInput(payload);
+    try {
+      while (!inflater.finished()) {
+        if (size == runs.length) {
+          runs = Arrays.copyOf(runs, runs.length * 2);
+        }
+        int inflated = inflater.inflate(runs, size, runs.length - size);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IllegalStateException("Truncated frame payload");
+        }
+        size += inflated;
+      }
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Corrupt frame payload", e);
+    }
+
+    int[] cursor = {0};
+    int i = 0;
+    while (i < length && cursor[0] < size) {
+      i += getVarint(runs, cursor);
+      if (i >= length) {
+        break;
+      }
+      int literal = getVarint(runs, cursor);
+      for (int k = 0; k < literal; k++) {
+        frame[i + k] ^= runs[cursor[0] + k];
+      }
+      cursor[0] += literal;
+      i += literal;
+    }
+  }
+
+  /**
+   * Internal helper to grow the run buffer.
+   *
+   * @param size The bytes already written
+   * @param needed The bytes about to be written
+   * @return The unchanged size, for chaining
+   */
+  private int ensureRuns(int size, int needed) {
+    if (size + needed > runs.length) {
+      runs = Arrays.copyOf(runs, Math.max(runs.length * 2, size + needed));
+    }
+    return size;
+  }
+
+  /**
+   * Internal helper to write an unsigned LEB128 varint.
+   *
+   * @param buffer The buffer to write into
+   * @param position The position to write at
+   * @param value The non-negative value to write
+   * @return The position after the varint
+   */
+  private static int putVarint(byte[] buffer, int position, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+    return position;
+  }
+
+  /**
+   * Internal helper to read an unsigned LEB128 varint.
+   *
+   * @param buffer The buffer to read from
+   * @param cursor A single element array holding the read position, advanced past the varint
+   * @return The value read
+   */
+  private static int getVarint(byte[] buffer, int[] cursor) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer[cursor[0]++];
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+}
@@ -0,0 +1,24 @@
+package com.chromascape.utils.core.screen.recording;
+
+/**
+ * A single input event sent to the client during a recorded session.
+ *
+ * @param timestampNanos Nanoseconds since the recording started
+ * @param kind What kind of input was sent
+ * @param x The cursor's x co-ordinate when the input was sent
+ * @param y The cursor's y co-ordinate when the input was sent
+ * @param code The mouse button ordinal, Java key code, typed character or scroll direction
+ */
+public record RecordedInput(long timestampNanos, Kind kind, int x, int y, int code) {
+
+  /** The kinds of input recorded from the virtual mouse and keyboard. */
+  public enum Kind {
+    MOUSE_MOVE,
+    MOUSE_DOWN,
+    MOUSE_UP,
+    SCROLL,
+    KEY_DOWN,
+    KEY_UP,
+    KEY_TYPED
+  }
+}
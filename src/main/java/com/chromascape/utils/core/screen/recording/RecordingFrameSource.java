@@ -0,0 +1,216 @@
+package com.chromascape.utils.core.screen.recording;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC4;
+
+import com.chromascape.utils.core.screen.window.FrameSource;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * A {@link FrameSource} that replays a session recorded by {@link SessionRecorder}. Install it with
+ * {@link com.chromascape.utils.core.screen.window.ScreenManager#setFrameSource(FrameSource)} to
+ * feed the recorded frames back through the perception stack.
+ *
+ * <p>Playback follows the recorded timestamps scaled by a speed multiplier, starting at the first
+ * grab. A speed of zero instead advances exactly one frame per grab, which makes runs
+ * deterministic. Recorded input events are handed to an optional listener as playback passes
+ * them. Once the end of the recording is reached the last frame is held.
+ */
+public class RecordingFrameSource implements FrameSource {
+
+  private final List<Path> segments;
+
+  private final double speed;
+
+  private final FrameDeltaCodec codec = new FrameDeltaCodec();
+
+  private final Mat frame = new Mat();
+
+  private Consumer<RecordedInput> inputListener = input -> {};
+
+  private int segmentIndex = -1;
+
+  private ByteBuffer segment;
+
+  private byte[] pixels = new byte[0];
+
+  private int width;
+
+  private int height;
+
+  /** Timestamp of the first frame, which playback time is measured from. */
+  private long baseTimestamp = -1;
+
+  private long startNanos = -1;
+
+  /**
+   * Constructs a source over a recorded session that plays back in real time.
+   *
+   * @param session The session directory written by {@link SessionRecorder}
+   * @throws IOException If the session cannot be read or holds no frames
+   */
+  public RecordingFrameSource(Path session) throws IOException {
+    this(session, 1.0);
+  }
+
+  /**
+   * Constructs a source over a recorded session.
+   *
+   * @param session The session directory written by {@link SessionRecorder}
+   * @param speed The playback speed multiplier, or {@code 0} to advance one frame per grab
+   * @throws IOException If the session cannot be read or holds no frames
+   */
+  public RecordingFrameSource(Path session, double speed) throws IOException {
+    if (speed < 0) {
+      throw new IllegalArgumentException("Playback speed must not be negative: " + speed);
+    }
+    try (Stream<Path> files = Files.list(session)) {
+      segments = files.filter(f -> f.getFileName().toString().endsWith(".rec")).sorted().toList();
+    }
+    this.speed = speed;
+    if (!nextSegment() || !advance(Long.MIN_VALUE, true)) {
+      throw new IOException("No frames found in: " + session);
+    }
+  }
+
+  /**
+   * Sets the listener that is called with each recorded input event as playback passes it.
+   *
+   * @param listener The listener, called on the thread that grabs frames
+   */
+  public synchronized void setInputListener(Consumer<RecordedInput> listener) {
+    this.inputListener = listener;
+  }
+
+  @Override
+  public synchronized Rectangle getBounds() {
+    return new Rectangle(0, 0, width, height);
+  }
+
+  @Override
+  public synchronized Mat grab() {
+    try {
+      if (speed == 0) {
+        advance(Long.MIN_VALUE, true);
+      } else {
+        long now = System.nanoTime();
+        if (startNanos < 0) {
+          startNanos = now;
+        }
+        advance(baseTimestamp + (long) ((now - startNanos) * speed), false);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read recording segment", e);
+    }
+    return new Mat(frame);
+  }
+
+  /**
+   * Internal helper to apply records in order, either up to a playback time or up to and including
+   * the next frame.
+   *
+   * @param until Records stamped at or before this time are applied
+   * @param oneFrame Whether to stop after a single frame regardless of time
+   * @return {@code true} if a frame was applied
+   * @throws IOException If the next segment cannot be read
+   */
+  private boolean advance(long until, boolean oneFrame) throws IOException {
+    boolean applied = false;
+    while (segment != null) {
+      byte type = segment.hasRemaining() ? segment.get(segment.position()) : SegmentWriter.END;
+      if (type == SegmentWriter.END) {
+        if (!nextSegment()) {
+          break;
+        }
+        continue;
+      }
+      long timestamp = segment.getLong(segment.position() + 1);
+      if (oneFrame ? applied : timestamp > until) {
+        break;
+      }
+      segment.position(segment.position() + 9);
+      if (type == SegmentWriter.INPUT) {
+        readInput(timestamp);
+      } else {
+        readFrame(type == SegmentWriter.KEYFRAME, timestamp);
+        applied = true;
+      }
+    }
+    if (applied) {
+      frame.create(height, width, CV_8UC4);
+      frame.data().put(pixels, 0, width * height * 4);
+    }
+    return applied;
+  }
+
+  /**
+   * Internal helper to decode a frame record into the pixel buffer.
+   *
+   * @param keyframe Whether the record is a keyframe
+   * @param timestamp The record's timestamp
+   */
+  private void readFrame(boolean keyframe, long timestamp) {
+    int frameWidth = segment.getInt();
+    int frameHeight = segment.getInt();
+    int payloadLength = segment.getInt();
+    int length = frameWidth * frameHeight * 4;
+    if (!keyframe && (frameWidth != width || frameHeight != height)) {
+      throw new IllegalStateException("Delta frame does not follow a frame of the same size");
+    }
+    if (pixels.length < length) {
+      pixels = new byte[length];
+    }
+    ByteBuffer payload = segment.slice(segment.position(), payloadLength);
+    segment.position(segment.position() + payloadLength);
+    codec.decode(payload, keyframe, pixels, length);
+    width = frameWidth;
+    height = frameHeight;
+    if (baseTimestamp < 0) {
+      baseTimestamp = timestamp;
+    }
+  }
+
+  /**
+   * Internal helper to read an input record and pass it to the listener.
+   *
+   * @param timestamp The record's timestamp
+   */
+  private void readInput(long timestamp) {
+    RecordedInput.Kind kind = RecordedInput.Kind.values()[segment.get()];
+    int x = segment.getInt();
+    int y = segment.getInt();
+    int code = segment.getInt();
+    inputListener.accept(new RecordedInput(timestamp, kind, x, y, code));
+  }
+
+  /**
+   * Internal helper to map the next segment and validate its header.
+   *
+   * @return {@code true} if another segment was opened
+   * @throws IOException If the segment cannot be read or is not a recording
+   */
+  private boolean nextSegment() throws IOException {
+    segment = null;
+    if (++segmentIndex >= segments.size()) {
+      return false;
+    }
+    Path file = segments.get(segmentIndex);
+    try (FileChannel channel = FileChannel.open(file)) {
+      segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (segment.remaining() < SegmentWriter.HEADER_SIZE
+        || segment.getInt() != SegmentWriter.MAGIC
+        || segment.getShort() != SegmentWriter.VERSION) {
+      throw new IOException("Not a session recording: " + file);
+    }
+    return true;
+  }
+}
@@ -0,0 +1,196 @@
+package com.chromascape.utils.core.screen.recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends recording records to memory-mapped segment files. The file is mapped in chunks as it
+ * grows, so writing a record is a plain memory copy. Unwritten mapped bytes are zero, which is the
+ * {@link #END} record type. Each record's body is written before its type byte, so until a record
+ * is complete it still reads as the end marker, and a segment cut short by a crash of the recording
+ * process reads back up to its last complete record.
+ *
+ * <p>Segment layout: a {@link #MAGIC} int and {@link #VERSION} short, followed by records. Every
+ * record starts with a type byte and a long timestamp in nanoseconds since the recording started.
+ * Frame records continue with the width, height and payload length as ints and the payload bytes.
+ * Input records continue with the kind as a byte and the x, y and code as ints.
+ */
+final class SegmentWriter implements Closeable {
+
+  static final int MAGIC = 0x43535243;
+  static final short VERSION = 1;
+
+  static final byte END = 0;
+  static final byte KEYFRAME = 1;
+  static final byte DELTA = 2;
+  static final byte INPUT = 3;
+
+  static final int HEADER_SIZE = 4 + 2;
+  static final int FRAME_HEADER_SIZE = 1 + 8 + 4 + 4 + 4;
+  static final int INPUT_SIZE = 1 + 8 + 1 + 4 + 4 + 4;
+
+  /** How much of the file is mapped at a time. */
+  private static final long MAP_CHUNK = 1L << 20;
+
+  private final Path directory;
+
+  /** Segments are rolled over at the first frame that would take them past this size. */
+  private final long segmentLimit;
+
+  private int segmentIndex = -1;
+
+  private FileChannel channel;
+
+  private MappedByteBuffer mapped;
+
+  /** File offset of the start of {@link #mapped}. */
+  private long mappedStart;
+
+  /**
+   * Creates a writer and opens the first segment.
+   *
+   * @param directory The directory segments are written to
+   * @param segmentLimit The soft size limit of each segment in bytes
+   * @throws IOException If the first segment cannot be created
+   */
+  SegmentWriter(Path directory, long segmentLimit) throws IOException {
+    this.directory = directory;
+    this.segmentLimit = segmentLimit;
+    roll();
+  }
+
+  /**
+   * Checks whether a frame fits in the current segment.
+   *
+   * @param payloadLength The length of the frame's payload
+   * @return {@code true} if writing the frame keeps the segment within its limit
+   */
+  boolean fits(int payloadLength) {
+    return position() + FRAME_HEADER_SIZE + payloadLength <= segmentLimit;
+  }
+
+  /**
+   * Appends a frame record.
+   *
+   * @param timestampNanos Nanoseconds since the recording started
+   * @param keyframe Whether the payload was encoded without history
+   * @param width The frame width
+   * @param height The frame height
+   * @param payload The encoded frame
+   * @throws IOException If the segment cannot be extended
+   */
+  void writeFrame(long timestampNanos, boolean keyframe, int width, int height, byte[] payload)
+      throws IOException {
+    ensureMapped(FRAME_HEADER_SIZE + payload.length);
+    int start = reserveType();
+    mapped.putLong(timestampNanos);
+    mapped.putInt(width);
+    mapped.putInt(height);
+    mapped.putInt(payload.length);
+    mapped.put(payload);
+    mapped.put(start, keyframe ? KEYFRAME : DELTA);
+  }
+
+  /**
+   * Appends an input record.
+   *
+   * @param input The input event
+   * @throws IOException If the segment cannot be extended
+   */
+  void writeInput(RecordedInput input) throws IOException {
+    ensureMapped(INPUT_SIZE);
+    int start = reserveType();
+    mapped.putLong(input.timestampNanos());
+    mapped.put((byte) input.kind().ordinal());
+    mapped.putInt(input.x());
+    mapped.putInt(input.y());
+    mapped.putInt(input.code());
+    mapped.put(start, INPUT);
+  }
+
+  /**
+   * Finishes the current segment and starts the next one. The next frame written must be a
+   * keyframe, so that each segment can be decoded on its own.
+   *
+   * @throws IOException If the next segment cannot be created
+   */
+  void roll() throws IOException {
+    finish();
+    segmentIndex++;
+    Path file = directory.resolve(String.format("segment-%04d.rec", segmentIndex));
+    channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    mapped = null;
+    mappedStart = 0;
+    ensureMapped(HEADER_SIZE);
+    mapped.putInt(MAGIC);
+    mapped.putShort(VERSION);
+  }
+
+  @Override
+  public void close() throws IOException {
+    finish();
+  }
+
+  /**
+   * Internal helper to terminate and close the current segment. The file is not truncated, as a
+   * mapped file cannot be resized on every platform; the zeroed tail reads as the end marker.
+   *
+   * @throws IOException If the segment cannot be closed
+   */
+  private void finish() throws IOException {
+    if (channel == null) {
+      return;
+    }
+    mapped.put(END);
+    mapped.force();
+    channel.close();
+    channel = null;
+  }
+
+  /**
+   * Internal helper to skip over the type byte of the record about to be written. The byte is left
+   * as {@link #END} and only set once the rest of the record is in place, so a reader never sees a
+   * record type in front of a partial body.
+   *
+   * @return The mapped offset of the record's type byte
+   */
+  private int reserveType() {
+    int start = mapped.position();
+    mapped.position(start + 1);
+    return start;
+  }
+
+  /**
+   * Internal helper to get the write position within the current segment.
+   *
+   * @return The offset of the next record in the file
+   */
+  private long position() {
+    return mappedStart + mapped.position();
+  }
+
+  /**
+   * Internal helper to map more of the file when the next record would not fit. The new mapping
+   * starts exactly at the write position, so records are never split or separated by a gap.
+   *
+   * @param size The size of the record about to be written
+   * @throws IOException If the file cannot be mapped
+   */
+  private void ensureMapped(int size) throws IOException {
+    // One extra byte always stays mapped for the end marker
+    if (mapped == null || mapped.remaining() < size + 1) {
+      long start = mapped == null ? 0 : position();
+      mapped = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(MAP_CHUNK, size + 1L));
+      mappedStart = start;
+    }
+  }
+}
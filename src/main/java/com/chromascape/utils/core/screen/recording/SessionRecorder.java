@@ -0,0 +1,248 @@
+package com.chromascape.utils.core.screen.recording;
+
+import com.chromascape.utils.core.screen.window.FrameSnapshot;
+import com.chromascape.utils.core.screen.window.ScreenManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Records what the bot saw and did so that misbehaving sessions can be replayed offline with a
+ * {@link RecordingFrameSource}. A background thread samples the frames {@link ScreenManager} has
+ * already captured, delta encodes them with {@link FrameDeltaCodec} and appends them, together with
+ * every input sent by the virtual mouse and keyboard, to memory-mapped segment files under
+ * "output/recordings".
+ *
+ * <p>The recorder never captures a frame itself; it peeks at the latest one with {@link
+ * ScreenManager#peekLatest()}, so it records what the scripts actually saw and never takes the
+ * capture lock for a grab. A frame is only encoded when its generation is new, so nothing is
+ * written while no script is looking at the screen. If encoding falls behind, frames are skipped
+ * rather than delaying the script, which only ever pays for queueing an input event. This keeps the
+ * recorder cheap enough to leave on permanently.
+ */
+public final class SessionRecorder {
+
+  private static final Logger logger = LogManager.getLogger(SessionRecorder.class);
+
+  /** Where sessions are recorded to unless told otherwise. */
+  public static final Path DEFAULT_DIRECTORY = Path.of("output", "recordings");
+
+  private static final int DEFAULT_FPS = 2;
+
+  private static final Duration KEYFRAME_INTERVAL = Duration.ofSeconds(30);
+
+  private static final long SEGMENT_LIMIT = 64L << 20;
+
+  private static final DateTimeFormatter SESSION_NAME =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private static volatile SessionRecorder active;
+
+  private final Queue<RecordedInput> inputs = new ConcurrentLinkedQueue<>();
+
+  private final FrameDeltaCodec codec = new FrameDeltaCodec();
+
+  private final SegmentWriter writer;
+
+  private final long startNanos = System.nanoTime();
+
+  private final long periodNanos;
+
+  private final Thread thread;
+
+  private volatile boolean running = true;
+
+  private byte[] current;
+
+  private byte[] previous;
+
+  private int previousWidth;
+
+  private int previousHeight;
+
+  private long lastGeneration = -1;
+
+  private long lastKeyframeNanos;
+
+  private SessionRecorder(Path directory, int fps) throws IOException {
+    this.writer = new SegmentWriter(directory, SEGMENT_LIMIT);
+    this.periodNanos = 1_000_000_000L / fps;
+    thread = new Thread(this::recordLoop, "SessionRecorder-Encoder");
+    thread.setDaemon(true); // Ensure thread dies when JVM shuts down
+    thread.start();
+  }
+
+  /**
+   * Starts recording to a new session directory under {@link #DEFAULT_DIRECTORY}.
+   *
+   * @return The directory the session is recorded to
+   * @throws IOException If the session directory cannot be created
+   */
+  public static Path start() throws IOException {
+    return start(DEFAULT_DIRECTORY, DEFAULT_FPS);
+  }
+
+  /**
+   * Starts recording to a new session directory, stopping any recording already in progress.
+   *
+   * @param directory The parent directory of recorded sessions
+   * @param fps How many frames to record per second at most
+   * @return The directory the session is recorded to
+   * @throws IOException If the session directory cannot be created
+   */
+  public static synchronized Path start(Path directory, int fps) throws IOException {
+    if (fps <= 0) {
+      throw new IllegalArgumentException("Recording rate must be positive: " + fps);
+    }
+    stop();
+    Path session = directory.resolve(LocalDateTime.now().format(SESSION_NAME));
+    Files.createDirectories(session);
+    active = new SessionRecorder(session, fps);
+    logger.info("Recording session to {}", session);
+    return session;
+  }
+
+  /** Stops recording and closes the current segment. Does nothing if not recording. */
+  public static synchronized void stop() {
+    SessionRecorder session = active;
+    if (session == null) {
+      return;
+    }
+    active = null;
+    session.running = false;
+    LockSupport.unpark(session.thread);
+    try {
+      session.thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Checks whether a session is being recorded.
+   *
+   * @return {@code true} if recording
+   */
+  public static boolean isRecording() {
+    return active != null;
+  }
+
+  /**
+   * Records an input event, if a session is being recorded. Called by the virtual mouse and
+   * keyboard; this only queues the event, so it is safe to call on the input path.
+   *
+   * @param kind What kind of input was sent
+   * @param x The cursor's x co-ordinate
+   * @param y The cursor's y co-ordinate
+   * @param code The mouse button ordinal, Java key code, typed character or scroll direction
+   */
+  public static void recordInput(RecordedInput.Kind kind, int x, int y, int code) {
+    SessionRecorder session = active;
+    if (session != null) {
+      long timestamp = System.nanoTime() - session.startNanos;
+      session.inputs.offer(new RecordedInput(timestamp, kind, x, y, code));
+    }
+  }
+
+  /** Records frames at the configured rate until stopped, then flushes and closes the session. */
+  private void recordLoop() {
+    long next = System.nanoTime();
+    try {
+      while (running) {
+        recordFrame();
+        next += periodNanos;
+        long wait = next - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        } else {
+          // Encoding fell behind, skip the missed frames
+          next = System.nanoTime();
+        }
+      }
+      writeInputsUntil(Long.MAX_VALUE);
+    } catch (IOException | RuntimeException e) {
+      logger.error("Session recording stopped", e);
+      active = null;
+    } finally {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        logger.error("Could not close recording segment", e);
+      }
+    }
+  }
+
+  /**
+   * Internal helper to encode the latest captured frame if it is new, along with the input sent
+   * before it.
+   *
+   * @throws IOException If the segment cannot be written
+   */
+  private void recordFrame() throws IOException {
+    try (FrameSnapshot frame = ScreenManager.peekLatest()) {
+      if (frame == null || frame.generation() == lastGeneration) {
+        return;
+      }
+      lastGeneration = frame.generation();
+      long timestamp = Math.max(0, frame.capturedAtNanos() - startNanos);
+      writeInputsUntil(timestamp);
+
+      int width = frame.width();
+      int height = frame.height();
+      int length = width * height * 4;
+      if (width != previousWidth || height != previousHeight) {
+        previous = null;
+      }
+      if (current == null || current.length != length) {
+        current = new byte[length];
+      }
+      try (Mat view = frame.view()) {
+        view.data().get(current, 0, length);
+      }
+
+      boolean keyframe =
+          previous == null || timestamp - lastKeyframeNanos >= KEYFRAME_INTERVAL.toNanos();
+      byte[] payload = codec.encode(current, keyframe ? null : previous, length);
+      if (!writer.fits(payload.length)) {
+        // Every segment opens with a keyframe so it can be replayed on its own
+        writer.roll();
+        if (!keyframe) {
+          keyframe = true;
+          payload = codec.encode(current, null, length);
+        }
+      }
+      writer.writeFrame(timestamp, keyframe, width, height, payload);
+      if (keyframe) {
+        lastKeyframeNanos = timestamp;
+      }
+
+      byte[] swap = previous;
+      previous = current;
+      current = swap;
+      previousWidth = width;
+      previousHeight = height;
+    }
+  }
+
+  /**
+   * Internal helper to write queued input events up to a point in time.
+   *
+   * @param timestamp Events at or before this many nanoseconds since the start are written
+   * @throws IOException If the segment cannot be written
+   */
+  private void writeInputsUntil(long timestamp) throws IOException {
+    RecordedInput input;
+    while ((input = inputs.peek()) != null && input.timestampNanos() <= timestamp) {
+      writer.writeInput(inputs.poll());
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.chromascape.utils.core.screen.topology;
+
+import java.util.List;
+
+/**
+ * The object returned by {@link TemplateMatching#matchBatch}. Holds one {@link MatchResult} per
+ * template, in the order the templates were given, and the result with the lowest score among
+ * them.
+ *
+ * @param results The result for each template, in input order.
+ * @param best The result with the lowest score. Its {@code success} tells whether any template
+ *     matched within the threshold.
+ */
+public record BatchMatchResult(List<MatchResult> results, MatchResult best) {
+
+  /**
+   * Checks whether any template matched within the threshold.
+   *
+   * @return {@code true} if the best result is a successful match
+   */
+  public boolean success() {
+    return best.success();
+  }
+}
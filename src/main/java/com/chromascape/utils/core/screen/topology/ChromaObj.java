@@ -1,21 +1,254 @@
 package com.chromascape.utils.core.screen.topology;
 
+import static org.bytedeco.opencv.global.opencv_core.CV_32SC2;
+
 import java.awt.Rectangle;
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bytedeco.opencv.opencv_core.Mat;
 
 /**
- * Represents a detected object in the ChromaScape pipeline with a unique ID, its contour as an
- * OpenCV {@link Mat}, and a bounding box for interaction.
+ * Represents a detected object in the ChromaScape pipeline with a unique ID, its contour polygon,
+ * and a bounding box for interaction.
  *
- * @param id A unique identifier assigned based on the object's index among detected contours.
- * @param contour The OpenCV matrix representing the object's contour.
- * @param boundingBox The bounding rectangle used to sample interaction points.
+ * <p>The contour is held on the heap as an {@code int[]} of interleaved x and y vertices, with its
+ * bounds, area and centroid computed once on construction. Point tests run in plain Java, so an
+ * object that is only sampled and tested never touches native memory. A native {@link Mat} of the
+ * contour is only created if {@link #contour()} is called, and must then be freed with {@link
+ * #release()}. {@link #liveContours()} counts the contour Mats that have not been released, to
+ * track down leaks.
  */
-public record ChromaObj(int id, Mat contour, Rectangle boundingBox) {
-  /** Releases the native OpenCV memory associated with the contour. */
-  public void release() {
+public final class ChromaObj {
+
+  /** Contour Mats created by {@link #contour()} and not yet released, across all objects. */
+  private static final AtomicInteger liveContours = new AtomicInteger();
+
+  private final int id;
+
+  /** Vertices as x0, y0, x1, y1, ... in image co-ordinates. */
+  private final int[] polygon;
+
+  private final Rectangle boundingBox;
+
+  private final double area;
+
+  private final double centroidX;
+
+  private final double centroidY;
+
+  /** Native copy of the polygon, created on demand. */
+  private Mat contour;
+
+  /**
+   * Constructs a ChromaObj from its contour polygon, computing its bounds, area and centroid.
+   *
+   * @param id A unique identifier assigned based on the object's index among detected contours.
+   * @param polygon The contour's vertices as interleaved x and y co-ordinates, owned by this object
+   *     from now on.
+   * @throws IllegalArgumentException If the polygon has no vertices or an odd number of values
+   */
+  public ChromaObj(int id, int[] polygon) {
+    if (polygon.length == 0 || polygon.length % 2 != 0) {
+      throw new IllegalArgumentException("Polygon needs x and y pairs, got " + polygon.length);
+    }
+    this.id = id;
+    this.polygon = polygon;
+
+    int minX = Integer.MAX_VALUE;
+    int minY = Integer.MAX_VALUE;
+    int maxX = Integer.MIN_VALUE;
+    int maxY = Integer.MIN_VALUE;
+    long sumX = 0;
+    long sumY = 0;
+    // Shoelace sums for the signed area and area weighted centroid
+    double twiceArea = 0;
+    double weightedX = 0;
+    double weightedY = 0;
+    int vertices = polygon.length / 2;
+    for (int i = 0; i < vertices; i++) {
+      int x = polygon[i * 2];
+      int y = polygon[i * 2 + 1];
+      int j = (i + 1) % vertices;
+      int nextX = polygon[j * 2];
+      int nextY = polygon[j * 2 + 1];
+      minX = Math.min(minX, x);
+      minY = Math.min(minY, y);
+      maxX = Math.max(maxX, x);
+      maxY = Math.max(maxY, y);
+      sumX += x;
+      sumY += y;
+      double cross = (double) x * nextY - (double) nextX * y;
+      twiceArea += cross;
+      weightedX += (x + nextX) * cross;
+      weightedY += (y + nextY) * cross;
+    }
+    // Inclusive of the last pixel, as boundingRect reports it
+    this.boundingBox = new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    this.area = Math.abs(twiceArea) / 2;
+    if (twiceArea != 0) {
+      this.centroidX = weightedX / (3 * twiceArea);
+      this.centroidY = weightedY / (3 * twiceArea);
+    } else {
+      // A line or a single point has no area, fall back to the mean vertex
+      this.centroidX = (double) sumX / vertices;
+      this.centroidY = (double) sumY / vertices;
+    }
+  }
+
+  /**
+   * Gets the object's identifier.
+   *
+   * @return The index of the object among the detected contours
+   */
+  public int id() {
+    return id;
+  }
+
+  /**
+   * Gets the bounding rectangle used to sample interaction points.
+   *
+   * @return A copy of the bounding box, in image co-ordinates
+   */
+  public Rectangle boundingBox() {
+    return new Rectangle(boundingBox);
+  }
+
+  /**
+   * Gets the contour's vertices.
+   *
+   * @return A copy of the vertices as interleaved x and y co-ordinates
+   */
+  public int[] polygon() {
+    return polygon.clone();
+  }
+
+  /**
+   * Gets the number of vertices of the contour.
+   *
+   * @return The vertex count
+   */
+  public int vertexCount() {
+    return polygon.length / 2;
+  }
+
+  /**
+   * Gets the area enclosed by the contour, as OpenCV's {@code contourArea} computes it.
+   *
+   * @return The area in square pixels
+   */
+  public double area() {
+    return area;
+  }
+
+  /**
+   * Gets the x co-ordinate of the contour's centroid.
+   *
+   * @return The centroid's x co-ordinate, in image co-ordinates
+   */
+  public double centroidX() {
+    return centroidX;
+  }
+
+  /**
+   * Gets the y co-ordinate of the contour's centroid.
+   *
+   * @return The centroid's y co-ordinate, in image co-ordinates
+   */
+  public double centroidY() {
+    return centroidY;
+  }
+
+  /**
+   * Checks whether a point lies strictly inside the contour, matching OpenCV's {@code
+   * pointPolygonTest(contour, point, false) > 0}. Points on the contour itself are outside. Runs
+   * without allocating.
+   *
+   * @param x The x co-ordinate of the point
+   * @param y The y co-ordinate of the point
+   * @return {@code true} if the point is inside the contour
+   */
+  public boolean contains(int x, int y) {
+    if (!boundingBox.contains(x, y)) {
+      return false;
+    }
+    int vertices = polygon.length / 2;
+    boolean inside = false;
+    for (int i = 0, j = vertices - 1; i < vertices; j = i++) {
+      int xi = polygon[i * 2];
+      int yi = polygon[i * 2 + 1];
+      int xj = polygon[j * 2];
+      int yj = polygon[j * 2 + 1];
+      if (onSegment(x, y, xi, yi, xj, yj)) {
+        return false;
+      }
+      // Even-odd rule, counting edges crossed by a ray cast to the right of the point
+      if ((yi > y) != (yj > y)) {
+        long lhs = (long) (x - xi) * (yj - yi);
+        long rhs = (long) (xj - xi) * (y - yi);
+        // x < xi + (xj - xi) * (y - yi) / (yj - yi), without dividing
+        if (yj > yi ? lhs < rhs : lhs > rhs) {
+          inside = !inside;
+        }
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * Returns the contour as a native OpenCV {@link Mat}, creating it on first use. The Mat is owned
+   * by this object and freed by {@link #release()}; it must not be released by the caller.
+   *
+   * @return A CV_32SC2 {@link Mat} of the contour's vertices
+   */
+  public synchronized Mat contour() {
+    if (contour == null) {
+      contour = new Mat(polygon.length / 2, 1, CV_32SC2);
+      IntBuffer buffer = contour.createBuffer();
+      buffer.put(polygon);
+      liveContours.incrementAndGet();
+    }
+    return contour;
+  }
+
+  /**
+   * Releases the native contour, if {@link #contour()} ever created one. Safe to call more than
+   * once, and a no-op for objects that were only used through their polygon.
+   */
+  public synchronized void release() {
     if (contour != null) {
       contour.release();
+      contour = null;
+      liveContours.decrementAndGet();
     }
   }
+
+  /**
+   * Gets the number of native contours created by {@link #contour()} and not yet released. A count
+   * that keeps growing means callers are not releasing their objects.
+   *
+   * @return The number of live contour Mats across all objects
+   */
+  public static int liveContours() {
+    return liveContours.get();
+  }
+
+  /**
+   * Internal helper to check whether a point lies on a contour edge.
+   *
+   * @param x The x co-ordinate of the point
+   * @param y The y co-ordinate of the point
+   * @param x1 The x co-ordinate of the edge's start
+   * @param y1 The y co-ordinate of the edge's start
+   * @param x2 The x co-ordinate of the edge's end
+   * @param y2 The y co-ordinate of the edge's end
+   * @return {@code true} if the point is on the edge
+   */
+  private static boolean onSegment(int x, int y, int x1, int y1, int x2, int y2) {
+    long cross = (long) (x2 - x1) * (y - y1) - (long) (y2 - y1) * (x - x1);
+    return cross == 0
+        && x >= Math.min(x1, x2)
+        && x <= Math.max(x1, x2)
+        && y >= Math.min(y1, y2)
+        && y <= Math.max(y1, y2);
+  }
 }
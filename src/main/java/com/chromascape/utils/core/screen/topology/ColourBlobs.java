@@ -0,0 +1,235 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.CC_STAT_AREA;
+import static org.bytedeco.opencv.global.opencv_imgproc.CC_STAT_HEIGHT;
+import static org.bytedeco.opencv.global.opencv_imgproc.CC_STAT_LEFT;
+import static org.bytedeco.opencv.global.opencv_imgproc.CC_STAT_TOP;
+import static org.bytedeco.opencv.global.opencv_imgproc.CC_STAT_WIDTH;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import org.bytedeco.javacpp.indexer.DoubleRawIndexer;
+import org.bytedeco.javacpp.indexer.IntRawIndexer;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * The blobs of one colour in an image, found by {@link ColourContours#getColourBlobs} with
+ * connected component labelling. Unlike a list of {@link ChromaObj}s, every statistic is held in
+ * primitive arrays on the heap, so there are no native contour Mats to release.
+ *
+ * <p>Blobs are indexed from {@code 0} to {@code count() - 1}. For each blob the area, bounding box,
+ * centroid and a row histogram, the number of its pixels on each row of its bounding box, are
+ * available.
+ */
+public final class ColourBlobs {
+
+  private static final ColourBlobs EMPTY =
+      new ColourBlobs(new int[0], new int[0], new double[0], new int[0], new int[1]);
+
+  /** Pixel count of each blob. */
+  private final int[] areas;
+
+  /** Bounding box of each blob, as x, y, width and height. */
+  private final int[] boxes;
+
+  /** Centroid of each blob, as x and y. */
+  private final double[] centroids;
+
+  /** Row histograms of every blob, one after another. */
+  private final int[] histograms;
+
+  /** Where each blob's row histogram starts, with a final entry marking the end. */
+  private final int[] histogramOffsets;
+
+  /**
+   * Internal constructor, taking ownership of the arrays.
+   *
+   * @param areas Pixel count of each blob
+   * @param boxes Bounding box of each blob, as x, y, width and height
+   * @param centroids Centroid of each blob, as x and y
+   * @param histograms Row histograms of every blob, one after another
+   * @param histogramOffsets Where each blob's row histogram starts, plus the end
+   */
+  private ColourBlobs(
+      int[] areas, int[] boxes, double[] centroids, int[] histograms, int[] histogramOffsets) {
+    this.areas = areas;
+    this.boxes = boxes;
+    this.centroids = centroids;
+    this.histograms = histograms;
+    this.histogramOffsets = histogramOffsets;
+  }
+
+  /**
+   * Copies the output of {@code connectedComponentsWithStats} onto the heap. The background,
+   * label {@code 0}, is dropped, so OpenCV's label {@code i} becomes blob {@code i - 1}.
+   *
+   * @param labels The CV_32S label of each pixel
+   * @param stats The CV_32S statistics of each label
+   * @param centroidMat The CV_64F centroid of each label
+   * @param labelCount The number of labels, including the background
+   * @return The blobs
+   */
+  static ColourBlobs of(Mat labels, Mat stats, Mat centroidMat, int labelCount) {
+    int count = labelCount - 1;
+    if (count <= 0) {
+      return EMPTY;
+    }
+    int[] areas = new int[count];
+    int[] boxes = new int[count * 4];
+    double[] centroids = new double[count * 2];
+    int[] offsets = new int[count + 1];
+
+    IntRawIndexer stat = stats.createIndexer();
+    DoubleRawIndexer centre = centroidMat.createIndexer();
+    try {
+      for (int i = 0; i < count; i++) {
+        int label = i + 1;
+        areas[i] = stat.get(label, CC_STAT_AREA);
+        boxes[i * 4] = stat.get(label, CC_STAT_LEFT);
+        boxes[i * 4 + 1] = stat.get(label, CC_STAT_TOP);
+        boxes[i * 4 + 2] = stat.get(label, CC_STAT_WIDTH);
+        boxes[i * 4 + 3] = stat.get(label, CC_STAT_HEIGHT);
+        centroids[i * 2] = centre.get(label, 0);
+        centroids[i * 2 + 1] = centre.get(label, 1);
+        offsets[i + 1] = offsets[i] + boxes[i * 4 + 3];
+      }
+    } finally {
+      stat.release();
+      centre.release();
+    }
+
+    // One pass over the labels fills every blob's histogram
+    int[] histograms = new int[offsets[count]];
+    int cols = labels.cols();
+    int rows = labels.rows();
+    IntBuffer pixels = labels.createBuffer();
+    for (int y = 0; y < rows; y++) {
+      int row = y * cols;
+      for (int x = 0; x < cols; x++) {
+        int label = pixels.get(row + x);
+        if (label > 0) {
+          int blob = label - 1;
+          histograms[offsets[blob] + y - boxes[blob * 4 + 1]]++;
+        }
+      }
+    }
+    return new ColourBlobs(areas, boxes, centroids, histograms, offsets);
+  }
+
+  /**
+   * Gets the number of blobs.
+   *
+   * @return The blob count
+   */
+  public int count() {
+    return areas.length;
+  }
+
+  /**
+   * Checks whether any blob was found.
+   *
+   * @return {@code true} if there are no blobs
+   */
+  public boolean isEmpty() {
+    return areas.length == 0;
+  }
+
+  /**
+   * Gets the number of pixels in a blob.
+   *
+   * @param blob The blob index
+   * @return The blob's area in pixels
+   */
+  public int area(int blob) {
+    return areas[blob];
+  }
+
+  /**
+   * Gets the number of pixels in every blob.
+   *
+   * @return A copy of the areas, indexed by blob
+   */
+  public int[] areas() {
+    return areas.clone();
+  }
+
+  /**
+   * Gets the bounding box of a blob.
+   *
+   * @param blob The blob index
+   * @return The blob's bounding box in image co-ordinates
+   */
+  public Rectangle bounds(int blob) {
+    int i = blob * 4;
+    return new Rectangle(boxes[i], boxes[i + 1], boxes[i + 2], boxes[i + 3]);
+  }
+
+  /**
+   * Gets the x co-ordinate of a blob's centroid.
+   *
+   * @param blob The blob index
+   * @return The mean x co-ordinate of the blob's pixels
+   */
+  public double centroidX(int blob) {
+    return centroids[blob * 2];
+  }
+
+  /**
+   * Gets the y co-ordinate of a blob's centroid.
+   *
+   * @param blob The blob index
+   * @return The mean y co-ordinate of the blob's pixels
+   */
+  public double centroidY(int blob) {
+    return centroids[blob * 2 + 1];
+  }
+
+  /**
+   * Gets how many of a blob's pixels lie on each row of its bounding box. Useful for telling
+   * shapes apart, e.g. a thin outline from a solid fill, without touching the image again.
+   *
+   * @param blob The blob index
+   * @return A new array with one count per row, top to bottom
+   */
+  public int[] rowHistogram(int blob) {
+    return Arrays.copyOfRange(histograms, histogramOffsets[blob], histogramOffsets[blob + 1]);
+  }
+
+  /**
+   * Finds the largest blob.
+   *
+   * @return The index of the blob with the most pixels, or {@code -1} if there are none
+   */
+  public int largest() {
+    int best = -1;
+    for (int i = 0; i < areas.length; i++) {
+      if (best < 0 || areas[i] > areas[best]) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Finds the blob whose centroid is closest to a point, such as the screen centre.
+   *
+   * @param point The point to measure from, in image co-ordinates
+   * @return The index of the closest blob, or {@code -1} if there are none
+   */
+  public int closestTo(Point point) {
+    int best = -1;
+    double bestDistance = Double.MAX_VALUE;
+    for (int i = 0; i < areas.length; i++) {
+      double dx = centroids[i * 2] - point.x;
+      double dy = centroids[i * 2 + 1] - point.y;
+      double distance = dx * dx + dy * dy;
+      if (distance < bestDistance) {
+        bestDistance = distance;
+        best = i;
+      }
+    }
+    return best;
+  }
+}
@@ -1,19 +1,25 @@
 package com.chromascape.utils.core.screen.topology;
 
 import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_core.bitwise_or;
 import static org.bytedeco.opencv.global.opencv_core.inRange;
 import static org.bytedeco.opencv.global.opencv_imgproc.*;
 
+import com.chromascape.utils.core.screen.colour.ColourClassifier;
 import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.colour.LabelMap;
+import com.chromascape.utils.core.screen.colour.MorphClosing;
 import com.chromascape.utils.core.screen.viewport.ViewportManager;
 import com.chromascape.utils.core.screen.window.ScreenManager;
 import com.chromascape.utils.core.state.StateManager;
 import com.chromascape.utils.core.statistics.StatisticsManager;
 import java.awt.Point;
-import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.opencv_core.*;
 
@@ -24,8 +30,8 @@ import org.bytedeco.opencv.opencv_core.*;
  */
 public class ColourContours {
 
-  private static final Mat DILATE_KERNEL = getStructuringElement(MORPH_ELLIPSE, new Size(20, 20));
-  private static final Mat ERODE_KERNEL = getStructuringElement(MORPH_ELLIPSE, new Size(20, 20));
+  /** Structuring elements by shape and size, shared by every closing that uses them. */
+  private static final Map<KernelKey, Mat> KERNELS = new ConcurrentHashMap<>();
   private static final Scalar COLOUR_WHITE = new Scalar(255);
   private static final Mat EMPTY_HIERARCHY = new Mat();
   private static final org.bytedeco.opencv.opencv_core.Point OFFSET_ZERO =
@@ -40,12 +46,96 @@ public class ColourContours {
    * @return a list of ChromaObj objects representing detected contours of the specified colour
    */
   public static List<ChromaObj> getChromaObjsInColour(BufferedImage image, ColourObj colourObj) {
+    try (Mat mat = Java2DFrameUtils.toMat(image)) {
+      return getChromaObjsInColour(mat, colourObj);
+    }
+  }
+
+  /**
+   * Finds and returns a list of ChromaObj instances representing contours in the given native image
+   * that match the specified colour range. Use this with {@link ScreenManager#captureWindowMat()}
+   * to avoid converting the frame through a {@link BufferedImage}.
+   *
+   * @param image the BGR or BGRA Mat to process, left unmodified
+   * @param colourObj the ColourObj specifying the HSV colour range to extract
+   * @return a list of ChromaObj objects representing detected contours of the specified colour
+   */
+  public static List<ChromaObj> getChromaObjsInColour(Mat image, ColourObj colourObj) {
+    Mat mask = extractColours(image, colourObj);
+    morphClose(mask, colourObj.closing());
+    ViewportManager.publish(() -> new Mat(mask));
+    try (MatVector contours = extractContours(mask)) {
+      return createChromaObjects(contours);
+    } finally {
+      mask.release();
+    }
+  }
+
+  /**
+   * Finds the blobs of a colour in an image using connected component labelling, as a lighter
+   * alternative to {@link #getChromaObjsInColour(BufferedImage, ColourObj)}.
+   *
+   * @param image the BufferedImage to process
+   * @param colourObj the ColourObj specifying the HSV colour range to extract
+   * @return the {@link ColourBlobs} of the specified colour
+   */
+  public static ColourBlobs getColourBlobs(BufferedImage image, ColourObj colourObj) {
+    try (Mat mat = Java2DFrameUtils.toMat(image)) {
+      return getColourBlobs(mat, colourObj);
+    }
+  }
+
+  /**
+   * Finds the blobs of a colour in a native image using connected component labelling. The mask is
+   * closed with the colour's {@link MorphClosing}, so blobs are the same objects that {@link
+   * #getChromaObjsInColour(Mat, ColourObj)} would find, but one labelling pass replaces the two
+   * contour searches and the per-object contour Mats. Areas and centroids count the pixels of the
+   * colour rather than the filled outline.
+   *
+   * @param image the BGR or BGRA Mat to process, left unmodified
+   * @param colourObj the ColourObj specifying the HSV colour range to extract
+   * @return the {@link ColourBlobs} of the specified colour
+   */
+  public static ColourBlobs getColourBlobs(Mat image, ColourObj colourObj) {
     Mat mask = extractColours(image, colourObj);
-    morphClose(mask);
-    ViewportManager.getInstance().updateState(mask);
-    MatVector contours = extractContours(mask);
-    mask.release();
-    return createChromaObjects(contours);
+    try (Mat labels = new Mat();
+        Mat stats = new Mat();
+        Mat centroids = new Mat()) {
+      // Bridges the same breaks as morphClose, without the contour fill
+      close(mask, colourObj.closing(), false);
+      ViewportManager.publish(() -> new Mat(mask));
+      int count = connectedComponentsWithStats(mask, labels, stats, centroids);
+      ColourBlobs blobs = ColourBlobs.of(labels, stats, centroids, count);
+      for (int i = 0; i < blobs.count(); i++) {
+        StatisticsManager.incrementObjectsDetected();
+      }
+      return blobs;
+    } finally {
+      mask.release();
+    }
+  }
+
+  /**
+   * Finds and returns a list of ChromaObj instances for a colour of an image that has already been
+   * labelled by a {@link ColourClassifier}. Querying several colours of the same frame this way
+   * converts and thresholds the frame once in total, rather than once per colour. The mask is
+   * closed with the colour's own {@link MorphClosing}, so the objects are the same as those found
+   * by {@link #getChromaObjsInColour(Mat, ColourObj)}.
+   *
+   * @param labels the labelled image
+   * @param colour the colour to extract, one of those the classifier was compiled with
+   * @return a list of ChromaObj objects representing detected contours of the specified colour
+   */
+  public static List<ChromaObj> getChromaObjsInColour(LabelMap labels, ColourObj colour) {
+    StateManager.setState(com.chromascape.utils.core.state.BotState.SEARCHING);
+    Mat mask = labels.mask(colour.name());
+    morphClose(mask, colour.closing());
+    ViewportManager.publish(() -> new Mat(mask));
+    try (MatVector contours = extractContours(mask)) {
+      return createChromaObjects(contours);
+    } finally {
+      mask.release();
+    }
   }
 
   /**
@@ -104,14 +194,15 @@ public class ColourContours {
   /**
    * Converts the input Mat to HSV colour space and extracts a binary mask.
    *
-   * @param inputMat the source image Mat (BGR)
+   * @param inputMat the source image Mat (BGR or BGRA), left unmodified
    * @param colourObj the ColourObj specifying the HSV minimum and maximum bounds
    * @return a Mat binary mask with pixels in range set to 255, others 0
    */
   public static Mat extractColours(Mat inputMat, ColourObj colourObj) {
     StateManager.setState(com.chromascape.utils.core.state.BotState.SEARCHING);
-    Mat hsvImage = inputMat.clone();
-    cvtColor(hsvImage, hsvImage, COLOR_BGR2HSV);
+    // Convert straight into a new Mat, the input may be a view over the live client buffer
+    Mat hsvImage = new Mat();
+    cvtColor(inputMat, hsvImage, COLOR_BGR2HSV);
     Mat result = new Mat(hsvImage.size(), CV_8UC1);
     Mat hsvMin = new Mat(colourObj.hsvMin());
     Mat hsvMax = new Mat(colourObj.hsvMax());
@@ -131,11 +222,114 @@ public class ColourContours {
    * @param result The 8UC1 {@link Mat} mask which to mutate.
    */
   public static void morphClose(Mat result) {
+    morphClose(result, MorphClosing.DEFAULT);
+  }
+
+  /**
+   * Closes and fills a mask like {@link #morphClose(Mat)}, using the given strategy.
+   *
+   * @param result The 8UC1 {@link Mat} mask which to mutate.
+   * @param closing How to close the mask.
+   */
+  public static void morphClose(Mat result, MorphClosing closing) {
+    close(result, closing, true);
+  }
+
+  /**
+   * Internal helper to close a mask, on a half resolution copy if the closing asks for it. The
+   * downsampled copy keeps every pixel that had any set pixel beneath it, so thin outlines survive,
+   * and the original pixels are merged back in after scaling up.
+   *
+   * @param mask The 8UC1 mask to mutate
+   * @param closing How to close the mask
+   * @param fill Whether to fill the closed shapes' interiors
+   */
+  private static void close(Mat mask, MorphClosing closing, boolean fill) {
+    if (closing.shape() == MorphClosing.Shape.NONE) {
+      return;
+    }
+    if (!closing.downsampled()) {
+      closeAt(mask, closing.shape(), closing.size(), fill);
+      return;
+    }
+    try (Mat small = new Mat();
+        Mat restored = new Mat();
+        Size half = new Size(Math.max(1, mask.cols() / 2), Math.max(1, mask.rows() / 2));
+        Size full = new Size(mask.cols(), mask.rows())) {
+      resize(mask, small, half, 0, 0, INTER_AREA);
+      threshold(small, small, 0, 255, THRESH_BINARY);
+      closeAt(small, closing.shape(), Math.max(1, closing.size() / 2), fill);
+      resize(small, restored, full, 0, 0, INTER_NEAREST);
+      bitwise_or(mask, restored, mask);
+    }
+  }
+
+  /**
+   * Internal helper to close a mask at its own resolution.
+   *
+   * @param result The 8UC1 mask to mutate
+   * @param shape The structuring element
+   * @param size The size of the structuring element
+   * @param fill Whether to fill the closed shapes' interiors
+   */
+  private static void closeAt(Mat result, MorphClosing.Shape shape, int size, boolean fill) {
     // Dilate the contour to fix breaks e.g., C should become O
-    morphologyEx(result, result, MORPH_DILATE, DILATE_KERNEL);
+    morph(result, MORPH_DILATE, shape, size);
 
-    // Completely fill internal space with white
-    // For consistency and improved contour calculation
+    if (fill) {
+      fillShapes(result);
+    }
+
+    // Restore original size through erosion whilst closing contour breaks
+    morph(result, MORPH_ERODE, shape, size);
+  }
+
+  /**
+   * Internal helper to dilate or erode a mask. Rectangles are applied as a row then a column pass,
+   * which is equivalent to the full rectangle and much cheaper.
+   *
+   * @param mask The 8UC1 mask to mutate
+   * @param op {@code MORPH_DILATE} or {@code MORPH_ERODE}
+   * @param shape The structuring element
+   * @param size The size of the structuring element
+   */
+  private static void morph(Mat mask, int op, MorphClosing.Shape shape, int size) {
+    if (shape == MorphClosing.Shape.RECT) {
+      morphologyEx(mask, mask, op, kernel(MORPH_RECT, size, 1));
+      morphologyEx(mask, mask, op, kernel(MORPH_RECT, 1, size));
+    } else {
+      morphologyEx(mask, mask, op, kernel(MORPH_ELLIPSE, size, size));
+    }
+  }
+
+  /** Identifies a cached structuring element. */
+  private record KernelKey(int shape, int width, int height) {}
+
+  /**
+   * Internal helper to get a structuring element, creating it on first use.
+   *
+   * @param shape The OpenCV morph shape
+   * @param width The kernel width
+   * @param height The kernel height
+   * @return The shared kernel, which must not be released
+   */
+  private static Mat kernel(int shape, int width, int height) {
+    return KERNELS.computeIfAbsent(
+        new KernelKey(shape, width, height),
+        key -> {
+          try (Size size = new Size(key.width(), key.height())) {
+            return getStructuringElement(key.shape(), size);
+          }
+        });
+  }
+
+  /**
+   * Internal helper to completely fill the internal space of every outer contour with white, for
+   * consistency and improved contour calculation.
+   *
+   * @param result The 8UC1 mask to mutate
+   */
+  private static void fillShapes(Mat result) {
     try (MatVector contours = new MatVector()) {
       findContours(result, contours, RETR_EXTERNAL, CHAIN_APPROX_SIMPLE);
       // Using static constants for reused variables to reduce CPU allocation fatigue
@@ -150,9 +344,6 @@ public class ColourContours {
           Integer.MAX_VALUE,
           OFFSET_ZERO);
     }
-
-    // Restore original size through erosion whilst closing contour breaks
-    morphologyEx(result, result, MORPH_ERODE, ERODE_KERNEL);
   }
 
   /**
@@ -169,7 +360,9 @@ public class ColourContours {
 
   /**
    * Creates a list of ChromaObj objects from the given contours. Each ChromaObj contains the
-   * contour index, the contour Mat itself, and its bounding rectangle as a Java AWT Rectangle.
+   * contour index and a heap copy of the contour's vertices, from which its bounding rectangle,
+   * area and centroid are computed. The contours are only read; the caller still owns and releases
+   * the MatVector.
    *
    * @param contours MatVector containing contours detected in the image
    * @return list of ChromaObj objects representing each contour with bounding box
@@ -177,10 +370,13 @@ public class ColourContours {
   public static List<ChromaObj> createChromaObjects(MatVector contours) {
     List<ChromaObj> chromaObjects = new ArrayList<>();
     for (int i = 0; i < contours.size(); i++) {
-      Mat contour = contours.get(i);
-      Rect rect = boundingRect(contour);
-      Rectangle contourBounds = new Rectangle(rect.x(), rect.y(), rect.width(), rect.height());
-      chromaObjects.add(new ChromaObj(i, contour, contourBounds));
+      try (Mat contour = contours.get(i)) {
+        // Contours are CV_32SC2, so the vertices copy straight out as interleaved x and y
+        int[] polygon = new int[(int) contour.total() * 2];
+        IntBuffer vertices = contour.createBuffer();
+        vertices.get(polygon);
+        chromaObjects.add(new ChromaObj(i, polygon));
+      }
       StatisticsManager.incrementObjectsDetected();
     }
     return chromaObjects;
@@ -198,4 +394,16 @@ public class ColourContours {
       return pointPolygonTest(contour, point2f, false) > 0;
     }
   }
+
+  /**
+   * Checks whether a given point lies inside an object's contour, in plain Java and without
+   * allocating. Gives the same answer as {@link #isPointInContour(Point, Mat)}.
+   *
+   * @param point the Point to test
+   * @param chromaObj the object whose contour to test against
+   * @return true if the point lies inside the contour; false otherwise
+   */
+  public static boolean isPointInContour(Point point, ChromaObj chromaObj) {
+    return chromaObj.contains(point.x, point.y);
+  }
 }
@@ -0,0 +1,114 @@
+package com.chromascape.utils.core.screen.topology;
+
+import org.bytedeco.javacpp.indexer.UByteRawIndexer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+/**
+ * The dominant colour of a template, as a BGRA range that can be thresholded against a base image
+ * to find where the template might be. Used by {@link MatchMode#COLOUR_GUIDED}.
+ *
+ * @param lower The inclusive lower BGRA bound, as a 4x1 {@link Mat}
+ * @param upper The inclusive upper BGRA bound, as a 4x1 {@link Mat}
+ * @param pixels How many of the template's pixels fall within the range
+ */
+record ColourSignature(Mat lower, Mat upper, int pixels) {
+
+  /** Bits kept per channel when binning colours, so shading variants share a bin. */
+  private static final int BIN_BITS = 3;
+
+  /** Smallest share of opaque pixels the dominant bin must hold to be distinctive. */
+  private static final double MIN_COVERAGE = 0.2;
+
+  /** How far the range is widened beyond the colours seen in the template. */
+  private static final int TOLERANCE = 8;
+
+  /**
+   * Computes the dominant colour signature of a template. Opaque pixels are binned by their top
+   * {@value #BIN_BITS} bits per channel and the fullest bin becomes the signature, widened by a
+   * small tolerance.
+   *
+   * @param image The BGRA template, where transparent pixels have zero alpha
+   * @return The signature, or {@code null} if no colour dominates the template
+   */
+  static ColourSignature of(Mat image) {
+    int shift = 8 - BIN_BITS;
+    int[] counts = new int[1 << (3 * BIN_BITS)];
+    int opaque = 0;
+    UByteRawIndexer indexer = image.createIndexer();
+    try {
+      for (int y = 0; y < image.rows(); y++) {
+        for (int x = 0; x < image.cols(); x++) {
+          if (indexer.get(y, x, 3) == 0) {
+            continue;
+          }
+          counts[bin(indexer, y, x, shift)]++;
+          opaque++;
+        }
+      }
+
+      int dominant = 0;
+      for (int i = 1; i < counts.length; i++) {
+        if (counts[i] > counts[dominant]) {
+          dominant = i;
+        }
+      }
+      if (opaque == 0 || counts[dominant] < opaque * MIN_COVERAGE) {
+        return null;
+      }
+
+      // Tighten the range to the colours actually present in the dominant bin
+      int[] min = {255, 255, 255};
+      int[] max = {0, 0, 0};
+      for (int y = 0; y < image.rows(); y++) {
+        for (int x = 0; x < image.cols(); x++) {
+          if (indexer.get(y, x, 3) == 0 || bin(indexer, y, x, shift) != dominant) {
+            continue;
+          }
+          for (int c = 0; c < 3; c++) {
+            min[c] = Math.min(min[c], indexer.get(y, x, c));
+            max[c] = Math.max(max[c], indexer.get(y, x, c));
+          }
+        }
+      }
+
+      Mat lower;
+      Mat upper;
+      try (Scalar low =
+              new Scalar(
+                  Math.max(0, min[0] - TOLERANCE),
+                  Math.max(0, min[1] - TOLERANCE),
+                  Math.max(0, min[2] - TOLERANCE),
+                  0);
+          Scalar high =
+              new Scalar(
+                  Math.min(255, max[0] + TOLERANCE),
+                  Math.min(255, max[1] + TOLERANCE),
+                  Math.min(255, max[2] + TOLERANCE),
+                  255)) {
+        // Copied, as a Mat built from a Scalar otherwise shares the Scalar's memory
+        lower = new Mat(low, true);
+        upper = new Mat(high, true);
+      }
+      return new ColourSignature(lower, upper, counts[dominant]);
+    } finally {
+      indexer.release();
+    }
+  }
+
+  /**
+   * Internal helper to find the colour bin of a pixel.
+   *
+   * @param indexer The BGRA pixels
+   * @param y The row of the pixel
+   * @param x The column of the pixel
+   * @param shift How many low bits of each channel to drop
+   * @return The bin index
+   */
+  private static int bin(UByteRawIndexer indexer, int y, int x, int shift) {
+    int b = indexer.get(y, x, 0) >> shift;
+    int g = indexer.get(y, x, 1) >> shift;
+    int r = indexer.get(y, x, 2) >> shift;
+    return (b << (2 * BIN_BITS)) | (g << BIN_BITS) | r;
+  }
+}
@@ -0,0 +1,20 @@
+package com.chromascape.utils.core.screen.topology;
+
+/**
+ * The object returned by {@link TemplateMatching#matchHinted}. Wraps the {@link MatchResult} and
+ * records whether it was found within the hinted window or needed a full scan of the base.
+ *
+ * @param result The match, scored exactly as an unhinted match would be.
+ * @param hintHit Whether the match was found within the {@link SearchHint} window.
+ */
+public record HintedMatchResult(MatchResult result, boolean hintHit) {
+
+  /**
+   * Checks whether the template was found within the threshold.
+   *
+   * @return {@code true} if the result is a successful match
+   */
+  public boolean success() {
+    return result.success();
+  }
+}
@@ -0,0 +1,23 @@
+package com.chromascape.utils.core.screen.topology;
+
+/** Selects how {@link TemplateMatching} searches a base image for a template. */
+public enum MatchMode {
+
+  /** Correlates the template at every position of the full resolution base image. */
+  EXACT,
+
+  /**
+   * Correlates a downscaled template against a downscaled base image, then refines only small
+   * windows around the best coarse candidates at full resolution. Much faster on large bases such
+   * as the whole client window. Templates too small to downscale are matched exactly.
+   */
+  PYRAMID,
+
+  /**
+   * Thresholds the base image against the template's dominant colour, then correlates only small
+   * windows around the regions of that colour. Turns a full frame search such as the game view
+   * into a handful of tiny ones for sprites with a distinctive colour. Falls back to {@link #EXACT}
+   * when the template has no dominant colour or the colour is too widespread in the base.
+   */
+  COLOUR_GUIDED
+}
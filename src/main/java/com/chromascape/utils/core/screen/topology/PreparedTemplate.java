@@ -0,0 +1,212 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.INTER_AREA;
+import static org.bytedeco.opencv.global.opencv_imgproc.INTER_NEAREST;
+import static org.bytedeco.opencv.global.opencv_imgproc.resize;
+
+import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.Map;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+
+/**
+ * A template decoded once and kept ready for matching: the image in BGRA and the alpha mask that
+ * excludes its transparent pixels. Fully transparent borders are trimmed off at load time, since
+ * correlation cost grows with template area, and matches are mapped back onto the untrimmed
+ * template with {@link #placement(int, int)}. Instances are shared through {@link TemplateCache}
+ * and never modified; the accessors hand out new headers over the shared pixels. Evicted templates
+ * are not released explicitly, since a match on another thread may still be using them, and are
+ * left to the garbage collector instead.
+ */
+public final class PreparedTemplate {
+
+  private final String resourcePath;
+
+  private final Mat image;
+
+  private final Mat mask;
+
+  /** Where the trimmed image sits within the original template. */
+  private final int offsetX;
+
+  private final int offsetY;
+
+  /** The size of the template before trimming. */
+  private final int originalWidth;
+
+  private final int originalHeight;
+
+  /** Downscaled copies for pyramid matching, keyed by scale factor. */
+  private final Map<Integer, PreparedTemplate> downscaled = new HashMap<>();
+
+  /** The dominant colour, or {@code null} if none dominates. Valid once computed. */
+  private ColourSignature signature;
+
+  private boolean signatureComputed;
+
+  /**
+   * Constructs an untrimmed prepared template, taking ownership of both Mats.
+   *
+   * @param resourcePath The resource the template was decoded from
+   * @param image The template in BGRA
+   * @param mask The template's alpha channel, or an empty Mat if the template is fully opaque
+   */
+  PreparedTemplate(String resourcePath, Mat image, Mat mask) {
+    this(resourcePath, image, mask, new Rectangle(0, 0, image.cols(), image.rows()));
+  }
+
+  /**
+   * Constructs a prepared template that was trimmed out of a larger one, taking ownership of both
+   * Mats.
+   *
+   * @param resourcePath The resource the template was decoded from
+   * @param image The trimmed template in BGRA
+   * @param mask The trimmed alpha channel, or an empty Mat if the trimmed template is fully opaque
+   * @param original The original template's bounds, relative to the trimmed image's top left
+   */
+  PreparedTemplate(String resourcePath, Mat image, Mat mask, Rectangle original) {
+    this.resourcePath = resourcePath;
+    this.image = image;
+    this.mask = mask;
+    this.offsetX = -original.x;
+    this.offsetY = -original.y;
+    this.originalWidth = original.width;
+    this.originalHeight = original.height;
+  }
+
+  /**
+   * Gets the resource the template was decoded from.
+   *
+   * @return The resource path
+   */
+  public String resourcePath() {
+    return resourcePath;
+  }
+
+  /**
+   * Returns a header over the BGRA template. The caller must release it and must not modify it.
+   *
+   * @return A 4 channel {@link Mat} of the template
+   */
+  public Mat image() {
+    return new Mat(image);
+  }
+
+  /**
+   * Returns a header over the template's alpha mask. The caller must release it and must not
+   * modify it. Fully opaque templates have no mask, which OpenCV's matching treats as matching
+   * every pixel without the cost of masking.
+   *
+   * @return A single channel {@link Mat} where transparent pixels are zero, or an empty Mat
+   */
+  public Mat mask() {
+    return new Mat(mask);
+  }
+
+  /**
+   * Gets the template's width after trimming, which is the size correlated against the base.
+   *
+   * @return The width in pixels
+   */
+  public int width() {
+    return image.cols();
+  }
+
+  /**
+   * Gets the template's height after trimming, which is the size correlated against the base.
+   *
+   * @return The height in pixels
+   */
+  public int height() {
+    return image.rows();
+  }
+
+  /**
+   * Maps the location of a match of the trimmed template back onto the template as it was
+   * authored, including its transparent borders. Matches found within {@link #searchArea(int,
+   * int)} always map to bounds inside the base image.
+   *
+   * @param x The x co-ordinate of the trimmed template's match
+   * @param y The y co-ordinate of the trimmed template's match
+   * @return The bounds of the whole template at that match
+   */
+  public Rectangle placement(int x, int y) {
+    return new Rectangle(x - offsetX, y - offsetY, originalWidth, originalHeight);
+  }
+
+  /**
+   * Gets the area of a base image the trimmed template may be correlated within. Every match
+   * inside it keeps the whole template as authored within the base, so searching it finds exactly
+   * the placements an untrimmed match would, and never one hanging over the base's edge.
+   *
+   * @param baseWidth The width of the base image
+   * @param baseHeight The height of the base image
+   * @return The area in base co-ordinates, or {@code null} if the template as authored is larger
+   *     than the base
+   */
+  Rectangle searchArea(int baseWidth, int baseHeight) {
+    if (originalWidth > baseWidth || originalHeight > baseHeight) {
+      return null;
+    }
+    return new Rectangle(
+        offsetX,
+        offsetY,
+        baseWidth - originalWidth + width(),
+        baseHeight - originalHeight + height());
+  }
+
+  /**
+   * Gets how far right of the original template's left edge the trimmed image starts.
+   *
+   * @return The trimmed offset in pixels
+   */
+  int offsetX() {
+    return offsetX;
+  }
+
+  /**
+   * Gets how far below the original template's top edge the trimmed image starts.
+   *
+   * @return The trimmed offset in pixels
+   */
+  int offsetY() {
+    return offsetY;
+  }
+
+  /**
+   * Gets this template shrunk by an integer factor, creating it on first use. The image is
+   * averaged down while the mask is sampled, so it stays a clean binary mask.
+   *
+   * @param factor The scale divisor, e.g. 4 for a quarter size template
+   * @return The downscaled template, owned by this one
+   */
+  synchronized PreparedTemplate downscaled(int factor) {
+    return downscaled.computeIfAbsent(
+        factor,
+        f -> {
+          Mat smallImage = new Mat();
+          Mat smallMask = new Mat();
+          try (Size size = new Size(Math.max(1, width() / f), Math.max(1, height() / f))) {
+            resize(image, smallImage, size, 0, 0, INTER_AREA);
+            if (!mask.empty()) {
+              resize(mask, smallMask, size, 0, 0, INTER_NEAREST);
+            }
+          }
+          return new PreparedTemplate(resourcePath, smallImage, smallMask);
+        });
+  }
+
+  /**
+   * Gets the template's dominant colour signature, computing it on first use.
+   *
+   * @return The {@link ColourSignature}, or {@code null} if no single colour dominates the template
+   */
+  synchronized ColourSignature colourSignature() {
+    if (!signatureComputed) {
+      signature = ColourSignature.of(image);
+      signatureComputed = true;
+    }
+    return signature;
+  }
+}
@@ -0,0 +1,37 @@
+package com.chromascape.utils.core.screen.topology;
+
+import java.awt.Rectangle;
+
+/**
+ * Tells {@link TemplateMatching#matchHinted} where a template is likely to be, so only a small
+ * window around that location is searched before falling back to the whole base image. UI elements
+ * and inventory items rarely move between frames, which makes the window search the common case.
+ *
+ * @param area The last known bounds of the template in base image co-ordinates, or {@code null} to
+ *     use the location remembered from the template's previous hinted match.
+ * @param radius How far from the last known location the template may have moved, in pixels.
+ */
+public record SearchHint(Rectangle area, int radius) {
+
+  /**
+   * Validates the hint.
+   *
+   * @throws IllegalArgumentException If the radius is negative
+   */
+  public SearchHint {
+    if (radius < 0) {
+      throw new IllegalArgumentException("Search radius must not be negative: " + radius);
+    }
+  }
+
+  /**
+   * Creates a hint that searches around wherever the template was last found by a hinted match
+   * against a base image of the same size.
+   *
+   * @param radius How far the template may have moved, in pixels.
+   * @return The {@link SearchHint}
+   */
+  public static SearchHint remembered(int radius) {
+    return new SearchHint(null, radius);
+  }
+}
@@ -0,0 +1,223 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_core.countNonZero;
+import static org.bytedeco.opencv.global.opencv_core.extractChannel;
+import static org.bytedeco.opencv.global.opencv_imgcodecs.IMREAD_UNCHANGED;
+import static org.bytedeco.opencv.global.opencv_imgcodecs.imdecode;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_GRAY2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.boundingRect;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+
+/**
+ * Bounded, thread-safe cache of decoded templates keyed by resource path. Templates are decoded
+ * straight from the resource bytes with {@code imdecode}, converted to BGRA, trimmed of fully
+ * transparent borders and paired with their alpha mask once, so repeated matches against the same
+ * template cost nothing but the match itself. The least recently used template is evicted once
+ * the cache is full.
+ */
+public final class TemplateCache {
+
+  private static final int DEFAULT_CAPACITY = 128;
+
+  private static int capacity = DEFAULT_CAPACITY;
+
+  private static final Map<String, PreparedTemplate> templates =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  private static final AtomicLong hits = new AtomicLong();
+  private static final AtomicLong misses = new AtomicLong();
+  private static final AtomicLong evictions = new AtomicLong();
+
+  private TemplateCache() {}
+
+  /**
+   * Gets a prepared template, decoding and caching it on first use.
+   *
+   * @param resourcePath path to image resource, e.g. "/images/user/myTemplate.png" (first "/" is
+   *     necessary)
+   * @return The {@link PreparedTemplate}
+   * @throws IOException If the resource cannot be read
+   * @throws IllegalArgumentException If the resource does not exist
+   * @throws IllegalStateException If the resource is not a decodable image
+   */
+  public static synchronized PreparedTemplate get(String resourcePath) throws IOException {
+    PreparedTemplate template = templates.get(resourcePath);
+    if (template != null) {
+      hits.incrementAndGet();
+      return template;
+    }
+    misses.incrementAndGet();
+    template = prepare(resourcePath);
+    templates.put(resourcePath, template);
+    evictToCapacity();
+    return template;
+  }
+
+  /**
+   * Decodes an image resource into a new Mat, preserving its alpha channel. The caller owns the
+   * result.
+   *
+   * @param resourcePath path to image resource, e.g. "/images/user/myTemplate.png"
+   * @return Mat with image data including alpha
+   * @throws IOException If the resource cannot be read
+   * @throws IllegalArgumentException If the resource does not exist
+   * @throws IllegalStateException If the resource is not a decodable image
+   */
+  static Mat decode(String resourcePath) throws IOException {
+    byte[] bytes;
+    try (InputStream is = TemplateCache.class.getResourceAsStream(resourcePath)) {
+      if (is == null) {
+        throw new IllegalArgumentException("Resource not found: " + resourcePath);
+      }
+      bytes = is.readAllBytes();
+    }
+
+    Mat mat;
+    try (BytePointer data = new BytePointer(bytes);
+        Mat encoded = new Mat(1, bytes.length, CV_8UC1, data)) {
+      mat = imdecode(encoded, IMREAD_UNCHANGED);
+    }
+    if (mat == null || mat.empty()) {
+      throw new IllegalStateException("Failed to load Mat from resource: " + resourcePath);
+    }
+    return mat;
+  }
+
+  /**
+   * Sets the maximum number of templates kept, evicting the least recently used if necessary.
+   *
+   * @param maxTemplates The new capacity, at least one
+   */
+  public static synchronized void setCapacity(int maxTemplates) {
+    if (maxTemplates < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + maxTemplates);
+    }
+    capacity = maxTemplates;
+    evictToCapacity();
+  }
+
+  /** Evicts every template. Templates still in use stay valid. */
+  public static synchronized void clear() {
+    templates.clear();
+  }
+
+  /**
+   * Gets the number of templates currently cached.
+   *
+   * @return The cache size
+   */
+  public static synchronized int size() {
+    return templates.size();
+  }
+
+  /**
+   * Gets the number of lookups served from the cache.
+   *
+   * @return The hit count
+   */
+  public static long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Gets the number of lookups that had to decode the template.
+   *
+   * @return The miss count
+   */
+  public static long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Gets the number of templates evicted to stay within capacity.
+   *
+   * @return The eviction count
+   */
+  public static long getEvictions() {
+    return evictions.get();
+  }
+
+  /**
+   * Internal helper to decode a template, trim its transparent borders and derive its alpha mask.
+   *
+   * @param resourcePath The template resource
+   * @return The prepared template
+   * @throws IOException If the resource cannot be read
+   */
+  private static PreparedTemplate prepare(String resourcePath) throws IOException {
+    return prepare(resourcePath, decode(resourcePath));
+  }
+
+  /**
+   * Internal helper to trim a decoded template's transparent borders and derive its alpha mask.
+   *
+   * @param resourcePath The resource the template was decoded from
+   * @param image The decoded template in grey, BGR or BGRA, owned by this method
+   * @return The prepared template
+   */
+  static PreparedTemplate prepare(String resourcePath, Mat image) {
+    if (image.channels() != 4) {
+      Mat bgra = new Mat();
+      cvtColor(image, bgra, image.channels() == 1 ? COLOR_GRAY2BGRA : COLOR_BGR2BGRA);
+      image.close();
+      image = bgra;
+    }
+    Mat alpha = new Mat();
+    extractChannel(image, alpha, 3);
+
+    Rectangle original = new Rectangle(0, 0, image.cols(), image.rows());
+    try (Rect opaque = boundingRect(alpha)) {
+      // A fully transparent template is left as is, it can never match anyway
+      if (!opaque.empty() && (opaque.width() < image.cols() || opaque.height() < image.rows())) {
+        original.translate(-opaque.x(), -opaque.y());
+        image = crop(image, opaque);
+        alpha = crop(alpha, opaque);
+      }
+    }
+
+    if (countNonZero(alpha) == alpha.total()) {
+      // Nothing to exclude, an empty mask lets OpenCV skip masking entirely
+      alpha.close();
+      alpha = new Mat();
+    }
+    return new PreparedTemplate(resourcePath, image, alpha, original);
+  }
+
+  /**
+   * Internal helper to copy a region out of a Mat, releasing the original.
+   *
+   * @param mat The Mat to crop, owned by this method
+   * @param rect The region to keep
+   * @return A new compact {@link Mat} of the region
+   */
+  private static Mat crop(Mat mat, Rect rect) {
+    try (Mat roi = new Mat(mat, rect)) {
+      return roi.clone();
+    } finally {
+      mat.close();
+    }
+  }
+
+  /** Internal helper to evict least recently used templates until within capacity. */
+  private static void evictToCapacity() {
+    Iterator<PreparedTemplate> iterator = templates.values().iterator();
+    while (templates.size() > capacity && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+      evictions.incrementAndGet();
+    }
+  }
+}
@@ -1,6 +1,6 @@
 package com.chromascape.utils.core.screen.topology;
 
-import static org.bytedeco.opencv.global.opencv_core.extractChannel;
+import static org.bytedeco.opencv.global.opencv_core.inRange;
 import static org.bytedeco.opencv.global.opencv_core.minMaxLoc;
 import static org.bytedeco.opencv.global.opencv_imgproc.*;
 import static org.opencv.imgproc.Imgproc.TM_SQDIFF_NORMED;
@@ -12,28 +12,79 @@ import com.chromascape.utils.core.statistics.StatisticsManager;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.indexer.IntRawIndexer;
 import org.bytedeco.javacv.Java2DFrameUtils;
-import org.bytedeco.opencv.global.opencv_imgcodecs;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
 
 /**
  * Utility class for performing alpha-aware template matching using OpenCV and JavaCV.
  *
- * <p>This class provides a single static method, {@link #match}, which uses the TM_SQDIFF_NORMED
+ * <p>This class provides the static {@link #match} methods, which use the TM_SQDIFF_NORMED
  * algorithm to locate a template image within a larger base image. It uses an alpha mask to ignore
- * transparent pixels in the template.
+ * transparent pixels in the template. Large bases can be searched coarse-to-fine with {@link
+ * MatchMode#PYRAMID}, or only around regions of the template's colour with {@link
+ * MatchMode#COLOUR_GUIDED}.
  *
  * <p>This is commonly to locate UI elements or sprites in the client window, based on screen
  * captures and template assets.
  */
 public class TemplateMatching {
 
+  /** Smallest side a downscaled template may have in {@link MatchMode#PYRAMID}. */
+  private static final int PYRAMID_MIN_SIDE = 8;
+
+  /** Number of coarse candidates refined at full resolution in {@link MatchMode#PYRAMID}. */
+  private static final int PYRAMID_CANDIDATES = 3;
+
+  /** Matches overlapping a better match by more than this intersection over union are dropped. */
+  private static final double NMS_OVERLAP = 0.3;
+
+  /** Fills suppressed correlation scores so they are never picked again. */
+  private static final Scalar WORST_SCORE = new Scalar(Float.MAX_VALUE);
+
+  /** Smallest share of a template's dominant colour pixels a base region needs to be searched. */
+  private static final double COLOUR_MIN_FILL = 0.25;
+
+  /**
+   * Largest share of the base that colour guided windows may cover before a plain full match is
+   * cheaper.
+   */
+  private static final double COLOUR_MAX_COVERAGE = 0.5;
+
+  /** How many template locations are remembered for {@link SearchHint#remembered(int)}. */
+  private static final int REMEMBERED_LOCATIONS = 256;
+
+  /** Where each template was last found by a hinted match, least recently used first. */
+  private static final Map<LocationKey, Rectangle> lastLocations =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LocationKey, Rectangle> eldest) {
+          return size() > REMEMBERED_LOCATIONS;
+        }
+      };
+
+  /** A candidate location in base image co-ordinates and its correlation score. */
+  private record Candidate(int x, int y, double score) {}
+
+  /**
+   * Identifies a remembered location. The base size is part of the key, as a location found in one
+   * zone means nothing in a zone of a different size.
+   */
+  private record LocationKey(String templateImg, int baseWidth, int baseHeight) {}
+
   /**
    * Performs template matching to locate a smaller image (template) within a larger image (base),
    * using normalized squared difference matching with an alpha channel mask to ignore transparent
@@ -56,142 +107,789 @@ public class TemplateMatching {
    *     base image, or {@code null} if no match meets the threshold criteria.
    */
   public static MatchResult match(String templateImg, BufferedImage baseImg, double threshold) {
+    Mat base = Java2DFrameUtils.toMat(baseImg);
+    try {
+      return match(templateImg, base, threshold);
+    } finally {
+      if (base != null && !base.isNull()) {
+        base.release();
+      }
+    }
+  }
+
+  /**
+   * Performs template matching against a native base image, such as one returned by {@link
+   * com.chromascape.utils.core.screen.window.ScreenManager#captureWindowMat()}. Behaves exactly
+   * like {@link #match(String, BufferedImage, double)} but skips the heap round trip of converting
+   * a {@link BufferedImage} back into a {@link Mat}.
+   *
+   * <p>The base image is only read, never modified or released; ownership stays with the caller.
+   *
+   * @param templateImg The template image (smaller), as a resource path.
+   * @param baseImg The base image (larger) where the template is searched, in BGR or BGRA format.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   *     Lower values mean better matches.
+   * @return A {@link MatchResult} representing the position and size of the matching area in the
+   *     base image.
+   */
+  public static MatchResult match(String templateImg, Mat baseImg, double threshold) {
+    return match(templateImg, baseImg, threshold, MatchMode.EXACT);
+  }
+
+  /**
+   * Performs template matching against a native base image using the given search strategy. See
+   * {@link MatchMode}. Every mode scores the final match at full resolution, so the returned
+   * {@link MatchResult} is comparable between modes.
+   *
+   * <p>The base image is only read, never modified or released; ownership stays with the caller.
+   *
+   * @param templateImg The template image (smaller), as a resource path.
+   * @param baseImg The base image (larger) where the template is searched, in BGR or BGRA format.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   *     Lower values mean better matches.
+   * @param mode How to search the base image.
+   * @return A {@link MatchResult} representing the position and size of the matching area in the
+   *     base image.
+   */
+  public static MatchResult match(
+      String templateImg, Mat baseImg, double threshold, MatchMode mode) {
 
     // Update bot's semantic state
     StateManager.setState(BotState.SEARCHING);
 
-    Mat template = null;
-    Mat base = null;
-    Mat convolution = null;
-    Mat alpha = null;
-    Mat mask = null;
+    PreparedTemplate template;
+    try {
+      template = TemplateCache.get(templateImg);
+    } catch (IOException e) {
+      return new MatchResult(null, Double.MAX_VALUE, false, "Template image is empty");
+    }
+    return match(template, baseImg, threshold, mode);
+  }
+
+  /**
+   * Internal function to match an already prepared template using the given search strategy. See
+   * {@link #match(String, Mat, double, MatchMode)}.
+   *
+   * @param template The template and its alpha mask
+   * @param baseImg The base image (larger) where the template is searched, in BGR or BGRA format.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param mode How to search the base image.
+   * @return A {@link MatchResult} representing the position and size of the matching area in the
+   *     base image.
+   */
+  static MatchResult match(
+      PreparedTemplate template, Mat baseImg, double threshold, MatchMode mode) {
+    publishTemplate(template);
+
+    if (baseImg == null || baseImg.empty()) {
+      return new MatchResult(null, Double.MAX_VALUE, false, "Base image is empty");
+    }
 
+    Mat base = toBgra(baseImg);
     try {
-      // Read template image from disk and load it as a Mat
-      try {
-        template = loadMatFromResource(templateImg);
-      } catch (IOException e) {
-        return new MatchResult(null, Double.MAX_VALUE, false, "Template image is empty");
+      return switch (mode) {
+        case EXACT -> matchPrepared(template, base, threshold);
+        case PYRAMID -> matchPyramid(template, base, threshold);
+        case COLOUR_GUIDED -> matchColourGuided(template, base, threshold);
+      };
+    } finally {
+      // Only release the temporary, the base belongs to the caller
+      if (base != baseImg) {
+        base.release();
       }
+    }
+  }
 
-      // Prepare a mat in RGB to send to the viewport
-      Mat view = new Mat();
-      // Use the template as source and view as destination.
-      // This handles data copying/conversion safely without modifying template.
-      if (template.channels() == 4) {
-        cvtColor(template, view, COLOR_BGRA2RGB);
-      } else {
-        cvtColor(template, view, COLOR_BGR2RGB);
-      }
-      ViewportManager.getInstance().updateState(view);
-      // Release the view Mat immediately as ViewportManager handles the data.
-      view.release();
+  /**
+   * Performs template matching, searching a small window around a likely location first. See
+   * {@link #matchHinted(String, Mat, double, SearchHint)}.
+   *
+   * @param templateImg The template image (smaller), as a resource path.
+   * @param baseImg The base image (larger) where the template is searched, as a {@link
+   *     BufferedImage}.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param hint Where the template is likely to be.
+   * @return A {@link HintedMatchResult} of the match and whether the hint was right.
+   */
+  public static HintedMatchResult matchHinted(
+      String templateImg, BufferedImage baseImg, double threshold, SearchHint hint) {
+    try (Mat base = Java2DFrameUtils.toMat(baseImg)) {
+      return matchHinted(templateImg, base, threshold, hint);
+    }
+  }
 
-      if (template.empty()) {
-        return new MatchResult(null, Double.MAX_VALUE, false, "Template image is empty");
-      }
+  /**
+   * Performs template matching, searching a small window around a likely location first. Only if
+   * nothing within the window meets the threshold is the whole base searched, so repeated checks
+   * of something that rarely moves cost little more than matching the template once.
+   *
+   * <p>Every successful hinted match is remembered per template and base size, for later use with
+   * {@link SearchHint#remembered(int)}. Without a remembered location the whole base is searched.
+   *
+   * <p>The base image is only read, never modified or released; ownership stays with the caller.
+   *
+   * @param templateImg The template image (smaller), as a resource path.
+   * @param baseImg The base image (larger) where the template is searched, in BGR or BGRA format.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param hint Where the template is likely to be.
+   * @return A {@link HintedMatchResult} of the match and whether the hint was right.
+   */
+  public static HintedMatchResult matchHinted(
+      String templateImg, Mat baseImg, double threshold, SearchHint hint) {
+
+    // Update bot's semantic state
+    StateManager.setState(BotState.SEARCHING);
+
+    PreparedTemplate prepared;
+    try {
+      prepared = TemplateCache.get(templateImg);
+    } catch (IOException e) {
+      MatchResult empty = new MatchResult(null, Double.MAX_VALUE, false, "Template image is empty");
+      return new HintedMatchResult(empty, false);
+    }
+    return matchHinted(prepared, baseImg, threshold, hint);
+  }
+
+  /**
+   * Internal function to match an already prepared template around a likely location. See {@link
+   * #matchHinted(String, Mat, double, SearchHint)}.
+   *
+   * @param prepared The template and its alpha mask
+   * @param baseImg The base image (larger) where the template is searched, in BGR or BGRA format.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param hint Where the template is likely to be.
+   * @return A {@link HintedMatchResult} of the match and whether the hint was right.
+   */
+  static HintedMatchResult matchHinted(
+      PreparedTemplate prepared, Mat baseImg, double threshold, SearchHint hint) {
+    publishTemplate(prepared);
 
-      base = Java2DFrameUtils.toMat(baseImg);
+    if (baseImg == null || baseImg.empty()) {
+      MatchResult empty = new MatchResult(null, Double.MAX_VALUE, false, "Base image is empty");
+      return new HintedMatchResult(empty, false);
+    }
 
-      if (base.empty()) {
-        return new MatchResult(null, Double.MAX_VALUE, false, "Base image is empty");
+    LocationKey key = new LocationKey(prepared.resourcePath(), baseImg.cols(), baseImg.rows());
+    Rectangle area = hint.area();
+    if (area == null) {
+      synchronized (lastLocations) {
+        area = lastLocations.get(key);
       }
+    }
 
-      if (template.channels() != 4) {
-        cvtColor(template, template, COLOR_BGR2BGRA);
+    Mat base = toBgra(baseImg);
+    try {
+      if (area != null) {
+        Candidate local =
+            refine(
+                prepared,
+                base,
+                area.x + prepared.offsetX(),
+                area.y + prepared.offsetY(),
+                hint.radius());
+        if (local != null && local.score() <= threshold) {
+          return new HintedMatchResult(remember(key, toResult(local, prepared, threshold)), true);
+        }
+      }
+      MatchResult result = remember(key, matchPrepared(prepared, base, threshold));
+      return new HintedMatchResult(result, false);
+    } finally {
+      if (base != baseImg) {
+        base.release();
       }
+    }
+  }
 
-      if (base.channels() != 4) {
-        cvtColor(base, base, COLOR_BGR2BGRA);
+  /**
+   * Internal helper to remember where a template was found for {@link SearchHint#remembered(int)}.
+   *
+   * @param key The template and base size
+   * @param result The result of matching the template
+   * @return The result, unchanged
+   */
+  private static MatchResult remember(LocationKey key, MatchResult result) {
+    if (result.success()) {
+      synchronized (lastLocations) {
+        lastLocations.put(key, new Rectangle(result.bounds()));
       }
+    }
+    return result;
+  }
 
-      if (template.cols() > base.cols() || template.rows() > base.rows()) {
-        return new MatchResult(null, Double.MAX_VALUE, false, "Template is larger than base image");
+  /**
+   * Matches several templates against the same base image, such as the frames of an animation or
+   * the states of a sprite. The base is converted once and shared by every match, rather than once
+   * per template as with repeated {@link #match} calls.
+   *
+   * @param templateImgs The template images, as resource paths.
+   * @param baseImg The base image where the templates are searched, as a {@link BufferedImage}.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param parallel Whether to match the templates concurrently on the common fork-join pool.
+   *     Worthwhile for large bases or many templates.
+   * @return A {@link BatchMatchResult} with a result per template and the overall best.
+   */
+  public static BatchMatchResult matchBatch(
+      List<String> templateImgs, BufferedImage baseImg, double threshold, boolean parallel) {
+    try (Mat base = Java2DFrameUtils.toMat(baseImg)) {
+      return matchBatch(templateImgs, base, threshold, parallel);
+    }
+  }
+
+  /**
+   * Matches several templates against the same native base image. See {@link
+   * #matchBatch(List, BufferedImage, double, boolean)}.
+   *
+   * <p>The base image is only read, never modified or released; ownership stays with the caller.
+   *
+   * @param templateImgs The template images, as resource paths.
+   * @param baseImg The base image where the templates are searched, in BGR or BGRA format.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param parallel Whether to match the templates concurrently on the common fork-join pool.
+   * @return A {@link BatchMatchResult} with a result per template and the overall best.
+   */
+  public static BatchMatchResult matchBatch(
+      List<String> templateImgs, Mat baseImg, double threshold, boolean parallel) {
+
+    // Update bot's semantic state
+    StateManager.setState(BotState.SEARCHING);
+
+    if (templateImgs.isEmpty()) {
+      MatchResult none = new MatchResult(null, Double.MAX_VALUE, false, "No templates given");
+      return new BatchMatchResult(List.of(), none);
+    }
+    if (baseImg == null || baseImg.empty()) {
+      MatchResult empty = new MatchResult(null, Double.MAX_VALUE, false, "Base image is empty");
+      List<MatchResult> results = templateImgs.stream().map(t -> empty).toList();
+      return new BatchMatchResult(results, empty);
+    }
+
+    Mat base = toBgra(baseImg);
+    try {
+      Stream<String> templates = parallel ? templateImgs.parallelStream() : templateImgs.stream();
+      List<MatchResult> results =
+          templates.map(templateImg -> matchCached(templateImg, base, threshold)).toList();
+      MatchResult best =
+          results.stream().min(Comparator.comparingDouble(MatchResult::score)).orElseThrow();
+      return new BatchMatchResult(results, best);
+    } finally {
+      if (base != baseImg) {
+        base.release();
       }
+    }
+  }
 
-      int convRows = base.rows() - template.rows() + 1;
-      int convCols = base.cols() - template.cols() + 1;
+  /**
+   * Internal helper to look a template up and match it against a prepared base image.
+   *
+   * @param templateImg The template image, as a resource path
+   * @param base The 4 channel base image
+   * @param threshold The maximum allowed normalized squared difference score for a valid match
+   * @return A {@link MatchResult} of the best match
+   */
+  private static MatchResult matchCached(String templateImg, Mat base, double threshold) {
+    PreparedTemplate prepared;
+    try {
+      prepared = TemplateCache.get(templateImg);
+    } catch (IOException e) {
+      return new MatchResult(null, Double.MAX_VALUE, false, "Template image is empty");
+    }
+    return matchPrepared(prepared, base, threshold);
+  }
 
-      alpha = new Mat();
-      extractChannel(template, alpha, 3);
+  /**
+   * Finds every occurrence of a template within a base image in a single correlation pass. All
+   * local minima of the correlation that meet the threshold are collected, then non-maximum
+   * suppression keeps only the best of any group of overlapping matches. Use this instead of
+   * matching cropped regions one by one, e.g. to find every copy of an item in the inventory.
+   *
+   * @param templateImg The template image (smaller), as a resource path.
+   * @param baseImg The base image (larger) where the template is searched, as a {@link
+   *     BufferedImage}.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param maxResults The maximum number of matches to return.
+   * @return The successful {@link MatchResult}s, best first. Empty if nothing meets the threshold.
+   */
+  public static List<MatchResult> matchAll(
+      String templateImg, BufferedImage baseImg, double threshold, int maxResults) {
+    try (Mat base = Java2DFrameUtils.toMat(baseImg)) {
+      return matchAll(templateImg, base, threshold, maxResults);
+    }
+  }
 
-      convolution = new Mat(convRows, convCols);
+  /**
+   * Finds every occurrence of a template within a native base image in a single correlation pass.
+   * See {@link #matchAll(String, BufferedImage, double, int)}.
+   *
+   * <p>The base image is only read, never modified or released; ownership stays with the caller.
+   *
+   * @param templateImg The template image (smaller), as a resource path.
+   * @param baseImg The base image (larger) where the template is searched, in BGR or BGRA format.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param maxResults The maximum number of matches to return.
+   * @return The successful {@link MatchResult}s, best first. Empty if nothing meets the threshold.
+   */
+  public static List<MatchResult> matchAll(
+      String templateImg, Mat baseImg, double threshold, int maxResults) {
 
-      matchTemplate(base, template, convolution, TM_SQDIFF_NORMED, alpha);
+    // Update bot's semantic state
+    StateManager.setState(BotState.SEARCHING);
 
-      if (convolution.empty()) {
-        return new MatchResult(null, Double.MAX_VALUE, false, "Convolution matrix is empty");
+    PreparedTemplate prepared;
+    try {
+      prepared = TemplateCache.get(templateImg);
+    } catch (IOException e) {
+      return List.of();
+    }
+
+    publishTemplate(prepared);
+
+    if (maxResults <= 0 || baseImg == null || baseImg.empty()) {
+      return List.of();
+    }
+    Rectangle area = prepared.searchArea(baseImg.cols(), baseImg.rows());
+    if (area == null) {
+      return List.of();
+    }
+
+    Mat base = toBgra(baseImg);
+    List<Candidate> candidates;
+    try (Rect rect = new Rect(area.x, area.y, area.width, area.height);
+        Mat roi = new Mat(base, rect);
+        Mat template = prepared.image();
+        Mat alpha = prepared.mask();
+        Mat convolution = new Mat()) {
+      matchTemplate(roi, template, convolution, TM_SQDIFF_NORMED, alpha);
+      candidates = localMinima(convolution, area.x, area.y, threshold);
+    } finally {
+      if (base != baseImg) {
+        base.release();
       }
+    }
 
-      DoublePointer minVal = new DoublePointer(1);
-      DoublePointer maxVal = new DoublePointer(1);
-      Point minLoc = new Point();
-      Point maxLoc = new Point();
+    candidates.sort(Comparator.comparingDouble(Candidate::score));
+    List<MatchResult> results = new ArrayList<>();
+    for (Candidate candidate : candidates) {
+      Rectangle bounds = prepared.placement(candidate.x(), candidate.y());
+      if (overlapsAny(bounds, results)) {
+        continue;
+      }
+      results.add(new MatchResult(bounds, candidate.score(), true, "Match found"));
+      StatisticsManager.incrementObjectsDetected();
+      if (results.size() == maxResults) {
+        break;
+      }
+    }
+    return results;
+  }
 
-      mask = new Mat();
-      minMaxLoc(convolution, minVal, maxVal, minLoc, maxLoc, mask);
+  /**
+   * Internal helper to collect every local minimum of a correlation map that meets the threshold.
+   * A location is a local minimum when no neighbour in the surrounding 3x3 block scores strictly
+   * better.
+   *
+   * @param convolution The continuous single channel float correlation map
+   * @param originX The base x co-ordinate the map's first column was correlated at
+   * @param originY The base y co-ordinate the map's first row was correlated at
+   * @param threshold The maximum score to keep
+   * @return The minima in base co-ordinates, in no particular order
+   */
+  private static List<Candidate> localMinima(
+      Mat convolution, int originX, int originY, double threshold) {
+    List<Candidate> minima = new ArrayList<>();
+    int cols = convolution.cols();
+    int rows = convolution.rows();
+    FloatBuffer scores = convolution.createBuffer();
+    for (int y = 0; y < rows; y++) {
+      for (int x = 0; x < cols; x++) {
+        float score = scores.get(y * cols + x);
+        // Also rejects NaN, which masked matching produces on flat regions
+        if (!(score <= threshold)) {
+          continue;
+        }
+        if (isLocalMinimum(scores, cols, rows, x, y, score)) {
+          minima.add(new Candidate(originX + x, originY + y, score));
+        }
+      }
+    }
+    return minima;
+  }
 
-      if (minVal.get() > threshold) {
-        return new MatchResult(null, minVal.get(), false, "MinVal greater than threshold");
+  /**
+   * Internal helper to check a correlation score against its 3x3 neighbourhood.
+   *
+   * @param scores The correlation map
+   * @param cols The width of the map
+   * @param rows The height of the map
+   * @param x The column of the score
+   * @param y The row of the score
+   * @param score The score at that location
+   * @return {@code true} if no neighbour is strictly lower
+   */
+  private static boolean isLocalMinimum(
+      FloatBuffer scores, int cols, int rows, int x, int y, float score) {
+    for (int ny = Math.max(0, y - 1); ny <= Math.min(rows - 1, y + 1); ny++) {
+      for (int nx = Math.max(0, x - 1); nx <= Math.min(cols - 1, x + 1); nx++) {
+        if (scores.get(ny * cols + nx) < score) {
+          return false;
+        }
       }
+    }
+    return true;
+  }
 
-      Rectangle match = new Rectangle(minLoc.x(), minLoc.y(), template.cols(), template.rows());
+  /**
+   * Internal helper for non-maximum suppression.
+   *
+   * @param bounds The bounds of a candidate match
+   * @param accepted The matches already kept, all scoring at least as well
+   * @return {@code true} if the candidate overlaps an accepted match too much to be kept
+   */
+  private static boolean overlapsAny(Rectangle bounds, List<MatchResult> accepted) {
+    double area = (double) bounds.width * bounds.height;
+    for (MatchResult match : accepted) {
+      Rectangle overlap = bounds.intersection(match.bounds());
+      if (overlap.isEmpty()) {
+        continue;
+      }
+      double intersection = (double) overlap.width * overlap.height;
+      double union = area + (double) match.bounds().width * match.bounds().height - intersection;
+      if (intersection / union > NMS_OVERLAP) {
+        return true;
+      }
+    }
+    return false;
+  }
 
-      // Update singleton state manager to update stats in UI
-      StatisticsManager.incrementObjectsDetected();
+  /**
+   * Internal function to match a prepared template against a BGRA base image at full resolution.
+   *
+   * @param prepared The template and its alpha mask
+   * @param base The 4 channel base image
+   * @param threshold The maximum allowed normalized squared difference score for a valid match
+   * @return A {@link MatchResult} of the best match
+   */
+  private static MatchResult matchPrepared(PreparedTemplate prepared, Mat base, double threshold) {
+    Rectangle area = prepared.searchArea(base.cols(), base.rows());
+    if (area == null) {
+      return new MatchResult(null, Double.MAX_VALUE, false, "Template is larger than base image");
+    }
+    Candidate best = matchWindow(prepared, base, area);
+    if (best == null) {
+      return new MatchResult(null, Double.MAX_VALUE, false, "Convolution matrix is empty");
+    }
+    return toResult(best, prepared, threshold);
+  }
 
-      return new MatchResult(match, minVal.get(), true, "Match found");
-    } finally {
+  /**
+   * Internal function to match in {@link MatchMode#PYRAMID} mode. The template and base are
+   * shrunk by 4 or 2, whichever keeps the template at least {@value #PYRAMID_MIN_SIDE} pixels on
+   * its shortest side, and correlated. The best few coarse candidates are then refined in windows
+   * a couple of coarse pixels larger than the template at full resolution.
+   *
+   * @param prepared The template and its alpha mask
+   * @param base The 4 channel base image
+   * @param threshold The maximum allowed normalized squared difference score for a valid match
+   * @return A {@link MatchResult} of the best refined match
+   */
+  private static MatchResult matchPyramid(PreparedTemplate prepared, Mat base, double threshold) {
+    int side = Math.min(prepared.width(), prepared.height());
+    int factor = side >= 4 * PYRAMID_MIN_SIDE ? 4 : side >= 2 * PYRAMID_MIN_SIDE ? 2 : 1;
+    if (factor == 1 || prepared.searchArea(base.cols(), base.rows()) == null) {
+      return matchPrepared(prepared, base, threshold);
+    }
 
-      // Release native memory
-      if (template != null && !template.isNull()) {
-        template.release();
+    PreparedTemplate coarse = prepared.downscaled(factor);
+    Candidate best = null;
+    try (Mat smallBase = new Mat();
+        Size smallSize = new Size(base.cols() / factor, base.rows() / factor);
+        Mat template = coarse.image();
+        Mat alpha = coarse.mask();
+        Mat convolution = new Mat();
+        DoublePointer minVal = new DoublePointer(1);
+        DoublePointer maxVal = new DoublePointer(1);
+        Point minLoc = new Point();
+        Point maxLoc = new Point()) {
+
+      resize(base, smallBase, smallSize, 0, 0, INTER_AREA);
+      if (coarse.width() > smallBase.cols() || coarse.height() > smallBase.rows()) {
+        return matchPrepared(prepared, base, threshold);
       }
-      if (base != null && !base.isNull()) {
-        base.release();
+      matchTemplate(smallBase, template, convolution, TM_SQDIFF_NORMED, alpha);
+
+      int margin = 2 * factor;
+      for (int i = 0; i < PYRAMID_CANDIDATES && !convolution.empty(); i++) {
+        minMaxLoc(convolution, minVal, maxVal, minLoc, maxLoc, null);
+        if (minVal.get() >= Float.MAX_VALUE) {
+          break;
+        }
+        Candidate refined =
+            refine(prepared, base, minLoc.x() * factor, minLoc.y() * factor, margin);
+        if (refined != null && (best == null || refined.score() < best.score())) {
+          best = refined;
+        }
+        // Suppress the neighbourhood so the next candidate is a different location
+        try (Rect seen =
+            new Rect(
+                minLoc.x() - coarse.width() / 2,
+                minLoc.y() - coarse.height() / 2,
+                coarse.width(),
+                coarse.height())) {
+          rectangle(convolution, seen, WORST_SCORE, FILLED, LINE_8, 0);
+        }
+      }
+    }
+
+    if (best == null) {
+      return new MatchResult(null, Double.MAX_VALUE, false, "Convolution matrix is empty");
+    }
+    return toResult(best, prepared, threshold);
+  }
+
+  /**
+   * Internal function to match in {@link MatchMode#COLOUR_GUIDED} mode. The base is thresholded
+   * against the template's dominant colour and every sufficiently large region of that colour is
+   * grown by the template's size, covering every placement of the template that touches it.
+   * Overlapping windows are merged and the template is correlated within each window only.
+   *
+   * @param prepared The template and its alpha mask
+   * @param base The 4 channel base image
+   * @param threshold The maximum allowed normalized squared difference score for a valid match
+   * @return A {@link MatchResult} of the best match across all windows
+   */
+  private static MatchResult matchColourGuided(
+      PreparedTemplate prepared, Mat base, double threshold) {
+    ColourSignature signature = prepared.colourSignature();
+    Rectangle area = prepared.searchArea(base.cols(), base.rows());
+    if (signature == null || area == null) {
+      return matchPrepared(prepared, base, threshold);
+    }
+    List<Rectangle> windows = colourWindows(prepared, signature, base, area);
+    if (windows == null) {
+      // The colour is everywhere, pruning would cost more than it saves
+      return matchPrepared(prepared, base, threshold);
+    }
+
+    Candidate best = null;
+    for (Rectangle window : windows) {
+      Candidate candidate = matchWindow(prepared, base, window);
+      if (candidate != null && (best == null || candidate.score() < best.score())) {
+        best = candidate;
       }
-      if (convolution != null && !convolution.isNull()) {
-        convolution.release();
+    }
+    if (best == null) {
+      return new MatchResult(null, Double.MAX_VALUE, false, "No regions of the template colour");
+    }
+    return toResult(best, prepared, threshold);
+  }
+
+  /**
+   * Internal helper to find the windows of the base worth correlating in {@link
+   * MatchMode#COLOUR_GUIDED} mode.
+   *
+   * @param prepared The template being searched for
+   * @param signature The template's dominant colour
+   * @param base The 4 channel base image
+   * @param area The template's search area within the base
+   * @return Disjoint windows in base co-ordinates, or {@code null} if they would cover too much of
+   *     the base to be worth searching separately
+   */
+  private static List<Rectangle> colourWindows(
+      PreparedTemplate prepared, ColourSignature signature, Mat base, Rectangle area) {
+    Rectangle frame = new Rectangle(0, 0, base.cols(), base.rows());
+    int minArea = Math.max(1, (int) (signature.pixels() * COLOUR_MIN_FILL));
+    List<Rectangle> windows = new ArrayList<>();
+    try (Mat hits = new Mat();
+        Mat labels = new Mat();
+        Mat stats = new Mat();
+        Mat centroids = new Mat()) {
+      inRange(base, signature.lower(), signature.upper(), hits);
+      int count = connectedComponentsWithStats(hits, labels, stats, centroids);
+      IntRawIndexer indexer = stats.createIndexer();
+      // Label 0 is the background
+      for (int label = 1; label < count; label++) {
+        if (indexer.get(label, CC_STAT_AREA) < minArea) {
+          continue;
+        }
+        Rectangle window =
+            new Rectangle(
+                indexer.get(label, CC_STAT_LEFT),
+                indexer.get(label, CC_STAT_TOP),
+                indexer.get(label, CC_STAT_WIDTH),
+                indexer.get(label, CC_STAT_HEIGHT));
+        window.grow(prepared.width(), prepared.height());
+        addWindow(windows, window.intersection(area));
       }
-      if (alpha != null && !alpha.isNull()) {
-        alpha.release();
+      indexer.release();
+    }
+
+    double covered = 0;
+    for (Rectangle window : windows) {
+      covered += (double) window.width * window.height;
+    }
+    return covered > COLOUR_MAX_COVERAGE * frame.width * frame.height ? null : windows;
+  }
+
+  /**
+   * Internal helper to add a window to a set of disjoint windows, merging it with any it overlaps
+   * so that no location is correlated twice.
+   *
+   * @param windows The disjoint windows so far
+   * @param window The window to add
+   */
+  private static void addWindow(List<Rectangle> windows, Rectangle window) {
+    boolean merged;
+    do {
+      merged = false;
+      Iterator<Rectangle> it = windows.iterator();
+      while (it.hasNext()) {
+        Rectangle other = it.next();
+        if (other.intersects(window)) {
+          window = window.union(other);
+          it.remove();
+          merged = true;
+        }
       }
-      if (mask != null && !mask.isNull()) {
-        mask.release();
+      // The grown window may now reach windows it was already checked against
+    } while (merged);
+    windows.add(window);
+  }
+
+  /**
+   * Internal helper to match a template at full resolution around an estimated location.
+   *
+   * @param prepared The template and its alpha mask
+   * @param base The 4 channel base image
+   * @param x The estimated x co-ordinate of the match in the base
+   * @param y The estimated y co-ordinate of the match in the base
+   * @param margin How far around the estimate to search, in pixels
+   * @return The best match within the window in base co-ordinates, or {@code null} if the window
+   *     does not fit the template
+   */
+  private static Candidate refine(PreparedTemplate prepared, Mat base, int x, int y, int margin) {
+    Rectangle area = prepared.searchArea(base.cols(), base.rows());
+    if (area == null) {
+      return null;
+    }
+    Rectangle window =
+        new Rectangle(
+            x - margin, y - margin, prepared.width() + 2 * margin, prepared.height() + 2 * margin);
+    return matchWindow(prepared, base, window.intersection(area));
+  }
+
+  /**
+   * Internal helper to match a template at full resolution within a window of the base image.
+   *
+   * @param prepared The template and its alpha mask
+   * @param base The 4 channel base image
+   * @param window The area to search, within the template's search area
+   * @return The best match within the window in base co-ordinates, or {@code null} if the window
+   *     does not fit the template
+   */
+  private static Candidate matchWindow(PreparedTemplate prepared, Mat base, Rectangle window) {
+    if (window.width < prepared.width() || window.height < prepared.height()) {
+      return null;
+    }
+    try (Rect rect = new Rect(window.x, window.y, window.width, window.height);
+        Mat roi = new Mat(base, rect)) {
+      Candidate local = bestMatch(prepared, roi);
+      return local == null
+          ? null
+          : new Candidate(window.x + local.x(), window.y + local.y(), local.score());
+    }
+  }
+
+  /**
+   * Internal helper to correlate a template over a whole image and take the best location.
+   *
+   * @param prepared The template and its alpha mask
+   * @param base The 4 channel image to search, at least as large as the template
+   * @return The best match, or {@code null} if the correlation produced nothing
+   */
+  private static Candidate bestMatch(PreparedTemplate prepared, Mat base) {
+    try (Mat template = prepared.image();
+        Mat alpha = prepared.mask();
+        Mat convolution = new Mat();
+        DoublePointer minVal = new DoublePointer(1);
+        DoublePointer maxVal = new DoublePointer(1);
+        Point minLoc = new Point();
+        Point maxLoc = new Point()) {
+
+      matchTemplate(base, template, convolution, TM_SQDIFF_NORMED, alpha);
+
+      if (convolution.empty()) {
+        return null;
       }
+
+      minMaxLoc(convolution, minVal, maxVal, minLoc, maxLoc, null);
+      return new Candidate(minLoc.x(), minLoc.y(), minVal.get());
     }
   }
 
   /**
-   * Loads an image as a Mat from a resource path, preserving alpha channel.
+   * Internal helper to turn the best candidate into a {@link MatchResult}, applying the threshold.
    *
-   * @param resourcePath path to image resource, e.g. "/images/user/myTemplate.png" (first "/" is
-   *     necessary)
-   * @return Mat with image data including alpha
-   * @throws IOException if resource not found or temp file write fails
+   * @param best The best candidate found
+   * @param prepared The template that was matched
+   * @param threshold The maximum allowed normalized squared difference score for a valid match
+   * @return The {@link MatchResult}
    */
-  public static Mat loadMatFromResource(String resourcePath) throws IOException {
-    // Get resource as stream from classpath
-    InputStream is = TemplateMatching.class.getResourceAsStream(resourcePath);
-    if (is == null) {
-      throw new IllegalArgumentException("Resource not found: " + resourcePath);
+  private static MatchResult toResult(Candidate best, PreparedTemplate prepared, double threshold) {
+    if (best.score() > threshold) {
+      return new MatchResult(null, best.score(), false, "MinVal greater than threshold");
     }
 
-    // Create a temp file to write the resource contents (OpenCV imread needs a file
-    // path)
-    Path tempFile = Files.createTempFile("opencv-temp-", ".png");
-    tempFile.toFile().deleteOnExit();
+    Rectangle match = prepared.placement(best.x(), best.y());
 
-    // Copy resource stream to temp file
-    Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
+    // Update singleton state manager to update stats in UI
+    StatisticsManager.incrementObjectsDetected();
 
-    // Load with imread and IMREAD_UNCHANGED to keep alpha
-    Mat mat = opencv_imgcodecs.imread(tempFile.toString(), opencv_imgcodecs.IMREAD_UNCHANGED);
+    return new MatchResult(match, best.score(), true, "Match found");
+  }
 
-    if (mat.empty()) {
-      throw new IllegalStateException("Failed to load Mat from resource: " + resourcePath);
+  /**
+   * Internal helper to send a template to the viewport in RGB. The conversion only runs when the
+   * viewport will actually show the frame.
+   *
+   * @param prepared The template being searched for
+   */
+  private static void publishTemplate(PreparedTemplate prepared) {
+    ViewportManager.publish(
+        () -> {
+          Mat view = new Mat();
+          try (Mat template = prepared.image()) {
+            cvtColor(template, view, COLOR_BGRA2RGB);
+          }
+          return view;
+        });
+  }
+
+  /**
+   * Internal helper to bring a base image into BGRA. Converts into a temporary rather than in
+   * place, as the base belongs to the caller.
+   *
+   * @param baseImg The base image in BGR or BGRA
+   * @return The base itself if it already has 4 channels, otherwise a new BGRA {@link Mat}
+   */
+  private static Mat toBgra(Mat baseImg) {
+    if (baseImg.channels() == 4) {
+      return baseImg;
     }
+    Mat base = new Mat();
+    cvtColor(baseImg, base, COLOR_BGR2BGRA);
+    return base;
+  }
 
-    return mat;
+  /**
+   * Loads an image as a Mat from a resource path, preserving alpha channel. The image is decoded
+   * straight from the resource bytes. Prefer {@link TemplateCache#get(String)} for templates that
+   * are matched repeatedly.
+   *
+   * @param resourcePath path to image resource, e.g. "/images/user/myTemplate.png" (first "/" is
+   *     necessary)
+   * @return Mat with image data including alpha, owned by the caller
+   * @throws IOException if the resource cannot be read
+   */
+  public static Mat loadMatFromResource(String resourcePath) throws IOException {
+    return TemplateCache.decode(resourcePath);
   }
 }
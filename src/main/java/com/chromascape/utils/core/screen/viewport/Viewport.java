@@ -16,4 +16,14 @@ public interface Viewport {
    * @param image The matrix (image) to be displayed in the viewport.
    */
   void updateState(Mat image);
+
+  /**
+   * Checks whether anyone is currently watching the viewport. Publishers skip preparing frames
+   * entirely while this is {@code false}.
+   *
+   * @return {@code true} if updates would be shown to an observer
+   */
+  default boolean isActive() {
+    return true;
+  }
 }
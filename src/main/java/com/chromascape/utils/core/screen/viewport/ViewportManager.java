@@ -1,5 +1,7 @@
 package com.chromascape.utils.core.screen.viewport;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import org.bytedeco.opencv.opencv_core.Mat;
 
 /**
@@ -7,11 +9,24 @@ import org.bytedeco.opencv.opencv_core.Mat;
  *
  * <p>This class ensures that core utilities can send visual data without knowing the specific
  * implementation details (e.g. whether it's running headless or via websockets).
+ *
+ * <p>Detection code should publish through {@link #publish(Supplier)}, which only prepares a frame
+ * when the viewport is being watched and the frame rate limit allows it, so debug visualisation
+ * costs nothing in unattended runs.
  */
 public class ViewportManager {
 
   /** The current active viewport instance. Defaults to a no-op implementation. */
-  private static Viewport instance = new NoOpViewport();
+  private static volatile Viewport instance = new NoOpViewport();
+
+  private static final int DEFAULT_MAX_FPS = 10;
+
+  /** Minimum time between published frames. */
+  private static volatile long minIntervalNanos = 1_000_000_000L / DEFAULT_MAX_FPS;
+
+  /** When the last frame was published, so the first frame is never held back. */
+  private static final AtomicLong lastPublishNanos =
+      new AtomicLong(System.nanoTime() - 1_000_000_000L);
 
   /** Private constructor to prevent instantiation. */
   private ViewportManager() {}
@@ -37,6 +52,44 @@ public class ViewportManager {
     instance = viewport;
   }
 
+  /**
+   * Publishes a frame to the viewport if anyone is watching and the frame rate limit allows it.
+   * The frame is only produced when it will actually be sent, so expensive conversions belong in
+   * the supplier. The supplied Mat is released once the viewport has taken it.
+   *
+   * @param frame Produces the image to display, owned by this method once returned
+   */
+  public static void publish(Supplier<Mat> frame) {
+    Viewport viewport = instance;
+    if (!viewport.isActive()) {
+      return;
+    }
+    long now = System.nanoTime();
+    long last = lastPublishNanos.get();
+    // Losing the race means another thread is publishing this slot
+    if (now - last < minIntervalNanos || !lastPublishNanos.compareAndSet(last, now)) {
+      return;
+    }
+    Mat image = frame.get();
+    try {
+      viewport.updateState(image);
+    } finally {
+      image.release();
+    }
+  }
+
+  /**
+   * Sets the maximum number of frames per second sent through {@link #publish(Supplier)}.
+   *
+   * @param fps The frame rate limit
+   */
+  public static void setMaxFps(int fps) {
+    if (fps <= 0) {
+      throw new IllegalArgumentException("Viewport frame rate must be positive: " + fps);
+    }
+    minIntervalNanos = 1_000_000_000L / fps;
+  }
+
   /**
    * A default no-operation implementation of the Viewport interface.
    *
@@ -54,5 +107,15 @@ public class ViewportManager {
     public void updateState(Mat image) {
       // Do nothing
     }
+
+    /**
+     * Nobody can watch a no-op viewport.
+     *
+     * @return Always {@code false}
+     */
+    @Override
+    public boolean isActive() {
+      return false;
+    }
   }
 }
@@ -0,0 +1,25 @@
+package com.chromascape.utils.core.screen.window;
+
+/**
+ * Defines how {@link ScreenManager} exposes the client's frame buffer as a native OpenCV {@link
+ * org.bytedeco.opencv.opencv_core.Mat}.
+ *
+ * <p>Both modes avoid copying the frame onto the Java heap. They differ in whether the pixels
+ * handed to the caller belong to the caller or are shared with the client.
+ */
+public enum CaptureMode {
+
+  /**
+   * Copies the frame once, natively, into a {@link FrameSnapshot} shared by every capture within
+   * the frame budget. The pixels will not change after capture, so the result is safe to keep and
+   * to share across threads, but it must not be written to. This is the default.
+   */
+  SNAPSHOT,
+
+  /**
+   * Wraps RemoteInput's image buffer directly as a BGRA Mat header without copying a single pixel.
+   * The client keeps drawing into this buffer, so the contents may change while they are being
+   * read. Intended for short, read-only work such as a single template match or colour threshold.
+   */
+  VIEW
+}
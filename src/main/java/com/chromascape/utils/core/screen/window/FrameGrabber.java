@@ -0,0 +1,185 @@
+package com.chromascape.utils.core.screen.window;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Background producer that copies frames from the client into a pre-allocated ring of three
+ * {@link FrameSnapshot} slots at a fixed rate. At any moment one slot holds the latest published
+ * frame, one may still be read by consumers of the previous frame, and the third is free to be
+ * written, so the producer never waits on a reader and readers never wait on the producer.
+ *
+ * <p>Consumers obtain the latest complete frame with {@link #acquireLatest()}, which is lock-free.
+ * If readers are still holding every slot other than the latest, the new frame is dropped rather
+ * than blocking.
+ */
+final class FrameGrabber {
+
+  private static final Logger logger = LogManager.getLogger(FrameGrabber.class);
+
+  /** Latest, being read and being written. */
+  private static final int RING_SIZE = 3;
+
+  private final FrameSnapshot[] ring = new FrameSnapshot[RING_SIZE];
+
+  private final AtomicReference<FrameSnapshot> latest = new AtomicReference<>();
+
+  private final AtomicLong droppedFrames = new AtomicLong();
+
+  /** Supplies a header over the live frame, or {@code null} if the client has no visible area. */
+  private final Supplier<Mat> source;
+
+  /** Supplies the generation number of each published frame. */
+  private final LongSupplier generations;
+
+  private final long periodNanos;
+
+  private final Thread thread;
+
+  private volatile boolean running = true;
+
+  /**
+   * Creates and starts a frame grabber.
+   *
+   * @param source Supplies a header over the live frame, which the grabber releases after copying
+   * @param generations Supplies the generation number of each published frame
+   * @param fps The number of frames to capture per second
+   */
+  FrameGrabber(Supplier<Mat> source, LongSupplier generations, int fps) {
+    if (fps <= 0) {
+      throw new IllegalArgumentException("Capture rate must be positive: " + fps);
+    }
+    this.source = source;
+    this.generations = generations;
+    this.periodNanos = 1_000_000_000L / fps;
+    for (int i = 0; i < RING_SIZE; i++) {
+      ring[i] = new FrameSnapshot();
+    }
+    thread = new Thread(this::captureLoop, "ScreenManager-Frame-Grabber");
+    thread.setDaemon(true); // Ensure thread dies when JVM shuts down
+    thread.start();
+  }
+
+  /**
+   * Returns the latest complete frame without locking. The caller must close the returned
+   * snapshot, which frees its slot for reuse once no other reader holds it.
+   *
+   * @return The latest {@link FrameSnapshot}, or {@code null} if no frame has been captured yet
+   */
+  FrameSnapshot acquireLatest() {
+    while (true) {
+      FrameSnapshot frame = latest.get();
+      if (frame == null || frame.tryRetain()) {
+        return frame;
+      }
+      // The slot was recycled between the read and the retain, so a newer frame is published
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Gets the number of frames skipped because every free slot was still being read.
+   *
+   * @return The dropped frame count since this grabber started
+   */
+  long getDroppedFrames() {
+    return droppedFrames.get();
+  }
+
+  /**
+   * Stops the capture thread and waits for it to exit. Slots still held by readers are left to the
+   * garbage collector; free slots are released immediately.
+   */
+  void stop() {
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    FrameSnapshot last = latest.getAndSet(null);
+    if (last != null) {
+      last.close();
+    }
+    for (FrameSnapshot slot : ring) {
+      if (slot.tryClaim()) {
+        slot.pixels().close();
+      }
+    }
+  }
+
+  /** Captures frames at the configured rate until stopped. */
+  private void captureLoop() {
+    long next = System.nanoTime();
+    while (running) {
+      try {
+        captureFrame();
+      } catch (RuntimeException e) {
+        logger.error("Background frame capture failed", e);
+      }
+      next += periodNanos;
+      long wait = next - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      } else {
+        // Fell behind, don't try to catch up with a burst of captures
+        next = System.nanoTime();
+      }
+    }
+  }
+
+  /** Copies one frame into a free slot and publishes it as the latest. */
+  private void captureFrame() {
+    FrameSnapshot slot = claimFreeSlot();
+    if (slot == null) {
+      droppedFrames.incrementAndGet();
+      return;
+    }
+
+    long capturedAt = System.nanoTime();
+    boolean captured = false;
+    try (Mat live = source.get()) {
+      if (live != null) {
+        // Reallocates only when the client has been resized
+        live.copyTo(slot.pixels());
+        captured = true;
+      }
+    } finally {
+      if (!captured) {
+        slot.unclaim();
+      }
+    }
+    if (!captured) {
+      return;
+    }
+
+    slot.publish(generations.getAsLong(), capturedAt);
+    FrameSnapshot previous = latest.getAndSet(slot);
+    if (previous != null) {
+      // Drops the publisher's handle, the slot is free once its readers close it too
+      previous.close();
+    }
+  }
+
+  /**
+   * Internal helper to claim a slot that no reader holds. The latest slot always holds the
+   * publisher's handle, so it is never claimed.
+   *
+   * @return A claimed slot, or {@code null} if every slot is in use
+   */
+  private FrameSnapshot claimFreeSlot() {
+    for (FrameSnapshot slot : ring) {
+      if (slot.tryClaim()) {
+        return slot;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,347 @@
+package com.chromascape.utils.core.screen.window;
+
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+
+/**
+ * A single captured frame of the client, tagged with a monotonically increasing generation number
+ * and the time it was captured. {@link ScreenManager} hands the same snapshot to every capture made
+ * within its freshness budget, so all zones read during one script cycle are cut from one frame.
+ *
+ * <p>Snapshots are reference counted. Every snapshot obtained from {@link ScreenManager#snapshot()}
+ * must be closed, ideally with try-with-resources. Mats returned by {@link #view()} and {@link
+ * #region(Rectangle)} are headers over the snapshot's pixels and stay valid after the snapshot is
+ * closed, but they are shared and must be treated as read-only.
+ *
+ * <p>Snapshots served by the background capture thread are recyclable: once every handle is
+ * closed, the same native buffer is reused for a later frame. Headers cut from a recyclable
+ * snapshot are only stable while the snapshot is open.
+ *
+ * <pre>{@code
+ * try (FrameSnapshot frame = ScreenManager.snapshot()) {
+ *   Mat hp = frame.region(hpZone);
+ *   Mat prayer = frame.region(prayerZone);
+ * }
+ * }</pre>
+ */
+public final class FrameSnapshot implements AutoCloseable {
+
+  /** The full BGRA frame. */
+  private final Mat pixels;
+
+  /** The capture generation, unique and increasing across all snapshots. */
+  private volatile long generation;
+
+  /** {@link System#nanoTime()} at the moment the frame was captured. */
+  private volatile long capturedAtNanos;
+
+  /** Whether the pixels are reused for later frames rather than released. */
+  private final boolean recyclable;
+
+  /**
+   * Number of open handles, including the one held by the publisher. A recyclable snapshot with no
+   * handles is free, and {@code -1} marks it as being written by the capture thread.
+   */
+  private final AtomicInteger references;
+
+  /** Lazily built heap copy of the frame, shared by every BufferedImage capture. */
+  private BufferedImage image;
+
+  /** Lazily computed tile hashes, used to tell which zones changed between frames. */
+  private TileChangeMap tiles;
+
+  /**
+   * Constructs a snapshot over a captured frame. The snapshot takes ownership of the given Mat and
+   * releases it once the last handle is closed.
+   *
+   * @param pixels The full BGRA frame
+   * @param generation The capture generation of this frame
+   * @param capturedAtNanos {@link System#nanoTime()} at capture
+   */
+  FrameSnapshot(Mat pixels, long generation, long capturedAtNanos) {
+    this.pixels = pixels;
+    this.generation = generation;
+    this.capturedAtNanos = capturedAtNanos;
+    this.recyclable = false;
+    this.references = new AtomicInteger(1);
+  }
+
+  /**
+   * Constructs a free, recyclable ring slot. The slot holds no frame until it is claimed, written
+   * and published by the capture thread.
+   */
+  FrameSnapshot() {
+    this.pixels = new Mat();
+    this.recyclable = true;
+    this.references = new AtomicInteger(0);
+  }
+
+  /**
+   * Gets the capture generation of this frame. Generations increase by one with every new frame
+   * captured by {@link ScreenManager}, so two snapshots with the same generation hold the same
+   * pixels.
+   *
+   * @return The generation number
+   */
+  public long generation() {
+    return generation;
+  }
+
+  /**
+   * Gets the time at which this frame was captured.
+   *
+   * @return The {@link System#nanoTime()} value at capture
+   */
+  public long capturedAtNanos() {
+    return capturedAtNanos;
+  }
+
+  /**
+   * Checks whether this frame is still within a freshness budget.
+   *
+   * @param budgetNanos The maximum age in nanoseconds
+   * @return {@code true} if the frame was captured less than {@code budgetNanos} ago
+   */
+  public boolean isYoungerThan(long budgetNanos) {
+    return System.nanoTime() - capturedAtNanos < budgetNanos;
+  }
+
+  /**
+   * Checks whether this snapshot's pixels are reused for later frames once it is closed. Headers
+   * cut from a recyclable snapshot must be copied if they are needed after closing it.
+   *
+   * @return {@code true} if this snapshot belongs to the background capture ring
+   */
+  public boolean isRecyclable() {
+    return recyclable;
+  }
+
+  /**
+   * Gets the width of the frame.
+   *
+   * @return The width in pixels
+   */
+  public int width() {
+    return pixels.cols();
+  }
+
+  /**
+   * Gets the height of the frame.
+   *
+   * @return The height in pixels
+   */
+  public int height() {
+    return pixels.rows();
+  }
+
+  /**
+   * Returns a header over the whole frame. The caller should release it when done.
+   *
+   * @return A read-only BGRA {@link Mat} sharing this snapshot's pixels
+   */
+  public Mat view() {
+    return new Mat(pixels);
+  }
+
+  /**
+   * Returns a region of interest over the frame without copying any pixels. The caller should
+   * release it when done.
+   *
+   * @param zone The area to cut out, in client relative co-ordinates
+   * @return A read-only BGRA {@link Mat} sharing this snapshot's pixels
+   * @throws IllegalArgumentException If the zone lies outside the frame
+   */
+  public Mat region(Rectangle zone) {
+    checkBounds(zone);
+    try (Rect roi = new Rect(zone.x, zone.y, zone.width, zone.height)) {
+      return new Mat(pixels, roi);
+    }
+  }
+
+  /**
+   * Returns the frame as a {@link BufferedImage}. The heap copy is made once per snapshot and
+   * shared between callers, so it must be treated as read-only.
+   *
+   * @return A {@link BufferedImage} of the frame
+   */
+  public synchronized BufferedImage image() {
+    if (image == null) {
+      byte[] data = new byte[width() * height() * 4];
+      pixels.data().get(data);
+      image = createBufferedImage(data, width(), height());
+    }
+    return image;
+  }
+
+  /**
+   * Copies a zone of the frame into a new {@link BufferedImage}. Only the zone's rows are copied,
+   * straight out of native memory, and the image belongs to the caller, so it may be drawn on.
+   *
+   * @param zone The area to copy, in client relative co-ordinates
+   * @return A {@link BufferedImage} of the zone
+   * @throws IllegalArgumentException If the zone lies outside the frame
+   */
+  public BufferedImage image(Rectangle zone) {
+    checkBounds(zone);
+    int rowBytes = zone.width * 4;
+    byte[] data = new byte[rowBytes * zone.height];
+    for (int y = 0; y < zone.height; y++) {
+      pixels.ptr(zone.y + y, zone.x).get(data, y * rowBytes, rowBytes);
+    }
+    return createBufferedImage(data, zone.width, zone.height);
+  }
+
+  /**
+   * Gets the tile hashes of the frame, hashing the tiles under a zone if they have not been yet.
+   * The caller must hold this snapshot open while the tiles are hashed.
+   *
+   * @param zone The zone about to be compared, in client relative co-ordinates
+   * @return The frame's {@link TileChangeMap}
+   */
+  TileChangeMap tiles(Rectangle zone) {
+    TileChangeMap map;
+    synchronized (this) {
+      if (tiles == null) {
+        tiles = new TileChangeMap(width(), height());
+      }
+      map = tiles;
+    }
+    map.hash(pixels, zone);
+    return map;
+  }
+
+  /**
+   * Opens another handle to this snapshot. Only called while the snapshot is known to be alive.
+   *
+   * @return This snapshot
+   */
+  FrameSnapshot retain() {
+    references.incrementAndGet();
+    return this;
+  }
+
+  /**
+   * Attempts to open another handle without locking. Fails if the snapshot has been freed or is
+   * being rewritten, in which case the caller should re-read the latest frame.
+   *
+   * @return {@code true} if a handle was opened and must later be closed
+   */
+  boolean tryRetain() {
+    int count;
+    do {
+      count = references.get();
+      if (count <= 0) {
+        return false;
+      }
+    } while (!references.compareAndSet(count, count + 1));
+    return true;
+  }
+
+  /**
+   * Claims a free recyclable slot for writing. Only one thread can hold the claim.
+   *
+   * @return {@code true} if the slot was free and is now claimed
+   */
+  boolean tryClaim() {
+    return recyclable && references.compareAndSet(0, -1);
+  }
+
+  /**
+   * Gets the pixel buffer of a claimed slot so the capture thread can write into it.
+   *
+   * @return The slot's backing {@link Mat}
+   */
+  Mat pixels() {
+    return pixels;
+  }
+
+  /**
+   * Stamps a claimed slot with its new frame and opens the publisher's handle on it. Every write
+   * to the pixels happens before this call, so any thread that retains the slot afterwards sees the
+   * complete frame.
+   *
+   * @param generation The capture generation of the new frame
+   * @param capturedAtNanos {@link System#nanoTime()} at capture
+   */
+  void publish(long generation, long capturedAtNanos) {
+    this.generation = generation;
+    this.capturedAtNanos = capturedAtNanos;
+    synchronized (this) {
+      image = null;
+      tiles = null;
+    }
+    references.set(1);
+  }
+
+  /** Returns a claimed slot to the free state without publishing it. */
+  void unclaim() {
+    references.set(0);
+  }
+
+  /**
+   * Closes this handle. Once no handles remain, a one-shot snapshot releases its native memory and
+   * a recyclable snapshot becomes free for the capture thread to reuse.
+   */
+  @Override
+  public void close() {
+    if (references.decrementAndGet() == 0 && !recyclable) {
+      // Outstanding view and region headers keep their own reference to the pixels
+      pixels.close();
+    }
+  }
+
+  /**
+   * Internal helper to validate a zone against the frame, mirroring the checks performed by {@link
+   * BufferedImage#getSubimage(int, int, int, int)}.
+   *
+   * @param zone The zone to validate
+   */
+  private void checkBounds(Rectangle zone) {
+    if (zone.x < 0
+        || zone.y < 0
+        || zone.width <= 0
+        || zone.height <= 0
+        || zone.x + zone.width > width()
+        || zone.y + zone.height > height()) {
+      throw new IllegalArgumentException("Zone is outside the window bounds: " + zone);
+    }
+  }
+
+  /**
+   * Internal helper to create a buffered image from a C++ style byte array of pixels in BGRA
+   * format.
+   *
+   * @param pixels The byte array of pixel data in BGRA format
+   * @param width The width of the client in pixels
+   * @param height The height of the client in pixels
+   * @return A {@link BufferedImage} representing the image
+   */
+  private static BufferedImage createBufferedImage(byte[] pixels, int width, int height) {
+    DataBufferByte buffer = new DataBufferByte(pixels, pixels.length);
+    WritableRaster raster =
+        Raster.createInterleavedRaster(
+            buffer, width, height, width * 4, 4, new int[] {2, 1, 0, 3}, null);
+
+    ColorModel cm =
+        new ComponentColorModel(
+            ColorSpace.getInstance(ColorSpace.CS_sRGB),
+            new int[] {8, 8, 8, 8},
+            true,
+            false,
+            Transparency.TRANSLUCENT,
+            DataBuffer.TYPE_BYTE);
+
+    return new BufferedImage(cm, raster, false, null);
+  }
+}
@@ -0,0 +1,32 @@
+package com.chromascape.utils.core.screen.window;
+
+import java.awt.Rectangle;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * A provider of client frames for {@link ScreenManager}. The default source reads the injected
+ * client through RemoteInput, but frames can equally come from a directory of screenshots, a
+ * session recording or a synthetic generator, which lets the perception stack run and be profiled
+ * without a live client.
+ *
+ * <p>Sources are read by one thread at a time: {@link ScreenManager} serialises calls to {@link
+ * #grab()}.
+ */
+public interface FrameSource {
+
+  /**
+   * Gets the bounds of the frames this source produces.
+   *
+   * @return A {@link Rectangle} the size of the client area
+   */
+  Rectangle getBounds();
+
+  /**
+   * Returns a 4 channel BGRA header over the source's current frame. The header belongs to the
+   * caller, who must release it, but the pixels belong to the source and may be rewritten by the
+   * next call, so they must be copied if they are needed for longer.
+   *
+   * @return A BGRA {@link Mat} header, or {@code null} if there is currently no frame to show
+   */
+  Mat grab();
+}
@@ -0,0 +1,62 @@
+package com.chromascape.utils.core.screen.window;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC4;
+
+import com.chromascape.utils.core.input.remoteinput.RemoteInput;
+import com.sun.jna.Pointer;
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * A {@link FrameSource} over the injected client. Frames are read straight out of RemoteInput's
+ * shared image buffer, regardless of if the client is maximised, minimised, partially or fully
+ * covered.
+ */
+public class RemoteInputFrameSource implements FrameSource {
+
+  private final RemoteInput remoteInput;
+
+  private Pointer screenBuffer = null;
+
+  /**
+   * Constructs a frame source over a RemoteInput target.
+   *
+   * @param remoteInput The {@link RemoteInput} paired with the client
+   */
+  public RemoteInputFrameSource(RemoteInput remoteInput) {
+    this.remoteInput = remoteInput;
+  }
+
+  /**
+   * Gets the bounds of the (game view) RuneLite AWT Canvas object.
+   *
+   * @return A {@link Rectangle} representing the size of RuneLite's client area
+   */
+  @Override
+  public Rectangle getBounds() {
+    return remoteInput.getTargetDimensions();
+  }
+
+  /**
+   * Wraps RemoteInput's image buffer as a Mat header. JNA exposes the native memory as a direct
+   * {@link ByteBuffer}, which JavaCPP adopts by address, so no pixels are copied. The client keeps
+   * drawing into this buffer.
+   *
+   * @return A BGRA {@link Mat} header over the client's buffer, or {@code null} if the client has
+   *     no visible area
+   */
+  @Override
+  public Mat grab() {
+    Rectangle dims = remoteInput.getTargetDimensions();
+    if (dims.width <= 0 || dims.height <= 0) {
+      return null;
+    }
+    if (screenBuffer == null) {
+      screenBuffer = remoteInput.getImageBuffer();
+    }
+    ByteBuffer pixels = screenBuffer.getByteBuffer(0, (long) dims.width * dims.height * 4);
+    return new Mat(dims.height, dims.width, CV_8UC4, new BytePointer(pixels));
+  }
+}
@@ -0,0 +1,156 @@
+package com.chromascape.utils.core.screen.window;
+
+import static org.bytedeco.opencv.global.opencv_imgcodecs.IMREAD_UNCHANGED;
+import static org.bytedeco.opencv.global.opencv_imgcodecs.imread;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_GRAY2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * A {@link FrameSource} that replays a directory of screenshots, such as those saved by {@link
+ * com.chromascape.scripts.Screenshotter}, in file name order. Frames are either advanced on every
+ * grab, which makes runs deterministic, or paced against the wall clock at a fixed rate to mimic a
+ * live client. Only the frame currently being shown is held in memory.
+ */
+public class ReplayFrameSource implements FrameSource {
+
+  private final List<Path> frames;
+
+  /** Time each frame is shown for, or {@code 0} to advance on every grab. */
+  private final long frameIntervalNanos;
+
+  private final boolean loop;
+
+  private final Mat current = new Mat();
+
+  private int currentIndex = -1;
+
+  private int grabs = 0;
+
+  private long startNanos = -1;
+
+  /**
+   * Constructs a replay source that shows the next image on every grab and loops at the end.
+   *
+   * @param directory The directory of PNG, JPEG or BMP frames
+   * @throws IOException If the directory cannot be read or holds no images
+   */
+  public ReplayFrameSource(Path directory) throws IOException {
+    this(directory, 0, true);
+  }
+
+  /**
+   * Constructs a replay source over a directory of images.
+   *
+   * @param directory The directory of PNG, JPEG or BMP frames
+   * @param fps The replay rate in frames per second, or {@code 0} to advance on every grab
+   * @param loop Whether to start again after the last frame, otherwise the last frame is held
+   * @throws IOException If the directory cannot be read or holds no images
+   */
+  public ReplayFrameSource(Path directory, double fps, boolean loop) throws IOException {
+    if (fps < 0) {
+      throw new IllegalArgumentException("Replay rate must not be negative: " + fps);
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      frames = files.filter(ReplayFrameSource::isImage).sorted().toList();
+    }
+    if (frames.isEmpty()) {
+      throw new IOException("No frames found in: " + directory);
+    }
+    this.frameIntervalNanos = fps == 0 ? 0 : (long) (1_000_000_000L / fps);
+    this.loop = loop;
+    load(0);
+  }
+
+  /**
+   * Gets the bounds of the frame currently being shown.
+   *
+   * @return A {@link Rectangle} the size of the current frame
+   */
+  @Override
+  public synchronized Rectangle getBounds() {
+    return new Rectangle(0, 0, current.cols(), current.rows());
+  }
+
+  @Override
+  public synchronized Mat grab() {
+    load(nextIndex());
+    return new Mat(current);
+  }
+
+  /**
+   * Gets the number of frames in the replay.
+   *
+   * @return The frame count
+   */
+  public int getFrameCount() {
+    return frames.size();
+  }
+
+  /**
+   * Internal helper to work out which frame should be shown now.
+   *
+   * @return The index of the frame to show
+   */
+  private int nextIndex() {
+    long position;
+    if (frameIntervalNanos == 0) {
+      position = grabs++;
+    } else {
+      long now = System.nanoTime();
+      if (startNanos < 0) {
+        startNanos = now;
+      }
+      position = (now - startNanos) / frameIntervalNanos;
+    }
+    if (loop) {
+      return (int) (position % frames.size());
+    }
+    return (int) Math.min(position, frames.size() - 1);
+  }
+
+  /**
+   * Internal helper to decode a frame into BGRA, unless it is already the one being shown.
+   *
+   * @param index The index of the frame to load
+   */
+  private void load(int index) {
+    if (index == currentIndex) {
+      return;
+    }
+    try (Mat decoded = imread(frames.get(index).toString(), IMREAD_UNCHANGED)) {
+      if (decoded.empty()) {
+        throw new IllegalStateException("Could not decode frame: " + frames.get(index));
+      }
+      switch (decoded.channels()) {
+        case 4 -> decoded.copyTo(current);
+        case 3 -> cvtColor(decoded, current, COLOR_BGR2BGRA);
+        default -> cvtColor(decoded, current, COLOR_GRAY2BGRA);
+      }
+    }
+    currentIndex = index;
+  }
+
+  /**
+   * Internal helper to filter a directory listing down to decodable images.
+   *
+   * @param path A file in the replay directory
+   * @return {@code true} if the file looks like an image
+   */
+  private static boolean isImage(Path path) {
+    String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+    return name.endsWith(".png")
+        || name.endsWith(".jpg")
+        || name.endsWith(".jpeg")
+        || name.endsWith(".bmp");
+  }
+}
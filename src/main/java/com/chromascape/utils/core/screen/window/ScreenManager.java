@@ -1,41 +1,86 @@
 package com.chromascape.utils.core.screen.window;
 
 import com.chromascape.utils.core.input.remoteinput.RemoteInput;
-import com.sun.jna.Pointer;
 import java.awt.Rectangle;
-import java.awt.Transparency;
-import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
-import java.awt.image.ComponentColorModel;
-import java.awt.image.DataBuffer;
-import java.awt.image.DataBufferByte;
-import java.awt.image.Raster;
-import java.awt.image.WritableRaster;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.bytedeco.opencv.opencv_core.Mat;
 
 /**
  * Utility class for capturing screen regions and retrieving window bounds. Screen capture utilities
  * are intended to be used with colour contour extraction and template matching.
+ *
+ * <p>Every capture is served from a {@link FrameSnapshot}. A snapshot is reused for as long as it
+ * is younger than the frame budget, so the many zone captures made during one script cycle are
+ * all cut from the same frame instead of each copying the whole window.
+ *
+ * <p>Capture can optionally be moved off the script thread with {@link
+ * #startBackgroundCapture(int)}, in which case snapshots are served lock-free from the latest frame
+ * copied by a background thread.
+ *
+ * <p>Frames are read from a {@link FrameSource}. In production this is the injected client, but a
+ * {@link ReplayFrameSource} or {@link SyntheticFrameSource} can be installed with {@link
+ * #setFrameSource(FrameSource)} to run the perception stack without one.
  */
 public class ScreenManager {
 
-  private static RemoteInput remoteInput;
+  /** Where frames are read from. Grabs are serialised by the class lock. */
+  private static volatile FrameSource frameSource;
 
-  private static Pointer screenBuffer = null;
+  /** How {@link #captureWindowMat()} and {@link #captureZoneMat(Rectangle)} expose the frame. */
+  private static volatile CaptureMode captureMode = CaptureMode.SNAPSHOT;
+
+  /** Source of snapshot generation numbers. */
+  private static final AtomicLong generations = new AtomicLong();
+
+  /** How long a snapshot may be reused before a new frame is captured, in nanoseconds. */
+  private static volatile long frameBudgetNanos = Duration.ofMillis(16).toNanos();
+
+  /** The most recently captured frame, guarded by the class lock. */
+  private static FrameSnapshot latest;
+
+  /** How many past frames' tile hashes are kept for {@link #hasChangedSince}. */
+  private static final int TILE_HISTORY = 64;
+
+  /** Tile hashes of recent frames by generation, oldest first. */
+  private static final Map<Long, TileChangeMap> tileHistory =
+      new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, TileChangeMap> eldest) {
+          return size() > TILE_HISTORY;
+        }
+      };
+
+  /** The background capture thread, or {@code null} when capturing on demand. */
+  private static volatile FrameGrabber grabber;
+
+  /**
+   * Guards starting and stopping the capture thread. Kept apart from the class lock, which the
+   * capture thread itself needs while it is being joined.
+   */
+  private static final Object grabberLock = new Object();
 
   /**
    * Captures a {@link Rectangle} region on the client screen, intended to be used when
    * screenshotting zones for template matching and or colour extraction.
    *
+   * <p>Unlike {@link #captureWindow()}, the image is a copy of the zone owned by the caller, so it
+   * may be drawn on or kept after later frames are captured.
+   *
    * @param zone The rectangle area in client relative screen co-ordinates
    * @return A {@link BufferedImage} of the captured area
+   * @throws IllegalArgumentException If the zone lies outside the client's bounds
    */
   public static BufferedImage captureZone(Rectangle zone) {
-    BufferedImage screen = captureWindow();
-    if (screen == null) {
-      throw new RuntimeException("Screen could not be captured");
+    try (FrameSnapshot frame = snapshot()) {
+      if (frame == null) {
+        throw new RuntimeException("Screen could not be captured");
+      }
+      return frame.image(zone);
     }
-    return screen.getSubimage(zone.x, zone.y, zone.width, zone.height);
   }
 
   /**
@@ -43,52 +88,311 @@ public class ScreenManager {
    * maximised, minimised, partially or fully covered. This is to be used with template matching and
    * {@link com.chromascape.utils.core.screen.topology.ChromaObj} detection.
    *
+   * <p>The image is shared by every caller within the same frame budget and must not be drawn on.
+   *
    * @return A {@link BufferedImage} of the client's screen
    */
-  public static synchronized BufferedImage captureWindow() {
-    Rectangle dims = remoteInput.getTargetDimensions();
-    int width = dims.width;
-    int height = dims.height;
+  public static BufferedImage captureWindow() {
+    try (FrameSnapshot frame = snapshot()) {
+      return frame == null ? null : frame.image();
+    }
+  }
+
+  /**
+   * Grabs the latest rendered frame of the target application as a native BGRA {@link Mat},
+   * without copying it onto the Java heap. Depending on the {@link CaptureMode}, the returned Mat
+   * is either a header directly over RemoteInput's image buffer ({@link CaptureMode#VIEW}) or a
+   * header over a single native copy of it ({@link CaptureMode#SNAPSHOT}). Snapshot copies are
+   * shared between every capture within the frame budget, so the result must be treated as
+   * read-only; clone it before drawing on it.
+   *
+   * <p>The caller is responsible for releasing the returned Mat. Releasing a view never frees the
+   * client's buffer.
+   *
+   * @return A 4 channel BGRA {@link Mat} of the client's screen, or {@code null} if the client has
+   *     no visible area
+   */
+  public static Mat captureWindowMat() {
+    try (FrameSnapshot frame = snapshot()) {
+      return frame == null ? null : detach(frame, frame.view());
+    }
+  }
+
+  /**
+   * Captures a {@link Rectangle} region on the client screen as a native BGRA {@link Mat}. The
+   * result is a region of interest over the captured frame rather than a copy of it, so cutting
+   * several zones out of the window costs no additional pixel copies.
+   *
+   * <p>The caller is responsible for releasing the returned Mat.
+   *
+   * @param zone The rectangle area in client relative screen co-ordinates
+   * @return A read-only {@link Mat} region of interest covering the zone
+   * @throws IllegalArgumentException If the zone lies outside the client's bounds
+   */
+  public static Mat captureZoneMat(Rectangle zone) {
+    try (FrameSnapshot frame = snapshot()) {
+      if (frame == null) {
+        throw new RuntimeException("Screen could not be captured");
+      }
+      return detach(frame, frame.region(zone));
+    }
+  }
+
+  /**
+   * Internal helper to make a header outlive its snapshot. Background capture slots are rewritten
+   * once closed, so in {@link CaptureMode#SNAPSHOT} their pixels are copied out; a {@link
+   * CaptureMode#VIEW} header is allowed to change underneath the caller by design.
+   *
+   * @param frame The snapshot the header was cut from
+   * @param header A view or region of the snapshot
+   * @return A {@link Mat} that stays valid after the snapshot is closed
+   */
+  private static Mat detach(FrameSnapshot frame, Mat header) {
+    if (!frame.isRecyclable() || captureMode == CaptureMode.VIEW) {
+      return header;
+    }
+    Mat copy = header.clone();
+    header.close();
+    return copy;
+  }
+
+  /**
+   * Returns the current frame of the client. While background capture is running this is the
+   * latest frame published by the capture thread, obtained without locking. Otherwise, if the last
+   * captured frame is younger than the frame budget it is shared, or a new frame is captured and
+   * given the next generation number.
+   *
+   * <p>The caller must close the returned snapshot.
+   *
+   * @return A {@link FrameSnapshot} of the client's screen, or {@code null} if the client has no
+   *     visible area
+   */
+  public static FrameSnapshot snapshot() {
+    FrameGrabber background = grabber;
+    if (background != null) {
+      FrameSnapshot frame = background.acquireLatest();
+      if (frame != null) {
+        return frame;
+      }
+      // Nothing published yet, capture on demand for now
+    }
+    return sharedSnapshot();
+  }
+
+  /**
+   * Returns the most recently captured frame without ever capturing one. Observers such as the
+   * session recorder use this to see exactly the frames the scripts and the capture thread already
+   * paid for, so watching the screen adds no captures of its own. The generation only changes when
+   * someone else captures, which lets observers skip frames they have already seen.
+   *
+   * <p>The caller must close the returned snapshot.
+   *
+   * @return The latest {@link FrameSnapshot}, or {@code null} if nothing has been captured yet
+   */
+  public static FrameSnapshot peekLatest() {
+    FrameGrabber background = grabber;
+    if (background != null) {
+      FrameSnapshot frame = background.acquireLatest();
+      if (frame != null) {
+        return frame;
+      }
+    }
+    return peekShared();
+  }
+
+  /**
+   * Checks whether a zone of a snapshot differs from the same zone in an earlier frame. The check
+   * compares hashes of the 32x32 pixel tiles under the zone, which are hashed once per frame and
+   * only for the zones that are checked. Results computed on the earlier frame can be reused when
+   * this returns {@code false}, as {@link ZoneWatcher} does for polling loops.
+   *
+   * <p>The snapshot is remembered, so once this returns {@code false} the caller can move its
+   * generation forward to {@code frame.generation()} and compare later frames against that instead.
+   * Only remembered frames can be compared against; for any other generation, or one that has
+   * fallen out of the last 64 remembered frames, the zone is reported as
+   * changed.
+   *
+   * @param frame The snapshot being processed
+   * @param zone The zone to check, in client relative co-ordinates
+   * @param generation The generation the caller last processed the zone at
+   * @return {@code true} if the zone may have changed
+   */
+  public static boolean hasChangedSince(FrameSnapshot frame, Rectangle zone, long generation) {
+    if (frame.generation() == generation) {
+      return false;
+    }
+    TileChangeMap current = frame.tiles(zone);
+    TileChangeMap older;
+    synchronized (tileHistory) {
+      tileHistory.put(frame.generation(), current);
+      older = tileHistory.get(generation);
+    }
+    return older == null || current.differs(older, zone);
+  }
+
+  /**
+   * Internal helper to serve the on-demand snapshot, capturing a new frame once the shared one has
+   * outlived the frame budget.
+   *
+   * @return A {@link FrameSnapshot} of the client's screen, or {@code null} if the client has no
+   *     visible area
+   */
+  private static synchronized FrameSnapshot sharedSnapshot() {
+    if (latest == null || !latest.isYoungerThan(frameBudgetNanos)) {
+      FrameSnapshot fresh = captureSnapshot();
+      if (fresh == null) {
+        return null;
+      }
+      invalidate();
+      latest = fresh;
+    }
+    return latest.retain();
+  }
 
-    if (width <= 0 || height <= 0) {
+  /**
+   * Internal helper to open a handle on the on-demand snapshot, however old it is.
+   *
+   * @return The last {@link FrameSnapshot} captured on demand, or {@code null} if there is none
+   */
+  private static synchronized FrameSnapshot peekShared() {
+    return latest == null ? null : latest.retain();
+  }
+
+  /**
+   * Internal helper to capture a new frame from the frame source.
+   *
+   * @return A new {@link FrameSnapshot}, or {@code null} if the client has no visible area
+   */
+  private static FrameSnapshot captureSnapshot() {
+    long capturedAt = System.nanoTime();
+    Mat view = frameSource.grab();
+    if (view == null) {
       return null;
     }
+    Mat pixels = view;
+    if (captureMode == CaptureMode.SNAPSHOT) {
+      // A single native memcpy, the view header itself owns nothing
+      pixels = view.clone();
+      view.close();
+    }
+    return new FrameSnapshot(pixels, generations.incrementAndGet(), capturedAt);
+  }
+
+  /**
+   * Internal helper for the capture thread to wrap the live frame. The thread copies the pixels
+   * out after this returns, so the class lock is only held while the header is created.
+   *
+   * @return A BGRA {@link Mat} header over the source's frame, or {@code null} if there is no
+   *     frame to show
+   */
+  private static synchronized Mat liveView() {
+    return frameSource.grab();
+  }
 
-    if (screenBuffer == null) {
-      screenBuffer = remoteInput.getImageBuffer();
+  /**
+   * Starts copying frames from the client on a background thread. Captures then no longer wait on
+   * the native copy, and every caller reads the most recent frame the thread has published. The
+   * frame budget does not apply while background capture runs; freshness is set by the rate.
+   * Restarts the thread if it is already running.
+   *
+   * @param fps The number of frames to capture per second
+   */
+  public static void startBackgroundCapture(int fps) {
+    synchronized (grabberLock) {
+      stopBackgroundCapture();
+      grabber = new FrameGrabber(ScreenManager::liveView, generations::incrementAndGet, fps);
     }
+  }
 
-    int bufferSize = width * height * 4;
-    byte[] data = screenBuffer.getByteArray(0, bufferSize);
+  /** Stops background capture, returning to capturing on demand. Does nothing if not running. */
+  public static void stopBackgroundCapture() {
+    synchronized (grabberLock) {
+      FrameGrabber background = grabber;
+      if (background != null) {
+        grabber = null;
+        background.stop();
+      }
+    }
+  }
 
-    return createBufferedImage(data, width, height);
+  /**
+   * Checks whether frames are being captured on a background thread.
+   *
+   * @return {@code true} if background capture is running
+   */
+  public static boolean isBackgroundCaptureRunning() {
+    return grabber != null;
   }
 
   /**
-   * Internal helper to create a buffered image from a C++ style byte array of pixels in BGRA
-   * format.
+   * Gets the number of frames the background thread skipped because readers still held every free
+   * buffer. A steadily rising count means consumers keep snapshots open for too long.
    *
-   * @param pixels The byte array of pixel data in BGRA format
-   * @param width The width of the client in pixels
-   * @param height The height of the client in pixels
-   * @return A {@link BufferedImage} representing the image
+   * @return The dropped frame count, or {@code 0} if background capture is not running
    */
-  private static BufferedImage createBufferedImage(byte[] pixels, int width, int height) {
-    DataBufferByte buffer = new DataBufferByte(pixels, pixels.length);
-    WritableRaster raster =
-        Raster.createInterleavedRaster(
-            buffer, width, height, width * 4, 4, new int[] {2, 1, 0, 3}, null);
+  public static long getDroppedFrames() {
+    FrameGrabber background = grabber;
+    return background == null ? 0 : background.getDroppedFrames();
+  }
 
-    ColorModel cm =
-        new ComponentColorModel(
-            ColorSpace.getInstance(ColorSpace.CS_sRGB),
-            new int[] {8, 8, 8, 8},
-            true,
-            false,
-            Transparency.TRANSLUCENT,
-            DataBuffer.TYPE_BYTE);
+  /** Internal helper to drop the manager's handle on the latest frame. Requires the class lock. */
+  private static void invalidate() {
+    if (latest != null) {
+      latest.close();
+      latest = null;
+    }
+  }
 
-    return new BufferedImage(cm, raster, false, null);
+  /**
+   * Sets how long a captured frame may be reused before a new one is taken. A budget of zero
+   * captures a new frame on every call.
+   *
+   * @param budget The maximum age of a shared frame
+   */
+  public static void setFrameBudget(Duration budget) {
+    if (budget.isNegative()) {
+      throw new IllegalArgumentException("Frame budget must not be negative: " + budget);
+    }
+    frameBudgetNanos = budget.toNanos();
+  }
+
+  /**
+   * Gets how long a captured frame may be reused before a new one is taken.
+   *
+   * @return The frame budget
+   */
+  public static Duration getFrameBudget() {
+    return Duration.ofNanos(frameBudgetNanos);
+  }
+
+  /**
+   * Gets the generation number of the most recently captured frame. Detectors can compare this
+   * against the generation they last ran on to skip work when no new frame has been taken.
+   *
+   * @return The latest generation, or {@code 0} if nothing has been captured yet
+   */
+  public static long getGeneration() {
+    return generations.get();
+  }
+
+  /**
+   * Sets how native captures expose the client's frame buffer. See {@link CaptureMode}.
+   *
+   * @param mode The {@link CaptureMode} to use for subsequent captures
+   */
+  public static synchronized void setCaptureMode(CaptureMode mode) {
+    captureMode = mode;
+    // The shared frame was captured under the previous mode
+    invalidate();
+  }
+
+  /**
+   * Gets the current native capture mode.
+   *
+   * @return The active {@link CaptureMode}
+   */
+  public static CaptureMode getCaptureMode() {
+    return captureMode;
   }
 
   /**
@@ -98,7 +402,7 @@ public class ScreenManager {
    *     window borders, title or scrollbars.
    */
   public static Rectangle getWindowBounds() {
-    return remoteInput.getTargetDimensions();
+    return frameSource.getBounds();
   }
 
   /**
@@ -108,6 +412,27 @@ public class ScreenManager {
    * @param remoteInput The {@link RemoteInput} object
    */
   public static void setRemoteInput(RemoteInput remoteInput) {
-    ScreenManager.remoteInput = remoteInput;
+    setFrameSource(new RemoteInputFrameSource(remoteInput));
+  }
+
+  /**
+   * Sets where the ScreenManager reads frames from. Every capture and {@link #getWindowBounds()}
+   * call after this is served by the new source.
+   *
+   * @param source The {@link FrameSource} to capture from
+   */
+  public static synchronized void setFrameSource(FrameSource source) {
+    frameSource = source;
+    // The shared frame belongs to the previous source
+    invalidate();
+  }
+
+  /**
+   * Gets the source frames are currently read from.
+   *
+   * @return The active {@link FrameSource}
+   */
+  public static FrameSource getFrameSource() {
+    return frameSource;
   }
 }
@@ -0,0 +1,158 @@
+package com.chromascape.utils.core.screen.window;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC4;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_HSV2BGR;
+import static org.bytedeco.opencv.global.opencv_imgproc.FILLED;
+import static org.bytedeco.opencv.global.opencv_imgproc.LINE_8;
+import static org.bytedeco.opencv.global.opencv_imgproc.circle;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+import static org.bytedeco.opencv.global.opencv_imgproc.rectangle;
+
+import com.chromascape.utils.core.screen.colour.ColourObj;
+import java.awt.Rectangle;
+import java.util.List;
+import java.util.Random;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+/**
+ * A {@link FrameSource} that draws filled circles and rectangles moving across a plain background.
+ * Each shape is painted in the centre of a {@link ColourObj}'s HSV range, so colour detection finds
+ * exactly the shapes that were drawn. Frames advance by one step per grab and are fully determined
+ * by the seed, which makes this source suitable for benchmarks and tests without a client.
+ */
+public class SyntheticFrameSource implements FrameSource {
+
+  private static final Scalar BACKGROUND = new Scalar(40, 40, 40, 255);
+
+  private final Mat frame;
+
+  private final Shape[] shapes;
+
+  /** A shape bouncing around the frame. */
+  private static final class Shape {
+    private final Scalar colour;
+    private final int radius;
+    private final boolean circle;
+    private double x;
+    private double y;
+    private double dx;
+    private double dy;
+
+    private Shape(Scalar colour, int radius, boolean circle) {
+      this.colour = colour;
+      this.radius = radius;
+      this.circle = circle;
+    }
+  }
+
+  /**
+   * Constructs a synthetic source.
+   *
+   * @param width The frame width in pixels
+   * @param height The frame height in pixels
+   * @param colours The colours to draw shapes in
+   * @param shapesPerColour How many shapes to draw in each colour
+   * @param seed The seed for shape sizes, positions and velocities
+   */
+  public SyntheticFrameSource(
+      int width, int height, List<ColourObj> colours, int shapesPerColour, long seed) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Frame size must be positive: " + width + "x" + height);
+    }
+    this.frame = new Mat(height, width, CV_8UC4, BACKGROUND);
+    this.shapes = new Shape[colours.size() * shapesPerColour];
+
+    Random random = new Random(seed);
+    int maxRadius = Math.max(2, Math.min(width, height) / 12);
+    int i = 0;
+    for (ColourObj colour : colours) {
+      Scalar bgra = toBgra(colour);
+      for (int n = 0; n < shapesPerColour; n++) {
+        int radius = 2 + random.nextInt(maxRadius - 1);
+        Shape shape = new Shape(bgra, radius, random.nextBoolean());
+        shape.x = radius + random.nextDouble() * Math.max(1, width - 2 * radius);
+        shape.y = radius + random.nextDouble() * Math.max(1, height - 2 * radius);
+        shape.dx = random.nextDouble() * 8 - 4;
+        shape.dy = random.nextDouble() * 8 - 4;
+        shapes[i++] = shape;
+      }
+    }
+  }
+
+  @Override
+  public Rectangle getBounds() {
+    return new Rectangle(0, 0, frame.cols(), frame.rows());
+  }
+
+  /**
+   * Moves every shape one step and redraws the frame.
+   *
+   * @return A BGRA {@link Mat} header over the new frame
+   */
+  @Override
+  public synchronized Mat grab() {
+    frame.put(BACKGROUND);
+    for (Shape shape : shapes) {
+      step(shape);
+      int x = (int) shape.x;
+      int y = (int) shape.y;
+      if (shape.circle) {
+        try (Point centre = new Point(x, y)) {
+          circle(frame, centre, shape.radius, shape.colour, FILLED, LINE_8, 0);
+        }
+      } else {
+        int size = shape.radius * 2;
+        try (Rect rect = new Rect(x - shape.radius, y - shape.radius, size, size)) {
+          rectangle(frame, rect, shape.colour, FILLED, LINE_8, 0);
+        }
+      }
+    }
+    return new Mat(frame);
+  }
+
+  /**
+   * Internal helper to move a shape, bouncing it off the frame's edges.
+   *
+   * @param shape The shape to move
+   */
+  private void step(Shape shape) {
+    shape.x += shape.dx;
+    shape.y += shape.dy;
+    if (shape.x < shape.radius || shape.x > frame.cols() - shape.radius) {
+      shape.dx = -shape.dx;
+      shape.x = Math.max(shape.radius, Math.min(frame.cols() - shape.radius, shape.x));
+    }
+    if (shape.y < shape.radius || shape.y > frame.rows() - shape.radius) {
+      shape.dy = -shape.dy;
+      shape.y = Math.max(shape.radius, Math.min(frame.rows() - shape.radius, shape.y));
+    }
+  }
+
+  /**
+   * Internal helper to convert the centre of a colour's HSV range into an opaque BGRA scalar.
+   *
+   * @param colour The colour to convert
+   * @return The BGRA drawing colour
+   */
+  private static Scalar toBgra(ColourObj colour) {
+    Scalar min = colour.hsvMin();
+    Scalar max = colour.hsvMax();
+    Scalar centre =
+        new Scalar(
+            (min.get(0) + max.get(0)) / 2,
+            (min.get(1) + max.get(1)) / 2,
+            (min.get(2) + max.get(2)) / 2,
+            0);
+    try (Mat hsv = new Mat(1, 1, CV_8UC3, centre);
+        Mat bgr = new Mat()) {
+      cvtColor(hsv, bgr, COLOR_HSV2BGR);
+      BytePointer pixel = bgr.data();
+      return new Scalar(pixel.get(0) & 0xFF, pixel.get(1) & 0xFF, pixel.get(2) & 0xFF, 255);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.chromascape.utils.core.screen.window;
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * A coarse fingerprint of a frame: one 64-bit hash per {@value #TILE_SIZE}x{@value #TILE_SIZE}
+ * pixel tile. Comparing the tiles that overlap a zone tells whether the zone's pixels have changed
+ * between two frames without touching the pixels again, so detectors can reuse their previous
+ * result for static parts of the screen.
+ *
+ * <p>Tiles are hashed on demand, only for the zones that are checked, so watching a small zone
+ * never pays for hashing the whole frame. A tile that was never hashed counts as changed.
+ */
+final class TileChangeMap {
+
+  static final int TILE_SIZE = 32;
+
+  private static final long SEED = 0x9E3779B97F4A7C15L;
+
+  /** Marks a tile that has not been hashed yet. Real hashes are never this value. */
+  private static final long UNKNOWN = 0;
+
+  private final int width;
+
+  private final int height;
+
+  private final int columns;
+
+  /** Tile hashes in row order, written at most once each and readable from any thread. */
+  private final AtomicLongArray hashes;
+
+  /**
+   * Constructs an empty map for a frame size. No tile is hashed until {@link #hash(Mat,
+   * Rectangle)} is called for it.
+   *
+   * @param width The frame width
+   * @param height The frame height
+   */
+  TileChangeMap(int width, int height) {
+    this.width = width;
+    this.height = height;
+    this.columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+    int rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+    this.hashes = new AtomicLongArray(columns * rows);
+  }
+
+  /**
+   * Hashes every tile of a frame that overlaps a zone and has not been hashed yet. Each tile is
+   * read row by row, straight out of native memory eight bytes at a time. The frame must be the
+   * one this map was created for, and must not change while it is being hashed.
+   *
+   * @param frame The full BGRA frame
+   * @param zone The zone about to be compared, in frame co-ordinates
+   */
+  void hash(Mat frame, Rectangle zone) {
+    int left = Math.max(0, zone.x);
+    int top = Math.max(0, zone.y);
+    int right = Math.min(width, zone.x + zone.width);
+    int bottom = Math.min(height, zone.y + zone.height);
+    if (left >= right || top >= bottom) {
+      return;
+    }
+    long step = frame.step();
+    ByteBuffer pixels = null;
+    for (int row = top / TILE_SIZE; row <= (bottom - 1) / TILE_SIZE; row++) {
+      for (int column = left / TILE_SIZE; column <= (right - 1) / TILE_SIZE; column++) {
+        int tile = row * columns + column;
+        if (hashes.get(tile) != UNKNOWN) {
+          continue;
+        }
+        if (pixels == null) {
+          pixels =
+              frame.data().capacity(step * height).asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        }
+        // Racing threads hash the same pixels to the same value, so either write may win
+        hashes.set(tile, hashTile(pixels, step, row, column));
+      }
+    }
+  }
+
+  /**
+   * Checks whether any tile overlapping a zone differs from an older map. Frames of different sizes
+   * always differ, as do tiles that either map has not hashed.
+   *
+   * @param older The map of the earlier frame
+   * @param zone The zone to compare, in frame co-ordinates
+   * @return {@code true} if the zone may have changed
+   */
+  boolean differs(TileChangeMap older, Rectangle zone) {
+    if (older.width != width || older.height != height) {
+      return true;
+    }
+    int left = Math.max(0, zone.x);
+    int top = Math.max(0, zone.y);
+    int right = Math.min(width, zone.x + zone.width);
+    int bottom = Math.min(height, zone.y + zone.height);
+    if (left >= right || top >= bottom) {
+      return false;
+    }
+    for (int row = top / TILE_SIZE; row <= (bottom - 1) / TILE_SIZE; row++) {
+      for (int column = left / TILE_SIZE; column <= (right - 1) / TILE_SIZE; column++) {
+        int tile = row * columns + column;
+        long hash = hashes.get(tile);
+        if (hash == UNKNOWN || hash != older.hashes.get(tile)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Internal helper to hash the pixels of one tile.
+   *
+   * @param pixels The frame's bytes
+   * @param step The frame's row stride in bytes
+   * @param row The tile's row
+   * @param column The tile's column
+   * @return The tile's hash, never {@link #UNKNOWN}
+   */
+  private long hashTile(ByteBuffer pixels, long step, int row, int column) {
+    int fromY = row * TILE_SIZE;
+    int toY = Math.min(height, fromY + TILE_SIZE);
+    int rowOffset = column * TILE_SIZE * 4;
+    int rowEnd = Math.min(width, (column + 1) * TILE_SIZE) * 4;
+    long hash = SEED;
+    for (int y = fromY; y < toY; y++) {
+      int rowStart = (int) (y * step);
+      int end = rowStart + rowEnd;
+      int i = rowStart + rowOffset;
+      for (; i + 8 <= end; i += 8) {
+        hash = mix(hash, pixels.getLong(i));
+      }
+      if (i < end) {
+        // Odd pixel at the right edge of the frame
+        hash = mix(hash, pixels.getInt(i));
+      }
+    }
+    return hash == UNKNOWN ? 1 : hash;
+  }
+
+  /**
+   * Internal helper to fold eight bytes into a running hash.
+   *
+   * @param hash The running hash
+   * @param value The next eight bytes
+   * @return The updated hash
+   */
+  private static long mix(long hash, long value) {
+    hash ^= value * 0xC2B2AE3D27D4EB4FL;
+    hash = Long.rotateLeft(hash, 31) * SEED;
+    return hash;
+  }
+}
@@ -0,0 +1,55 @@
+package com.chromascape.utils.core.screen.window;
+
+import java.awt.Rectangle;
+
+/**
+ * Watches one zone of the client for changes between polls. Polling loops ask {@link #hasChanged()}
+ * before reading a zone, and skip the read while its pixels are the same as when it was last seen.
+ * Only the tiles under the zone are hashed, once per frame.
+ *
+ * <pre>{@code
+ * ZoneWatcher chat = new ZoneWatcher(latestMessage);
+ * while (waiting) {
+ *   if (chat.hasChanged()) {
+ *     String text = Ocr.extractText(latestMessage, "Plain 12", colour);
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>A watcher belongs to one polling loop and is not safe for concurrent use.
+ */
+public final class ZoneWatcher {
+
+  private final Rectangle zone;
+
+  /** The generation the zone was last seen at, or {@code -1} before the first poll. */
+  private long generation = -1;
+
+  /**
+   * Constructs a watcher over a zone. The first call to {@link #hasChanged()} always reports a
+   * change.
+   *
+   * @param zone The zone to watch, in client relative co-ordinates
+   */
+  public ZoneWatcher(Rectangle zone) {
+    this.zone = new Rectangle(zone);
+  }
+
+  /**
+   * Checks whether the zone differs from when this method was last called. The current frame
+   * becomes the one later calls compare against, whether or not the zone changed, so a zone that
+   * stays static for any number of frames keeps being reported unchanged.
+   *
+   * @return {@code true} if the zone may have changed, or if the screen could not be captured
+   */
+  public boolean hasChanged() {
+    try (FrameSnapshot frame = ScreenManager.snapshot()) {
+      if (frame == null) {
+        return true;
+      }
+      boolean changed = ScreenManager.hasChangedSince(frame, zone, generation);
+      generation = frame.generation();
+      return changed;
+    }
+  }
+}
@@ -8,5 +8,7 @@ package com.chromascape.utils.domain.ocr;
  * @param y Top left Y co-ordinate.
  * @param width Width of the character's image.
  * @param height Height of the character's image.
+ * @param confidence Normalised correlation of the glyph at this position, from 0 to 1.
  */
-public record CharMatch(String character, int x, int y, int width, int height) {}
+public record CharMatch(
+    String character, int x, int y, int width, int height, double confidence) {}
@@ -0,0 +1,142 @@
+package com.chromascape.utils.domain.ocr;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2GRAY;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import org.bytedeco.javacv.Java2DFrameUtils;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+
+/**
+ * Shared store of font glyph sets used by {@link OcrEngine}. Each font is loaded from disk once,
+ * prepared for matching, and then never modified, so any number of engines and threads can read
+ * from it at the same time without locking.
+ */
+public final class FontStore {
+
+  /**
+   * Allowed characters for OCR to remove runtime overhead for unnecessary glyphs. Most common
+   * characters found.
+   */
+  private static final String ALLOWED_CHARS =
+      "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789()[],&-:/*'_\"?<>";
+
+  /** Loaded fonts, each an immutable map from character to glyph. */
+  private static final Map<String, Map<String, Mat>> fonts = new ConcurrentHashMap<>();
+
+  private FontStore() {}
+
+  /**
+   * Gets a font's glyph set, loading it from disk on first use. Each glyph is a greyscale
+   * {@link Mat}, already trimmed as the font requires for matching. Only whitelisted glyphs are
+   * loaded (please add if necessary).
+   *
+   * <p>The map and its Mats are shared by every caller; they must not be modified or released.
+   *
+   * @param font Name of the font folder inside resources.
+   * @return An immutable map from character string to glyph image.
+   * @throws UncheckedIOException If the font's index is missing.
+   * @throws RuntimeException If a glyph fails to load.
+   */
+  public static Map<String, Mat> load(String font) {
+    // computeIfAbsent loads each font exactly once, even when first requested by several threads
+    return fonts.computeIfAbsent(font, FontStore::read);
+  }
+
+  /**
+   * Reads a font's glyphs from its index in resources.
+   *
+   * @param font Name of the font folder inside resources.
+   * @return An immutable map from character string to glyph image.
+   */
+  private static Map<String, Mat> read(String font) {
+    Map<String, Mat> fontMap = new HashMap<>();
+    String basePath = "/fonts/" + font + "/";
+    String indexPath = basePath + font + ".index";
+
+    try (InputStream indexStream = FontStore.class.getResourceAsStream(indexPath)) {
+      if (indexStream == null) {
+        // Throw runtime unchecked exception to fail if fonts are downloaded incorrectly and
+        // are unavailable
+        throw new UncheckedIOException(new IOException("Font index not found: " + indexPath));
+      }
+
+      // Stream the index file and load the files listed into the fontMap
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(indexStream))) {
+        String fontFileName;
+        while ((fontFileName = reader.readLine()) != null) {
+          processFontFile(basePath, fontFileName, cropModifier(font), fontMap);
+        }
+      }
+    } catch (IOException e) {
+      // It's necessary for the project files to exist, so fail fast
+      throw new RuntimeException(
+          "Failed to load font library "
+              + font
+              + " essential for runtime execution with error: "
+              + e);
+    }
+    return Map.copyOf(fontMap);
+  }
+
+  /**
+   * Private helper for loading a specified font bitmap into a font library. Mutates the given map,
+   * does not return anything, intended to be called in a loop. Expects the bitmap to be named as
+   * ascii codepoints and to be stored as resources. Loads each glyph as a greyscale mat with its
+   * corresponding character in String form, with the top rows trimmed off.
+   *
+   * @param path {@link String} path of the font bitmap inside resources
+   * @param fileName the name of the file including type (e.g., 68.bmp)
+   * @param crop the number of rows to trim from the top of the glyph
+   * @param map the map to mutate and add the name + Mat object to
+   * @throws IOException In the case that a glyph fails to load
+   */
+  private static void processFontFile(String path, String fileName, int crop, Map<String, Mat> map)
+      throws IOException {
+    // Get the name ASCII codepoint from the filename
+    String cleanName = fileName.replace(".bmp", "");
+    int codePoint = Integer.parseInt(cleanName);
+    String character = Character.toString(codePoint);
+
+    if (!ALLOWED_CHARS.contains(character)) {
+      return;
+    }
+
+    try (InputStream is = FontStore.class.getResourceAsStream(path + fileName)) {
+      if (is == null) {
+        // It's necessary for the project files to exist, so fail fast
+        throw new FileNotFoundException("Font file not found: " + fileName);
+      }
+
+      // Trim once here rather than on every match, cloning so the glyph owns its pixels
+      try (Mat img = Java2DFrameUtils.toMat(ImageIO.read(is))) {
+        cvtColor(img, img, COLOR_BGR2GRAY);
+        try (Rect roi = new Rect(0, crop, img.cols(), img.rows() - crop);
+            Mat cropped = new Mat(img, roi)) {
+          map.put(character, cropped.clone());
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a vertical crop offset used when slicing glyph images, depending on font type.
+   *
+   * @param font Font name.
+   * @return Crop offset in pixels.
+   */
+  private static int cropModifier(String font) {
+    return Objects.equals(font, "Plain 12") ? 2 : 1;
+  }
+}
@@ -0,0 +1,283 @@
+package com.chromascape.utils.domain.ocr;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Looks up glyphs by their exact bitmap, for {@link OcrMode#EXACT}. The game's fonts are pixel
+ * exact, so the ink of a glyph, trimmed to its bounding box, identifies it without any correlation.
+ *
+ * <p>A table covers either every glyph of a font, or only its digits and comma for reading numbers.
+ * Built once per font from the {@link FontStore} and never modified, so it is shared across
+ * threads. Glyphs whose trimmed bitmaps are identical, such as a comma and an apostrophe that only
+ * differ by height on the line, are marked ambiguous so that callers fall back to correlation.
+ */
+final class GlyphTable {
+
+  /** Grey level above which a glyph pixel counts as ink. */
+  private static final int INK = 127;
+
+  /** Characters of the numeric tables: digits, and the comma separating thousands or values. */
+  private static final String NUMERIC_CHARS = "0123456789,";
+
+  /** Built tables of every glyph, by font name. */
+  private static final Map<String, GlyphTable> tables = new ConcurrentHashMap<>();
+
+  /** Built tables of digits and comma, by font name. */
+  private static final Map<String, GlyphTable> numericTables = new ConcurrentHashMap<>();
+
+  /**
+   * A glyph found by its bitmap.
+   *
+   * @param character The character, or {@code null} if several glyphs share the bitmap.
+   * @param offsetX Columns between the left of the glyph image and its ink.
+   * @param offsetY Rows between the top of the glyph image and its ink.
+   * @param width Width of the glyph image.
+   * @param height Height of the glyph image.
+   */
+  record Entry(String character, int offsetX, int offsetY, int width, int height) {
+
+    /**
+     * Checks whether more than one glyph has this bitmap.
+     *
+     * @return {@code true} if the bitmap cannot be read without correlation
+     */
+    boolean ambiguous() {
+      return character == null;
+    }
+  }
+
+  /** The glyphs the table was built from, for correlation where bitmaps fail. */
+  private final Map<String, Mat> glyphs;
+
+  private final Map<Bitmap, Entry> entries;
+
+  /** Widest ink of any glyph, bounding how many column spans one glyph can cover. */
+  private final int maxInkWidth;
+
+  /** Widest glyph image, the narrowest region correlation can match every glyph in. */
+  private final int maxGlyphWidth;
+
+  /**
+   * Internal constructor, taking ownership of the entries.
+   *
+   * @param glyphs The glyphs the table was built from
+   * @param entries Glyphs by their bitmap
+   * @param maxInkWidth Widest ink of any glyph
+   * @param maxGlyphWidth Widest glyph image
+   */
+  private GlyphTable(
+      Map<String, Mat> glyphs, Map<Bitmap, Entry> entries, int maxInkWidth, int maxGlyphWidth) {
+    this.glyphs = glyphs;
+    this.entries = entries;
+    this.maxInkWidth = maxInkWidth;
+    this.maxGlyphWidth = maxGlyphWidth;
+  }
+
+  /**
+   * Gets the table of a font, building it on first use.
+   *
+   * @param font Font name, as loaded by {@link FontStore#load(String)}.
+   * @return The font's glyph table.
+   */
+  static GlyphTable forFont(String font) {
+    return tables.computeIfAbsent(font, f -> build(FontStore.load(f)));
+  }
+
+  /**
+   * Gets the table of a font's digits and comma, building it on first use. With fewer glyphs,
+   * fewer bitmaps collide, so numbers rarely need correlation.
+   *
+   * @param font Font name, as loaded by {@link FontStore#load(String)}.
+   * @return The font's numeric glyph table.
+   */
+  static GlyphTable forDigits(String font) {
+    return numericTables.computeIfAbsent(
+        font,
+        f -> {
+          Map<String, Mat> digits = new HashMap<>();
+          FontStore.load(f)
+              .forEach(
+                  (character, glyph) -> {
+                    if (NUMERIC_CHARS.contains(character)) {
+                      digits.put(character, glyph);
+                    }
+                  });
+          return build(Map.copyOf(digits));
+        });
+  }
+
+  /**
+   * Builds a table from a font's glyphs.
+   *
+   * @param glyphs The font's glyphs, by character
+   * @return The glyph table
+   */
+  private static GlyphTable build(Map<String, Mat> glyphs) {
+    Map<Bitmap, Entry> entries = new HashMap<>();
+    int maxInkWidth = 0;
+    int maxGlyphWidth = 0;
+    for (Map.Entry<String, Mat> glyph : glyphs.entrySet()) {
+      Mat image = glyph.getValue();
+      int cols = image.cols();
+      int rows = image.rows();
+      byte[] pixels = new byte[rows * cols];
+      byte[] row = new byte[cols];
+      for (int y = 0; y < rows; y++) {
+        image.ptr(y).get(row);
+        for (int x = 0; x < cols; x++) {
+          // Binarise to the 0 and 255 of a colour mask
+          pixels[y * cols + x] = (row[x] & 0xFF) > INK ? (byte) 255 : 0;
+        }
+      }
+      Bitmap bitmap = Bitmap.of(pixels, cols, 0, cols, 0, rows);
+      if (bitmap == null) {
+        // Blank glyphs, such as a space, can never be found by their ink
+        continue;
+      }
+      Entry entry = new Entry(glyph.getKey(), bitmap.left, bitmap.top, cols, rows);
+      Entry existing = entries.putIfAbsent(bitmap, entry);
+      if (existing != null && !entry.character().equals(existing.character())) {
+        entries.put(bitmap, new Entry(null, 0, 0, 0, 0));
+      }
+      maxInkWidth = Math.max(maxInkWidth, bitmap.width);
+      maxGlyphWidth = Math.max(maxGlyphWidth, cols);
+    }
+    return new GlyphTable(glyphs, Map.copyOf(entries), maxInkWidth, maxGlyphWidth);
+  }
+
+  /**
+   * Finds the glyph whose ink exactly matches a bitmap.
+   *
+   * @param bitmap The trimmed ink to look up
+   * @return The glyph, possibly ambiguous, or {@code null} if no glyph has this bitmap
+   */
+  Entry lookup(Bitmap bitmap) {
+    return entries.get(bitmap);
+  }
+
+  /**
+   * Gets the glyphs the table was built from, shared with the {@link FontStore}.
+   *
+   * @return An immutable map from character string to glyph image.
+   */
+  Map<String, Mat> glyphs() {
+    return glyphs;
+  }
+
+  /**
+   * Gets the widest ink of any glyph.
+   *
+   * @return The width in pixels
+   */
+  int maxInkWidth() {
+    return maxInkWidth;
+  }
+
+  /**
+   * Gets the widest glyph image.
+   *
+   * @return The width in pixels
+   */
+  int maxGlyphWidth() {
+    return maxGlyphWidth;
+  }
+
+  /**
+   * The ink of a region of a binary mask, trimmed to its bounding box and packed one bit per pixel.
+   * Equal bitmaps have equal sizes and bits; where the region lay does not matter.
+   */
+  static final class Bitmap {
+
+    private final int width;
+
+    private final int height;
+
+    private final long[] bits;
+
+    private final int hash;
+
+    /** Column of the ink's left edge in the source mask. */
+    final int left;
+
+    /** Row of the ink's top edge in the source mask. */
+    final int top;
+
+    /**
+     * Internal constructor, taking ownership of the bits.
+     *
+     * @param width Width of the ink
+     * @param height Height of the ink
+     * @param bits The ink, row by row, one bit per pixel
+     * @param left Column of the ink's left edge in the source mask
+     * @param top Row of the ink's top edge in the source mask
+     */
+    private Bitmap(int width, int height, long[] bits, int left, int top) {
+      this.width = width;
+      this.height = height;
+      this.bits = bits;
+      this.left = left;
+      this.top = top;
+      this.hash = 31 * (31 * width + height) + Arrays.hashCode(bits);
+    }
+
+    /**
+     * Trims a region of a binary mask to its ink and packs it.
+     *
+     * @param pixels The mask, row by row, with non-zero bytes as ink
+     * @param stride The width of the mask
+     * @param fromX The first column of the region
+     * @param toX The column after the last of the region
+     * @param fromY The first row of the region
+     * @param toY The row after the last of the region
+     * @return The packed ink, or {@code null} if the region has none
+     */
+    static Bitmap of(byte[] pixels, int stride, int fromX, int toX, int fromY, int toY) {
+      int minX = toX;
+      int maxX = fromX - 1;
+      int minY = toY;
+      int maxY = fromY - 1;
+      for (int y = fromY; y < toY; y++) {
+        for (int x = fromX; x < toX; x++) {
+          if (pixels[y * stride + x] != 0) {
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+          }
+        }
+      }
+      if (maxX < minX) {
+        return null;
+      }
+      int width = maxX - minX + 1;
+      int height = maxY - minY + 1;
+      long[] bits = new long[(width * height + 63) / 64];
+      int bit = 0;
+      for (int y = minY; y <= maxY; y++) {
+        for (int x = minX; x <= maxX; x++, bit++) {
+          if (pixels[y * stride + x] != 0) {
+            bits[bit >>> 6] |= 1L << (bit & 63);
+          }
+        }
+      }
+      return new Bitmap(width, height, bits, minX, minY);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Bitmap other
+          && width == other.width
+          && height == other.height
+          && Arrays.equals(bits, other.bits);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
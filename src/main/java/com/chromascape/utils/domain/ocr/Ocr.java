@@ -1,254 +1,115 @@
 package com.chromascape.utils.domain.ocr;
 
-import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
-import static org.bytedeco.opencv.global.opencv_core.minMaxLoc;
-import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2GRAY;
-import static org.bytedeco.opencv.global.opencv_imgproc.FILLED;
-import static org.bytedeco.opencv.global.opencv_imgproc.LINE_8;
-import static org.bytedeco.opencv.global.opencv_imgproc.TM_CCOEFF_NORMED;
-import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
-import static org.bytedeco.opencv.global.opencv_imgproc.matchTemplate;
-import static org.bytedeco.opencv.global.opencv_imgproc.rectangle;
-
 import com.chromascape.utils.core.screen.colour.ColourObj;
-import com.chromascape.utils.core.screen.topology.ColourContours;
-import com.chromascape.utils.core.screen.window.ScreenManager;
-import com.chromascape.utils.domain.zones.MaskZones;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UncheckedIOException;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import javax.imageio.ImageIO;
-import org.bytedeco.javacpp.DoublePointer;
-import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.opencv_core.Mat;
-import org.bytedeco.opencv.opencv_core.Point;
-import org.bytedeco.opencv.opencv_core.Rect;
-import org.bytedeco.opencv.opencv_core.Scalar;
 
 /**
  * Provides Ocr (Optical Character Recognition) functionality using JavaCV/OpenCV. Allows for
  * font-based glyph matching in screen-captured images to extract text.
+ *
+ * <p>A static facade over a shared {@link OcrEngine}. Each call reads into its own result, so the
+ * methods are safe to call from several threads at once. Use {@link #engine()} directly for the
+ * matched characters, their positions and confidences.
  */
 public class Ocr {
 
-  /** Stores successful character matches during Ocr extraction. */
-  private static final List<CharMatch> matches = new ArrayList<>();
-
-  /** Cached zero scalar to prevent CPU allocation fatigue. */
-  private static final Scalar ZERO_SCALAR = new Scalar(0);
-
-  /** Cache for loaded fonts to prevent disk I/O on every OCR call. */
-  private static final Map<String, Map<String, Mat>> fontCache = new HashMap<>();
-
-  /**
-   * Allowed characters for OCR to remove runtime overhead for unnecessary glyphs. Most common
-   * characters found.
-   */
-  private static final String ALLOWED_CHARS =
-      "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789()[],&-:/*'_\"?<>";
+  /** The engine behind the static API. */
+  private static final OcrEngine engine = new OcrEngine();
 
   /**
-   * Loads a font glyph set from disk, converts each glyph to grayscale, and stores in a map. Uses
-   * an internal cache to avoid repeated disk I/O. Only allows whitelisted glyphs ( please add if
-   * necessary).
+   * Gets the shared engine behind this facade.
    *
-   * @param font Name of the font folder inside resources.
-   * @return A map from character string to Mat (glyph image).
+   * @return The shared {@link OcrEngine}.
    */
-  public static synchronized Map<String, Mat> loadFont(String font) {
-    // computeIfAbsent allows for the calculation of a value if it doesn't exist in a Map
-    return fontCache.computeIfAbsent(
-        font,
-        f -> {
-          Map<String, Mat> fontMap = new HashMap<>();
-          String basePath = "/fonts/" + f + "/";
-          String indexPath = basePath + f + ".index";
-
-          try (InputStream indexStream = Ocr.class.getResourceAsStream(indexPath)) {
-            if (indexStream == null) {
-              // Throw runtime unchecked exception to fail if fonts are downloaded incorrectly and
-              // are unavailable
-              throw new UncheckedIOException(new IOException("Font index not found: " + indexPath));
-            }
-
-            // Stream the index file and load the files listed into the fontMap
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(indexStream))) {
-              String fontFileName;
-              while ((fontFileName = reader.readLine()) != null) {
-                processFontFile(basePath, fontFileName, fontMap);
-              }
-            }
-          } catch (IOException e) {
-            // It's necessary for the project files to exist, so fail fast
-            throw new RuntimeException(
-                "Failed to load font library "
-                    + f
-                    + " essential for runtime execution with error: "
-                    + e);
-          }
-          return fontMap;
-        });
+  public static OcrEngine engine() {
+    return engine;
   }
 
   /**
-   * Private helper for loading a specified font bitmap into a font library. Mutates the given map,
-   * does not return anything, intended to be called in a loop. Expects the bitmap to be named as
-   * ascii codepoints and to be stored as resources. Loads each glyph as a greyscale mat with its
-   * corresponding character in String form.
+   * Loads a font glyph set from disk into the shared {@link FontStore}, if it is not already
+   * loaded. Only allows whitelisted glyphs.
    *
-   * @param path {@link String} path of the font bitmap inside resources
-   * @param fileName the name of the file including type (e.g., 68.bmp)
-   * @param map the map to mutate and add the name + Mat object to
-   * @throws IOException In the case that a glyph fails to load
+   * @param font Name of the font folder inside resources.
+   * @return An immutable map from character string to Mat (glyph image), which must not be
+   *     released.
    */
-  private static void processFontFile(String path, String fileName, Map<String, Mat> map)
-      throws IOException {
-    // Get the name ASCII codepoint from the filename
-    String cleanName = fileName.replace(".bmp", "");
-    int codePoint = Integer.parseInt(cleanName);
-    String character = Character.toString(codePoint);
-
-    if (!ALLOWED_CHARS.contains(character)) {
-      return;
-    }
-
-    try (InputStream is = Ocr.class.getResourceAsStream(path + fileName)) {
-      if (is == null) {
-        // It's necessary for the project files to exist, so fail fast
-        throw new FileNotFoundException("Font file not found: " + fileName);
-      }
-
-      // Add the character and Mat to the map
-      Mat img = Java2DFrameUtils.toMat(ImageIO.read(is));
-      cvtColor(img, img, COLOR_BGR2GRAY);
-      map.put(character, img);
-    }
+  public static Map<String, Mat> loadFont(String font) {
+    return FontStore.load(font);
   }
 
   /**
    * Extracts a string of text from a screen region ({@link Rectangle} zone) by template-matching
    * glyphs from a font. Note: this will not include any spaces.
    *
+   * <p>If the zone's pixels hash the same as an earlier extraction with the same font and colour,
+   * the earlier result is returned from the engine's {@link OcrCache} without matching again. This
+   * keeps polling loops that re-read static text, such as XP or HP counters, cheap.
+   *
    * @param zone Rectangle on screen to extract text from.
    * @param font Font name to use for glyph matching.
    * @param colour ColourObj specifying the color to isolate.
-   * @param clean Whether to clear internal match storage after use.
    * @return The extracted text string from the zone.
    */
-  public static String extractText(Rectangle zone, String font, ColourObj colour, boolean clean) {
-    Map<String, Mat> fontMap = loadFont(font);
-    matches.clear();
-    BufferedImage zoneImage = ScreenManager.captureZone(zone);
-    Mat zoneMat = ColourContours.extractColours(zoneImage, colour);
-    return extraction(fontMap, zoneMat, font, clean);
+  public static String extractText(Rectangle zone, String font, ColourObj colour) {
+    return engine.read(zone, font, colour).text();
   }
 
   /**
-   * Extracts a string of text from a screen region by template-matching glyphs from a font. Note:
-   * this will not include any spaces.
+   * Extracts a string of text from a screen region ({@link Rectangle} zone) by matching glyphs from
+   * a font in the given mode. Note: this will not include any spaces.
    *
-   * @param mask Mat CU81 mask to extract text from
+   * <p>{@link OcrMode#EXACT} suits single lines of clean text, such as counters and co-ordinates,
+   * and is far faster than the default {@link OcrMode#CORRELATION}.
+   *
+   * @param zone Rectangle on screen to extract text from.
    * @param font Font name to use for glyph matching.
-   * @param clean Whether to clear internal match storage after use.
+   * @param colour ColourObj specifying the color to isolate.
+   * @param mode How glyphs are found.
    * @return The extracted text string from the zone.
    */
-  public static String extractTextFromMask(Mat mask, String font, boolean clean) {
-    Map<String, Mat> fontMap = loadFont(font);
-    matches.clear();
-    return extraction(fontMap, mask.clone(), font, clean);
+  public static String extractText(Rectangle zone, String font, ColourObj colour, OcrMode mode) {
+    return engine.read(zone, font, colour, mode).text();
   }
 
   /**
-   * Internal function to perform Template matched OCR. Iterates over a font map, zeroing out the
-   * convolution as it goes.
+   * Reads a whole number, such as an orb or XP counter, from a screen region. Commas are read as
+   * thousands separators and skipped.
    *
-   * @param fontMap List of glyphs, string character & Mat bitmap.
-   * @param zoneMat Mat image of the source being searched within.
-   * @param font Type of font.
-   * @param clean Delete matches?
-   * @return String of extracted letters, no spaces.
+   * @param zone Rectangle on screen to read the number from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @return The number, or {@link OcrEngine#NOT_FOUND} if it could not be read.
    */
-  private static String extraction(
-      Map<String, Mat> fontMap, Mat zoneMat, String font, boolean clean) {
-    double threshold = 0.99;
-    // Supports (CV_8UC1) binary greyscale.
-    // Holds pointers and correlation as reusable memory allocation to avoid JNI overhead
-    try (DoublePointer minVal = new DoublePointer(1);
-        DoublePointer maxVal = new DoublePointer(1);
-        Point minLoc = new Point();
-        Point maxLoc = new Point();
-        Mat correlation = new Mat()) {
-      // Template match each glyph in the font to the zoneMat.
-      for (String glyph : fontMap.keySet()) {
-        // These are to store the glyph sizes outside of try with resources scope.
-        int glyphImgRows;
-        int glyphImgCols;
-
-        // We are trimming the font images and template matching -
-        // Based on the font type and how the image is stored.
-        int ycropModifier = getCropModifierForFont(font);
-
-        try (Rect roi =
-                new Rect(
-                    0,
-                    ycropModifier,
-                    fontMap.get(glyph).arrayWidth(),
-                    fontMap.get(glyph).arrayHeight() - ycropModifier);
-            Mat croppedGlyph = new Mat(fontMap.get(glyph), roi)) {
-          // Match template with cropped glyph and store size outside try-with-resources.
-          matchTemplate(zoneMat, croppedGlyph, correlation, TM_CCOEFF_NORMED);
-          glyphImgRows = croppedGlyph.rows();
-          glyphImgCols = croppedGlyph.cols();
-        }
-        // Call minMaxLoc repeatedly, zero out the area based on glyph size, save locations as
-        // CharMatch objs.
-        while (true) { // Loop breaks when threshold is not met.
-          minMaxLoc(correlation, minVal, maxVal, minLoc, maxLoc, null);
-
-          if (maxVal.get() < threshold) {
-            break;
-          }
-
-          Rectangle matchLocation =
-              new Rectangle(maxLoc.x(), maxLoc.y(), glyphImgCols, glyphImgRows);
-          matches.add(
-              new CharMatch(glyph, matchLocation.x, matchLocation.y, glyphImgCols, glyphImgRows));
-
-          zeroOutRegion(correlation, matchLocation);
-
-          Mat oldZoneMat = zoneMat;
-          zoneMat = MaskZones.maskZonesMat(zoneMat.clone(), matchLocation);
-          oldZoneMat.release();
-        }
-      }
-    } finally {
-      zoneMat.release();
-    }
-
-    // Sort CharMatch objects based on left-most positions.
-    matches.sort(Comparator.comparingInt(CharMatch::y).thenComparingInt(CharMatch::x));
-
-    StringBuilder result = new StringBuilder();
-    for (CharMatch match : matches) {
-      result.append(match.character());
-    }
+  public static long readNumber(Rectangle zone, String font, ColourObj colour) {
+    return engine.readNumber(zone, font, colour);
+  }
 
-    if (clean) {
-      matches.clear();
-    }
+  /**
+   * Reads a list of whole numbers separated by commas, such as a tile's {@code x,y,z}, from a
+   * screen region.
+   *
+   * @param zone Rectangle on screen to read the numbers from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @return The numbers in reading order, or an empty array if they could not be read.
+   */
+  public static long[] readNumbers(Rectangle zone, String font, ColourObj colour) {
+    return engine.readNumbers(zone, font, colour);
+  }
 
-    return result.toString();
+  /**
+   * Extracts a string of text from a screen region by template-matching glyphs from a font. Note:
+   * this will not include any spaces.
+   *
+   * @param mask Mat CU81 mask to extract text from
+   * @param font Font name to use for glyph matching.
+   * @return The extracted text string from the zone.
+   */
+  public static String extractTextFromMask(Mat mask, String font) {
+    return engine.readMask(mask, font).text();
   }
 
   /**
@@ -264,68 +125,7 @@ public class Ocr {
    */
   public static BufferedImage extractTextLocationMask(
       Rectangle zone, String font, String text, ColourObj colour) {
-    // Get the full window bounds (this must match the screen capture bounds)
-    Rectangle window = ScreenManager.getWindowBounds();
-
-    // Create a black mask matching the window size
-    Mat fullScreenMask = new Mat(window.height, window.width, CV_8UC1, new Scalar(0));
-
-    // Early exit: text doesn't match expected
-    if (!extractText(zone, font, colour, false).equals(text)) {
-      return null;
-    }
-
-    // Create a zone-sized mask where matched characters will be drawn
-    Mat zoneMask = new Mat(zone.height, zone.width, CV_8UC1, new Scalar(0));
-
-    // Draw rectangles for matched characters
-    for (CharMatch match : matches) {
-      rectangle(
-          zoneMask,
-          new Point(match.x(), match.y()),
-          new Point(match.x() + match.width(), match.y() + match.height()),
-          new Scalar(255),
-          FILLED,
-          LINE_8,
-          0);
-    }
-
-    // Convert screen-relative zone to window-relative position
-    Mat roiMat = getMat(zone, window, fullScreenMask);
-    zoneMask.copyTo(roiMat);
-
-    // Release temporary mats
-    zoneMask.release();
-    roiMat.release();
-
-    return Java2DFrameUtils.toBufferedImage(fullScreenMask);
-  }
-
-  /**
-   * Converts a zone-relative rectangle to a window-relative Mat region for masking.
-   *
-   * @param zone Ocr region.
-   * @param window Full window bounds from capture.
-   * @param fullScreenMask The full-screen output mask.
-   * @return A Mat region of interest inside the full screen mask.
-   * @throws IllegalArgumentException if the zone is outside the screen bounds.
-   */
-  private static Mat getMat(Rectangle zone, Rectangle window, Mat fullScreenMask) {
-    int relX = zone.x - window.x;
-    int relY = zone.y - window.y;
-
-    // Validate bounds to avoid OpenCV crash
-    if (relX < 0
-        || relY < 0
-        || relX + zone.width > window.width
-        || relY + zone.height > window.height) {
-      throw new IllegalArgumentException(
-          "Zone is outside the window bounds: zone=" + zone + ", window=" + window);
-    }
-
-    // Create region of interest in the full mask and copy the zone mask into it
-    Rect roi = new Rect(relX, relY, zone.width, zone.height);
-    return new Mat(fullScreenMask, roi);
+    return engine.locationMask(zone, font, text, colour);
   }
 
   /**
@@ -336,30 +136,39 @@ public class Ocr {
    * @param match The rectangle area to zero out.
    */
   public static void zeroOutRegion(Mat correlation, Rectangle match) {
-    // Make sure the rectangle is within bounds of the correlation Mat
-    int x = Math.max(match.x, 0);
-    int y = Math.max(match.y, 0);
-    int width = Math.min(match.width, correlation.cols() - x);
-    int height = Math.min(match.height, correlation.rows() - y);
-
-    if (width <= 0 || height <= 0) {
-      return;
-    }
+    OcrEngine.zeroOutRegion(correlation, match);
+  }
 
-    Rect roi = new Rect(x, y, width, height);
-    Mat subMat = new Mat(correlation, roi);
-    // Set all pixels in this region to 0 (lowest confidence)
-    subMat.setTo(new Mat(ZERO_SCALAR));
-    subMat.release();
+  /**
+   * Extracts a string of text from a screen region ({@link Rectangle} zone) by template-matching
+   * glyphs from a font. Note: this will not include any spaces.
+   *
+   * @param zone Rectangle on screen to extract text from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @param clean Ignored.
+   * @return The extracted text string from the zone.
+   * @deprecated Matches are no longer stored between calls, so there is nothing to clean. Use
+   *     {@link #extractText(Rectangle, String, ColourObj)}.
+   */
+  @Deprecated
+  public static String extractText(Rectangle zone, String font, ColourObj colour, boolean clean) {
+    return extractText(zone, font, colour);
   }
 
   /**
-   * Returns a vertical crop offset used when slicing glyph images, depending on font type.
+   * Extracts a string of text from a mask by template-matching glyphs from a font. Note: this will
+   * not include any spaces.
    *
-   * @param font Font name.
-   * @return Crop offset in pixels.
+   * @param mask Mat CU81 mask to extract text from
+   * @param font Font name to use for glyph matching.
+   * @param clean Ignored.
+   * @return The extracted text string from the mask.
+   * @deprecated Matches are no longer stored between calls, so there is nothing to clean. Use
+   *     {@link #extractTextFromMask(Mat, String)}.
    */
-  private static int getCropModifierForFont(String font) {
-    return Objects.equals(font, "Plain 12") ? 2 : 1;
+  @Deprecated
+  public static String extractTextFromMask(Mat mask, String font, boolean clean) {
+    return extractTextFromMask(mask, font);
   }
 }
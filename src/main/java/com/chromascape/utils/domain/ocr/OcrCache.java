@@ -0,0 +1,193 @@
+package com.chromascape.utils.domain.ocr;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * A least recently used cache of OCR results, addressed by the content of the zone that was read
+ * rather than by where it is. A zone whose pixels hash the same as an earlier read, in the same
+ * font, colour and mode, is answered from the cache with a single hash pass and no colour
+ * extraction or glyph matching. Polling loops that re-read unchanged text, such as chat lines, XP
+ * or the player's tile, become nearly free.
+ *
+ * <p>Hits, misses and evictions are counted for tuning the capacity. All methods are thread-safe.
+ *
+ * @param <V> The type of result cached
+ */
+public final class OcrCache<V> {
+
+  private static final long SEED = 0x9E3779B97F4A7C15L;
+
+  /**
+   * Identifies a read by what it read rather than where.
+   *
+   * @param font The font name.
+   * @param colour The colour isolated, identified by its name and HSV bounds.
+   * @param mode How glyphs are found.
+   * @param width The width of the zone.
+   * @param height The height of the zone.
+   * @param pixels A 64-bit hash of the zone's raw pixels, from {@link #hash(Mat)}.
+   */
+  public record Key(String font, String colour, OcrMode mode, int width, int height, long pixels) {}
+
+  private final int capacity;
+
+  private final Map<Key, V> entries;
+
+  private long hits;
+
+  private long misses;
+
+  private long evictions;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param capacity The most results kept before the least recently used is evicted.
+   * @throws IllegalArgumentException If the capacity is below one.
+   */
+  public OcrCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+            if (size() > OcrCache.this.capacity) {
+              evictions++;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Looks up a result, counting a hit or a miss.
+   *
+   * @param key The read to look up.
+   * @return The cached result, or {@code null} if there is none.
+   */
+  public synchronized V get(Key key) {
+    V value = entries.get(key);
+    if (value == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return value;
+  }
+
+  /**
+   * Stores a result, evicting the least recently used one if the cache is full.
+   *
+   * @param key The read the result is for.
+   * @param value The result.
+   */
+  public synchronized void put(Key key, V value) {
+    entries.put(key, value);
+  }
+
+  /** Removes every result. The counters are kept. */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Gets the number of results held.
+   *
+   * @return The current size.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Gets the most results the cache holds.
+   *
+   * @return The capacity.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets how many lookups found a result.
+   *
+   * @return The hit count since the cache was created.
+   */
+  public synchronized long hits() {
+    return hits;
+  }
+
+  /**
+   * Gets how many lookups found nothing.
+   *
+   * @return The miss count since the cache was created.
+   */
+  public synchronized long misses() {
+    return misses;
+  }
+
+  /**
+   * Gets how many results were evicted to make room.
+   *
+   * @return The eviction count since the cache was created.
+   */
+  public synchronized long evictions() {
+    return evictions;
+  }
+
+  /**
+   * Hashes the raw pixels of an image or a region of one. The pixels are read once, row by row,
+   * straight out of native memory eight bytes at a time.
+   *
+   * @param region The image or region of interest to hash.
+   * @return A 64-bit hash of the pixels.
+   */
+  public static long hash(Mat region) {
+    int rows = region.rows();
+    if (rows == 0 || region.cols() == 0) {
+      return SEED;
+    }
+    long step = region.step();
+    int rowBytes = (int) (region.cols() * region.elemSize());
+    ByteBuffer pixels =
+        region
+            .data()
+            .capacity(step * (rows - 1) + rowBytes)
+            .asByteBuffer()
+            .order(ByteOrder.LITTLE_ENDIAN);
+    long hash = SEED;
+    for (int y = 0; y < rows; y++) {
+      int start = (int) (y * step);
+      int end = start + rowBytes;
+      int i = start;
+      for (; i + 8 <= end; i += 8) {
+        hash = mix(hash, pixels.getLong(i));
+      }
+      for (; i < end; i++) {
+        hash = mix(hash, pixels.get(i));
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Internal helper to fold up to eight bytes into a running hash.
+   *
+   * @param hash The running hash
+   * @param value The bytes to fold in
+   * @return The updated hash
+   */
+  private static long mix(long hash, long value) {
+    hash ^= value * 0xC2B2AE3D27D4EB4FL;
+    hash = Long.rotateLeft(hash, 31) * SEED;
+    return hash;
+  }
+}
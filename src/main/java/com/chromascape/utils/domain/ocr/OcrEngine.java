@@ -0,0 +1,610 @@
+package com.chromascape.utils.domain.ocr;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_core.minMaxLoc;
+import static org.bytedeco.opencv.global.opencv_imgproc.FILLED;
+import static org.bytedeco.opencv.global.opencv_imgproc.LINE_8;
+import static org.bytedeco.opencv.global.opencv_imgproc.TM_CCOEFF_NORMED;
+import static org.bytedeco.opencv.global.opencv_imgproc.matchTemplate;
+import static org.bytedeco.opencv.global.opencv_imgproc.rectangle;
+
+import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.topology.ColourContours;
+import com.chromascape.utils.core.screen.window.FrameSnapshot;
+import com.chromascape.utils.core.screen.window.ScreenManager;
+import com.chromascape.utils.domain.zones.MaskZones;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacv.Java2DFrameUtils;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+/**
+ * Template-matched OCR over font glyphs from the shared {@link FontStore}.
+ *
+ * <p>Every read returns its own {@link OcrResult}, and an engine holds no per-read state, so one
+ * engine can be used by several threads at once, e.g. the script thread and the walker's path
+ * precompute, or to read several zones in parallel. {@link Ocr} wraps a shared engine for the
+ * existing static API.
+ */
+public class OcrEngine {
+
+  /** Correlation a glyph must reach to be accepted, as {@link Ocr} has always used. */
+  public static final double DEFAULT_THRESHOLD = 0.99;
+
+  /** Returned by {@link #readNumber} when no number could be read. */
+  public static final long NOT_FOUND = -1;
+
+  /** Most digits a {@code long} always holds. */
+  private static final int MAX_DIGITS = 18;
+
+  /** Stands in for the colour in the cache keys of masks, whose colour is already isolated. */
+  private static final String MASK_COLOUR = "mask";
+
+  /** How many recent {@link #read} results are kept for reuse by default. */
+  public static final int DEFAULT_CACHE_SIZE = 256;
+
+  private final double threshold;
+
+  /** Recent results, reused whenever a zone's pixels hash the same as an earlier read's. */
+  private final OcrCache<OcrResult> cache;
+
+  /** Creates an engine with the {@link #DEFAULT_THRESHOLD}. */
+  public OcrEngine() {
+    this(DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Creates an engine that accepts glyphs at or above a given correlation.
+   *
+   * @param threshold The minimum normalised correlation of a glyph match, from 0 to 1.
+   * @throws IllegalArgumentException If the threshold is outside 0 to 1.
+   */
+  public OcrEngine(double threshold) {
+    this(threshold, DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Creates an engine that accepts glyphs at or above a given correlation, caching a given number
+   * of recent results.
+   *
+   * @param threshold The minimum normalised correlation of a glyph match, from 0 to 1.
+   * @param cacheSize The most results kept in the engine's {@link OcrCache}.
+   * @throws IllegalArgumentException If the threshold is outside 0 to 1, or the cache size is
+   *     below one.
+   */
+  public OcrEngine(double threshold, int cacheSize) {
+    if (threshold < 0 || threshold > 1) {
+      throw new IllegalArgumentException("Threshold must be between 0 and 1: " + threshold);
+    }
+    this.threshold = threshold;
+    this.cache = new OcrCache<>(cacheSize);
+  }
+
+  /**
+   * Gets the cache of recent results, e.g. to inspect its hit rate.
+   *
+   * @return The engine's {@link OcrCache}.
+   */
+  public OcrCache<OcrResult> cache() {
+    return cache;
+  }
+
+  /**
+   * Reads the text in a screen region ({@link Rectangle} zone) by template-matching glyphs from a
+   * font, in {@link OcrMode#CORRELATION} mode. Note: this will not include any spaces.
+   *
+   * @param zone Rectangle on screen to extract text from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @return The characters read, with their positions and confidences.
+   */
+  public OcrResult read(Rectangle zone, String font, ColourObj colour) {
+    return read(zone, font, colour, OcrMode.CORRELATION);
+  }
+
+  /**
+   * Reads the text in a screen region ({@link Rectangle} zone) by matching glyphs from a font in
+   * the given mode. Note: this will not include any spaces.
+   *
+   * <p>If the zone's raw pixels hash the same as an earlier read in the same font, colour and
+   * mode, wherever that zone was, the earlier result is returned from the {@link OcrCache} without
+   * extracting colours or matching glyphs. This keeps polling loops that re-read static text, such
+   * as XP or HP counters, cheap.
+   *
+   * @param zone Rectangle on screen to extract text from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @param mode How glyphs are found.
+   * @return The characters read, with their positions and confidences.
+   */
+  public OcrResult read(Rectangle zone, String font, ColourObj colour, OcrMode mode) {
+    OcrCache.Key key;
+    Mat zoneMat;
+    try (FrameSnapshot frame = ScreenManager.snapshot()) {
+      if (frame == null) {
+        throw new RuntimeException("Screen could not be captured");
+      }
+      try (Mat zoneImage = frame.region(zone)) {
+        key =
+            new OcrCache.Key(
+                font,
+                colourKey(colour),
+                mode,
+                zone.width,
+                zone.height,
+                OcrCache.hash(zoneImage));
+        OcrResult cached = cache.get(key);
+        if (cached != null) {
+          return cached;
+        }
+        zoneMat = ColourContours.extractColours(zoneImage, colour);
+      }
+    }
+    // Positions are relative to the zone, so the result holds wherever these pixels appear
+    OcrResult result = decode(font, zoneMat, mode);
+    cache.put(key, result);
+    return result;
+  }
+
+  /**
+   * Reads a whole number, such as an orb or XP counter, in {@link OcrMode#NUMERIC} mode. Commas
+   * are read as thousands separators and skipped. Digits are accumulated straight into the value,
+   * without building or parsing a string.
+   *
+   * @param zone Rectangle on screen to read the number from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @return The number, or {@link #NOT_FOUND} if the zone holds no digits or too many for a {@code
+   *     long}.
+   */
+  public long readNumber(Rectangle zone, String font, ColourObj colour) {
+    return toNumber(read(zone, font, colour, OcrMode.NUMERIC).matches());
+  }
+
+  /**
+   * Reads a whole number from a binary mask in {@link OcrMode#NUMERIC} mode, for callers that have
+   * already isolated the text's colour, e.g. from one {@link
+   * com.chromascape.utils.core.screen.colour.LabelMap} shared by several zones. Commas are read as
+   * thousands separators and skipped.
+   *
+   * @param mask Mat CV_8UC1 mask to read the number from, which is not modified.
+   * @param font Font name to use for glyph matching.
+   * @return The number, or {@link #NOT_FOUND} if the mask holds no digits or too many for a {@code
+   *     long}.
+   */
+  public long readNumber(Mat mask, String font) {
+    return toNumber(readMask(mask, font, OcrMode.NUMERIC).matches());
+  }
+
+  /**
+   * Internal helper to accumulate matched digits into a number, skipping commas.
+   *
+   * @param matches The matched characters, in reading order.
+   * @return The number, or {@link #NOT_FOUND} if there are no digits or too many.
+   */
+  private static long toNumber(List<CharMatch> matches) {
+    return toNumber(matches, 0, matches.size());
+  }
+
+  /**
+   * Internal helper to accumulate a run of matched digits into a number, skipping commas.
+   *
+   * @param matches The matched characters, in reading order.
+   * @param from The index of the run's first character.
+   * @param to The index after the run's last character.
+   * @return The number, or {@link #NOT_FOUND} if there are no digits or too many.
+   */
+  private static long toNumber(List<CharMatch> matches, int from, int to) {
+    long value = 0;
+    int digits = 0;
+    for (int i = from; i < to; i++) {
+      char c = matches.get(i).character().charAt(0);
+      if (c == ',') {
+        continue;
+      }
+      if (c < '0' || c > '9' || ++digits > MAX_DIGITS) {
+        return NOT_FOUND;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return digits == 0 ? NOT_FOUND : value;
+  }
+
+  /**
+   * Reads a list of whole numbers separated by commas, such as a tile's {@code x,y,z}, in {@link
+   * OcrMode#NUMERIC} mode. Digits are accumulated straight into the values, without building or
+   * parsing strings.
+   *
+   * @param zone Rectangle on screen to read the numbers from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @return The numbers in reading order, or an empty array if the zone holds no digits, has a
+   *     comma without digits on both sides, or a number too long for a {@code long}.
+   */
+  public long[] readNumbers(Rectangle zone, String font, ColourObj colour) {
+    List<CharMatch> matches = read(zone, font, colour, OcrMode.NUMERIC).matches();
+    long[] values = new long[matches.size() + 1];
+    int count = 0;
+    int start = 0;
+    for (int i = 0; i <= matches.size(); i++) {
+      if (i < matches.size() && matches.get(i).character().charAt(0) != ',') {
+        continue;
+      }
+      // Each run between commas holds no commas, so it is read as a single number
+      long value = toNumber(matches, start, i);
+      if (value == NOT_FOUND) {
+        return new long[0];
+      }
+      values[count++] = value;
+      start = i + 1;
+    }
+    return Arrays.copyOf(values, count);
+  }
+
+  /**
+   * Reads the text in a binary mask by template-matching glyphs from a font, in {@link
+   * OcrMode#CORRELATION} mode. Note: this will not include any spaces.
+   *
+   * @param mask Mat CV_8UC1 mask to extract text from, which is not modified.
+   * @param font Font name to use for glyph matching.
+   * @return The characters read, with their positions and confidences.
+   */
+  public OcrResult readMask(Mat mask, String font) {
+    return readMask(mask, font, OcrMode.CORRELATION);
+  }
+
+  /**
+   * Reads the text in a binary mask by matching glyphs from a font in the given mode. Note: this
+   * will not include any spaces.
+   *
+   * <p>Masks are cached like zones in {@link #read(Rectangle, String, ColourObj, OcrMode)}, keyed
+   * on the mask's own pixels, so re-reading an unchanged mask costs a single hash pass.
+   *
+   * @param mask Mat CV_8UC1 mask to extract text from, which is not modified.
+   * @param font Font name to use for glyph matching.
+   * @param mode How glyphs are found.
+   * @return The characters read, with their positions and confidences.
+   */
+  public OcrResult readMask(Mat mask, String font, OcrMode mode) {
+    OcrCache.Key key =
+        new OcrCache.Key(
+            font, MASK_COLOUR, mode, mask.cols(), mask.rows(), OcrCache.hash(mask));
+    OcrResult cached = cache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    OcrResult result = decode(font, mask.clone(), mode);
+    cache.put(key, result);
+    return result;
+  }
+
+  /**
+   * Returns a BufferedImage mask representing matched glyph positions within a screen region. This
+   * is useful for clicking text. You are intended to extract contours from this and use it as a
+   * ChromaObj.
+   *
+   * @param zone Rectangle on screen to perform Ocr in.
+   * @param font Font name to use for glyph matching.
+   * @param text Expected string result; skips mask generation if mismatched.
+   * @param colour ColourObj specifying the color to isolate.
+   * @return A BufferedImage mask of the matched character zones, or null if text doesn't match.
+   */
+  public BufferedImage locationMask(Rectangle zone, String font, String text, ColourObj colour) {
+    // Early exit: text doesn't match expected
+    OcrResult result = read(zone, font, colour);
+    if (!result.text().equals(text)) {
+      return null;
+    }
+
+    // Get the full window bounds (this must match the screen capture bounds)
+    Rectangle window = ScreenManager.getWindowBounds();
+
+    // Create a black mask matching the window size
+    Mat fullScreenMask = new Mat(window.height, window.width, CV_8UC1, new Scalar(0));
+
+    // Create a zone-sized mask where matched characters will be drawn
+    Mat zoneMask = new Mat(zone.height, zone.width, CV_8UC1, new Scalar(0));
+
+    // Draw rectangles for this read's matched characters
+    for (CharMatch match : result.matches()) {
+      rectangle(
+          zoneMask,
+          new Point(match.x(), match.y()),
+          new Point(match.x() + match.width(), match.y() + match.height()),
+          new Scalar(255),
+          FILLED,
+          LINE_8,
+          0);
+    }
+
+    // Convert screen-relative zone to window-relative position
+    Mat roiMat = getMat(zone, window, fullScreenMask);
+    zoneMask.copyTo(roiMat);
+
+    // Release temporary mats
+    zoneMask.release();
+    roiMat.release();
+
+    return Java2DFrameUtils.toBufferedImage(fullScreenMask);
+  }
+
+  /**
+   * Internal helper to read a mask in the given mode.
+   *
+   * @param font Font name to use for glyph matching.
+   * @param zoneMat Mat CV_8UC1 mask to read, released by this call.
+   * @param mode How glyphs are found.
+   * @return The characters read, in reading order.
+   */
+  private OcrResult decode(String font, Mat zoneMat, OcrMode mode) {
+    return switch (mode) {
+      case EXACT -> exactExtraction(GlyphTable.forFont(font), zoneMat);
+      case NUMERIC -> exactExtraction(GlyphTable.forDigits(font), zoneMat);
+      case CORRELATION -> extraction(FontStore.load(font), zoneMat);
+    };
+  }
+
+  /**
+   * Internal function to perform exact-match OCR on a single line of text. Splits the mask into
+   * spans of inked columns and looks each up in a {@link GlyphTable}. Consecutive spans
+   * are tried together first, widest first, so glyphs with blank columns inside them, such as a
+   * double quote, are not read as their halves. Spans that match no glyph, or several, are read by
+   * correlation within their columns instead, against the table's glyphs only.
+   *
+   * @param table The glyphs to read, by bitmap.
+   * @param zoneMat Mat CV_8UC1 mask to read, released by this call.
+   * @return The characters read, left to right.
+   */
+  private OcrResult exactExtraction(GlyphTable table, Mat zoneMat) {
+    List<CharMatch> matches = new ArrayList<>();
+    try {
+      int cols = zoneMat.cols();
+      int rows = zoneMat.rows();
+      byte[] pixels = new byte[rows * cols];
+      for (int y = 0; y < rows; y++) {
+        zoneMat.ptr(y).get(pixels, y * cols, cols);
+      }
+
+      // Runs of columns holding any ink, as start and end (exclusive) pairs
+      List<int[]> spans = new ArrayList<>();
+      int start = -1;
+      for (int x = 0; x <= cols; x++) {
+        boolean inked = false;
+        for (int y = 0; x < cols && y < rows && !inked; y++) {
+          inked = pixels[y * cols + x] != 0;
+        }
+        if (inked && start < 0) {
+          start = x;
+        } else if (!inked && start >= 0) {
+          spans.add(new int[] {start, x});
+          start = -1;
+        }
+      }
+
+      int i = 0;
+      while (i < spans.size()) {
+        int resolved = -1;
+        int last = i;
+        while (last + 1 < spans.size()
+            && spans.get(last + 1)[1] - spans.get(i)[0] <= table.maxInkWidth()) {
+          last++;
+        }
+        for (int j = last; j >= i && resolved < 0; j--) {
+          GlyphTable.Bitmap bitmap =
+              GlyphTable.Bitmap.of(pixels, cols, spans.get(i)[0], spans.get(j)[1], 0, rows);
+          GlyphTable.Entry entry = table.lookup(bitmap);
+          if (entry != null && !entry.ambiguous()) {
+            matches.add(
+                new CharMatch(
+                    entry.character(),
+                    bitmap.left - entry.offsetX(),
+                    bitmap.top - entry.offsetY(),
+                    entry.width(),
+                    entry.height(),
+                    1));
+            resolved = j;
+          }
+        }
+        if (resolved < 0) {
+          correlateSpan(zoneMat, table, spans.get(i), matches);
+          resolved = i;
+        }
+        i = resolved + 1;
+      }
+    } finally {
+      zoneMat.release();
+    }
+
+    matches.sort(Comparator.comparingInt(CharMatch::x));
+    StringBuilder result = new StringBuilder();
+    for (CharMatch match : matches) {
+      result.append(match.character());
+    }
+    return new OcrResult(result.toString(), matches);
+  }
+
+  /**
+   * Internal helper to read one span of columns by correlation, for the exact-match mode. Matches
+   * in a region wide enough for any glyph around the span, and keeps those centred on the span.
+   *
+   * @param zoneMat The mask being read.
+   * @param table The glyph table whose glyphs to match.
+   * @param span The span's first column and the column after its last.
+   * @param matches The matches to add to, in mask co-ordinates.
+   */
+  private void correlateSpan(Mat zoneMat, GlyphTable table, int[] span, List<CharMatch> matches) {
+    int pad = table.maxGlyphWidth();
+    int from = Math.max(0, span[0] - pad);
+    int to = Math.min(zoneMat.cols(), span[1] + pad);
+    OcrResult region;
+    try (Rect roi = new Rect(from, 0, to - from, zoneMat.rows());
+        Mat columns = new Mat(zoneMat, roi)) {
+      region = extraction(table.glyphs(), columns.clone());
+    }
+    for (CharMatch match : region.matches()) {
+      int centre = from + match.x() + match.width() / 2;
+      if (centre >= span[0] && centre < span[1]) {
+        matches.add(
+            new CharMatch(
+                match.character(),
+                from + match.x(),
+                match.y(),
+                match.width(),
+                match.height(),
+                match.confidence()));
+      }
+    }
+  }
+
+  /**
+   * Internal function to perform Template matched OCR. Iterates over a font map, zeroing out the
+   * convolution as it goes. Every buffer is local to the call, so calls may run concurrently.
+   *
+   * @param glyphs Glyphs of the font, string character & Mat bitmap.
+   * @param zoneMat Mat image of the source being searched within, released by this call.
+   * @return The characters read, in reading order.
+   */
+  private OcrResult extraction(Map<String, Mat> glyphs, Mat zoneMat) {
+    List<CharMatch> matches = new ArrayList<>();
+    // Supports (CV_8UC1) binary greyscale.
+    // Holds pointers and correlation as reusable memory allocation to avoid JNI overhead
+    try (DoublePointer minVal = new DoublePointer(1);
+        DoublePointer maxVal = new DoublePointer(1);
+        Point minLoc = new Point();
+        Point maxLoc = new Point();
+        Mat correlation = new Mat()) {
+      // Template match each glyph in the font to the zoneMat.
+      for (Map.Entry<String, Mat> glyph : glyphs.entrySet()) {
+        Mat glyphImg = glyph.getValue();
+        matchTemplate(zoneMat, glyphImg, correlation, TM_CCOEFF_NORMED);
+        int glyphImgRows = glyphImg.rows();
+        int glyphImgCols = glyphImg.cols();
+
+        // Call minMaxLoc repeatedly, zero out the area based on glyph size, save locations as
+        // CharMatch objs.
+        while (true) { // Loop breaks when threshold is not met.
+          minMaxLoc(correlation, minVal, maxVal, minLoc, maxLoc, null);
+
+          if (maxVal.get() < threshold) {
+            break;
+          }
+
+          Rectangle matchLocation =
+              new Rectangle(maxLoc.x(), maxLoc.y(), glyphImgCols, glyphImgRows);
+          matches.add(
+              new CharMatch(
+                  glyph.getKey(),
+                  matchLocation.x,
+                  matchLocation.y,
+                  glyphImgCols,
+                  glyphImgRows,
+                  Math.min(maxVal.get(), 1)));
+
+          zeroOutRegion(correlation, matchLocation);
+
+          Mat oldZoneMat = zoneMat;
+          zoneMat = MaskZones.maskZonesMat(zoneMat.clone(), matchLocation);
+          oldZoneMat.release();
+        }
+      }
+    } finally {
+      zoneMat.release();
+    }
+
+    // Sort CharMatch objects based on left-most positions.
+    matches.sort(Comparator.comparingInt(CharMatch::y).thenComparingInt(CharMatch::x));
+
+    StringBuilder result = new StringBuilder();
+    for (CharMatch match : matches) {
+      result.append(match.character());
+    }
+    return new OcrResult(result.toString(), matches);
+  }
+
+  /**
+   * Internal helper to identify a colour by value, as {@link ColourObj} bounds do not implement
+   * equality.
+   *
+   * @param colour The colour to identify
+   * @return A key unique to the colour's name and HSV bounds
+   */
+  private static String colourKey(ColourObj colour) {
+    Scalar min = colour.hsvMin();
+    Scalar max = colour.hsvMax();
+    return colour.name()
+        + ":"
+        + min.get(0)
+        + ","
+        + min.get(1)
+        + ","
+        + min.get(2)
+        + ":"
+        + max.get(0)
+        + ","
+        + max.get(1)
+        + ","
+        + max.get(2);
+  }
+
+  /**
+   * Converts a zone-relative rectangle to a window-relative Mat region for masking.
+   *
+   * @param zone Ocr region.
+   * @param window Full window bounds from capture.
+   * @param fullScreenMask The full-screen output mask.
+   * @return A Mat region of interest inside the full screen mask.
+   * @throws IllegalArgumentException if the zone is outside the screen bounds.
+   */
+  private static Mat getMat(Rectangle zone, Rectangle window, Mat fullScreenMask) {
+    int relX = zone.x - window.x;
+    int relY = zone.y - window.y;
+
+    // Validate bounds to avoid OpenCV crash
+    if (relX < 0
+        || relY < 0
+        || relX + zone.width > window.width
+        || relY + zone.height > window.height) {
+      throw new IllegalArgumentException(
+          "Zone is outside the window bounds: zone=" + zone + ", window=" + window);
+    }
+
+    // Create region of interest in the full mask and copy the zone mask into it
+    Rect roi = new Rect(relX, relY, zone.width, zone.height);
+    return new Mat(fullScreenMask, roi);
+  }
+
+  /**
+   * Sets all values in a rectangular region of a correlation matrix to zero. This prevents repeated
+   * template matches in the same area.
+   *
+   * @param correlation The template match result matrix.
+   * @param match The rectangle area to zero out.
+   */
+  static void zeroOutRegion(Mat correlation, Rectangle match) {
+    // Make sure the rectangle is within bounds of the correlation Mat
+    int x = Math.max(match.x, 0);
+    int y = Math.max(match.y, 0);
+    int width = Math.min(match.width, correlation.cols() - x);
+    int height = Math.min(match.height, correlation.rows() - y);
+
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+
+    try (Rect roi = new Rect(x, y, width, height);
+        Mat subMat = new Mat(correlation, roi);
+        Scalar zero = new Scalar(0)) {
+      // Set all pixels in this region to 0 (lowest confidence)
+      subMat.put(zero);
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.chromascape.utils.domain.ocr;
+
+/** How {@link OcrEngine} finds glyphs in a text mask. */
+public enum OcrMode {
+
+  /**
+   * Template matches every glyph of the font over the whole zone with normalised correlation.
+   * Tolerates touching glyphs and multi-line zones, at the cost of one {@code matchTemplate} per
+   * glyph.
+   */
+  CORRELATION,
+
+  /**
+   * Splits single-line text into runs of inked columns and looks each run up by its exact bitmap.
+   * Orders of magnitude faster on clean text such as counters and co-ordinates. Runs that match no
+   * glyph, or several, fall back to correlation within their columns.
+   */
+  EXACT,
+
+  /**
+   * {@link #EXACT} restricted to the font's digits and comma, for numeric readouts such as orbs,
+   * XP and co-ordinates. Any other ink is either read as a digit or comma by correlation, or not
+   * at all.
+   */
+  NUMERIC
+}
@@ -0,0 +1,48 @@
+package com.chromascape.utils.domain.ocr;
+
+import java.util.List;
+
+/**
+ * The result of one OCR read, owned by the caller. Unlike the shared match list {@link Ocr} used
+ * to keep, each read gets its own result, so concurrent reads cannot see each other's characters.
+ *
+ * @param text The characters read, in reading order, without spaces.
+ * @param matches The matched characters with their positions and confidences, in reading order.
+ */
+public record OcrResult(String text, List<CharMatch> matches) {
+
+  /** A read that found no characters. */
+  public static final OcrResult EMPTY = new OcrResult("", List.of());
+
+  /**
+   * Copies the matches so the result cannot change after it is returned.
+   *
+   * @param text The characters read.
+   * @param matches The matched characters.
+   */
+  public OcrResult {
+    matches = List.copyOf(matches);
+  }
+
+  /**
+   * Checks whether any characters were read.
+   *
+   * @return {@code true} if no characters matched
+   */
+  public boolean isEmpty() {
+    return matches.isEmpty();
+  }
+
+  /**
+   * Gets the confidence of the read, that of its least certain character.
+   *
+   * @return The lowest character confidence, or {@code 0} if no characters matched
+   */
+  public double confidence() {
+    double lowest = matches.isEmpty() ? 0 : 1;
+    for (CharMatch match : matches) {
+      lowest = Math.min(lowest, match.confidence());
+    }
+    return lowest;
+  }
+}
@@ -9,11 +9,9 @@ import com.chromascape.controller.Controller;
 import com.chromascape.utils.core.screen.colour.ColourObj;
 import com.chromascape.utils.core.screen.window.ScreenManager;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import org.bytedeco.javacpp.PointerScope;
-import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Point2f;
 import org.bytedeco.opencv.opencv_core.Scalar;
@@ -206,9 +204,8 @@ public class Compass {
    */
   private Mat captureRedMarkerMask() {
     Rectangle zone = controller.zones().getMinimap().get("compassSimilarity");
-    BufferedImage img = ScreenManager.captureZone(zone);
 
-    Mat src = Java2DFrameUtils.toMat(img);
+    Mat src = ScreenManager.captureZoneMat(zone);
     Mat hsv = new Mat();
     Mat mask = new Mat();
 
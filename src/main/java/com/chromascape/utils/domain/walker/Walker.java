@@ -15,7 +15,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CancellationException;
@@ -88,18 +87,20 @@ public class Walker {
   /**
    * Gets the player's position by using runtime OCR on the GridInfo's "Tile" zone.
    *
-   * @return An integer array with 3 elements - x, y and z.
+   * @return The player's tile - x, y and z.
+   * @throws IllegalStateException If the tile zone could not be read as three numbers, or a number
+   *     is out of range for a coordinate.
    */
   public Tile getPlayerPosition() {
     Rectangle zone = controller.zones().getGridInfo().get("Tile");
     ColourObj colour = ColourInstances.getByName("White");
-    // Extracts the position using OCR and splits it into a 3 value list (x, y, z)
-    List<String> stringPos =
-        Arrays.asList(Ocr.extractText(zone, "Plain 12", colour, true).split(","));
+    // Reads the position using numeric OCR as a 3 value list (x, y, z)
+    long[] position = Ocr.readNumbers(zone, "Plain 12", colour);
+    if (position.length != 3) {
+      throw new IllegalStateException("Could not read the player's tile from the GridInfo zone");
+    }
     return new Tile(
-        Integer.parseInt(stringPos.get(0)),
-        Integer.parseInt(stringPos.get(1)),
-        Integer.parseInt(stringPos.get(2)));
+        toCoordinate(position[0]), toCoordinate(position[1]), toCoordinate(position[2]));
   }
 
   /**
@@ -313,4 +314,20 @@ public class Walker {
       }
     }
   }
+
+  /**
+   * Internal helper to narrow a read tile coordinate to an {@code int}. A misread can produce up to
+   * 18 digits, which no coordinate has, so anything outside the {@code int} range is rejected
+   * rather than wrapped into an arbitrary tile.
+   *
+   * @param value The number read from the tile zone
+   * @return The coordinate
+   * @throws IllegalStateException If the value does not fit in an {@code int}
+   */
+  private static int toCoordinate(long value) {
+    if (value < 0 || value > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Read an out of range tile coordinate: " + value);
+    }
+    return (int) value;
+  }
 }
@@ -2,10 +2,10 @@ package com.chromascape.utils.domain.zones;
 
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import org.bytedeco.javacpp.indexer.UByteRawIndexer;
 import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
 
 /**
  * Utility class for applying rectangular masks to images.
@@ -57,29 +57,11 @@ public class MaskZones {
       throw new IllegalArgumentException("Mask rectangle out of bounds: " + rect);
     }
 
-    Mat roi = new Mat(output, rect);
-
-    if (output.channels() == 1) {
-      UByteRawIndexer indexer = roi.createIndexer();
-      for (int y = 0; y < rect.height(); y++) {
-        for (int x = 0; x < rect.width(); x++) {
-          indexer.put(y, x, 0);
-        }
-      }
-      indexer.release();
-    } else if (output.channels() == 3) {
-      UByteRawIndexer indexer = roi.createIndexer();
-      for (int y = 0; y < rect.height(); y++) {
-        for (int x = 0; x < rect.width(); x++) {
-          indexer.put(y, x, 0, 0); // B
-          indexer.put(y, x, 1, 0); // G
-          indexer.put(y, x, 2, 0); // R
-        }
-      }
-      indexer.release();
+    // Zeroes every channel, including the alpha of BGRA frames
+    try (Mat roi = new Mat(output, rect);
+        Scalar black = new Scalar(0, 0, 0, 0)) {
+      roi.put(black);
     }
-
-    roi.release();
     return output;
   }
 }
@@ -1,7 +1,9 @@
 package com.chromascape.utils.domain.zones;
 
+import com.chromascape.utils.core.screen.topology.MatchMode;
 import com.chromascape.utils.core.screen.topology.MatchResult;
 import com.chromascape.utils.core.screen.topology.TemplateMatching;
+import com.chromascape.utils.core.screen.window.FrameSnapshot;
 import com.chromascape.utils.core.screen.window.ScreenManager;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
@@ -9,6 +11,10 @@ import java.util.List;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bytedeco.javacv.Java2DFrameUtils;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
 
 /**
  * Manages the detection and mapping of key UI zones within the RuneLite client window, including
@@ -45,6 +51,9 @@ public class ZoneManager {
   private Rectangle ctrlPanelBounds;
   private Rectangle chatBounds;
 
+  /** Fill value used to black out UI zones in the game view. */
+  private static final Scalar BLACK = new Scalar(0, 0, 0, 0);
+
   /** Default template matching threshold to verify that an image is matched successfully. */
   private static final double THRESHOLD = 0.15;
 
@@ -97,15 +106,16 @@ public class ZoneManager {
    * @return {@code boolean} True if Fixed classic, false if Resizable classic.
    */
   private boolean checkIfFixed() {
-    BufferedImage screen = ScreenManager.captureWindow();
-
-    MatchResult result = TemplateMatching.match(zoneTemplates[0], screen, THRESHOLD);
-    double resizableMinVal = result.score();
+    try (Mat screen = ScreenManager.captureWindowMat()) {
+      MatchResult result =
+          TemplateMatching.match(zoneTemplates[0], screen, THRESHOLD, MatchMode.PYRAMID);
+      double resizableMinVal = result.score();
 
-    result = TemplateMatching.match(zoneTemplates[3], screen, THRESHOLD);
-    double fixedMinVal = result.score();
+      result = TemplateMatching.match(zoneTemplates[3], screen, THRESHOLD, MatchMode.PYRAMID);
+      double fixedMinVal = result.score();
 
-    return fixedMinVal < resizableMinVal;
+      return fixedMinVal < resizableMinVal;
+    }
   }
 
   /**
@@ -120,17 +130,47 @@ public class ZoneManager {
    * @return A {@link BufferedImage} representing the game viewport screenshot.
    */
   public BufferedImage getGameView() {
-    BufferedImage gameViewMask = ScreenManager.captureWindow();
-    if (ctrlPanelBounds != null) {
-      gameViewMask = MaskZones.maskZones(gameViewMask, ctrlPanelBounds);
+    try (Mat gameView = getGameViewMat()) {
+      return Java2DFrameUtils.toBufferedImage(gameView);
     }
-    if (chatBounds != null) {
-      gameViewMask = MaskZones.maskZones(gameViewMask, chatBounds);
+  }
+
+  /**
+   * Captures the current game viewport area as a native BGRA {@link Mat}, with the minimap,
+   * control panel and chat zones blacked out. This is the same image as {@link #getGameView()}
+   * without the round trip through a {@link BufferedImage}.
+   *
+   * <p>The returned Mat is an independent copy of the frame and must be released by the caller.
+   *
+   * @return A {@link Mat} representing the game viewport screenshot.
+   * @throws RuntimeException If the screen could not be captured
+   */
+  public Mat getGameViewMat() {
+    Mat gameView;
+    // Copy exactly once, masking must never write back into a shared or live frame
+    try (FrameSnapshot snapshot = ScreenManager.snapshot()) {
+      if (snapshot == null) {
+        throw new RuntimeException("Screen could not be captured");
+      }
+      try (Mat screen = snapshot.view()) {
+        gameView = screen.clone();
+      }
     }
-    if (minimapBounds != null) {
-      gameViewMask = MaskZones.maskZones(gameViewMask, minimapBounds);
+    Rectangle frame = new Rectangle(0, 0, gameView.cols(), gameView.rows());
+    for (Rectangle bounds : new Rectangle[] {ctrlPanelBounds, chatBounds, minimapBounds}) {
+      if (bounds == null) {
+        continue;
+      }
+      Rectangle clipped = bounds.intersection(frame);
+      if (clipped.isEmpty()) {
+        continue;
+      }
+      try (Rect rect = new Rect(clipped.x, clipped.y, clipped.width, clipped.height);
+          Mat roi = new Mat(gameView, rect)) {
+        roi.put(BLACK);
+      }
     }
-    return gameViewMask;
+    return gameView;
   }
 
   /**
@@ -141,7 +181,9 @@ public class ZoneManager {
    * @return A {@link Rectangle} representing the bounds of the matched UI element.
    */
   public Rectangle locateUiElement(String templatePath) {
-    return TemplateMatching.match(templatePath, ScreenManager.captureWindow(), THRESHOLD).bounds();
+    try (Mat screen = ScreenManager.captureWindowMat()) {
+      return TemplateMatching.match(templatePath, screen, THRESHOLD, MatchMode.PYRAMID).bounds();
+    }
   }
 
   /**
@@ -80,6 +80,15 @@ public class ViewportWebSocketHandler extends TextWebSocketHandler {
     }
   }
 
+  /**
+   * Checks whether any client is connected to the viewport.
+   *
+   * @return {@code true} if there is at least one open session
+   */
+  public boolean hasSubscribers() {
+    return !sessions.isEmpty();
+  }
+
   /**
    * Broadcasts a text message to all currently connected clients.
    *
@@ -85,6 +85,16 @@ public class WebsocketViewport implements Viewport {
     }
   }
 
+  /**
+   * The viewport is only active while a browser is connected to it.
+   *
+   * @return {@code true} if there is at least one viewport client
+   */
+  @Override
+  public boolean isActive() {
+    return handler.hasSubscribers();
+  }
+
   /**
    * The background worker loop that processes and sends images.
    *
@@ -0,0 +1,148 @@
+package com.chromascape.utils.core.input.distribution;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import org.apache.commons.math3.distribution.ChiSquaredDistribution;
+import org.apache.commons.math3.distribution.MultivariateNormalDistribution;
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Compares {@link ClickDistribution#generateRandomPoint(Rectangle, double)} against the sampler it
+ * replaced, which built a {@link MultivariateNormalDistribution} per call and resampled until the
+ * point landed inside the rectangle.
+ *
+ * <p>For a range of rectangles and tightness values, reports the time per point of both samplers,
+ * and a chi-squared two-sample test over the per-pixel counts of each. A p-value far below
+ * {@code 0.01} on several rows would mean the distributions differ.
+ *
+ * <p>Not a unit test; run the main method by hand. {@link ClickDistributionTest} runs the same
+ * chi-squared comparison on a few rectangles as part of the build.
+ */
+public final class ClickDistributionBenchmark {
+
+  private static final int SAMPLES = 200_000;
+  private static final int WARMUP = 50_000;
+
+  /** Inventory slot sized rectangles, as ItemDropper clicks 28 per cycle, and a few others. */
+  private static final Rectangle[] RECTS = {
+    new Rectangle(563, 213, 36, 32),
+    new Rectangle(100, 100, 12, 9),
+    new Rectangle(0, 0, 60, 20),
+    new Rectangle(400, 300, 120, 80),
+  };
+
+  private static final double[] TIGHTNESS = {2.0, 4.0, 9.0, 15.0};
+
+  private static final RandomGenerator rng = new MersenneTwister(42);
+
+  private ClickDistributionBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Unused
+   */
+  public static void main(String[] args) {
+    System.out.printf(
+        "%-22s %9s %12s %12s %8s %10s%n",
+        "rect", "tightness", "old ns/pt", "new ns/pt", "speedup", "chi2 p");
+    for (Rectangle rect : RECTS) {
+      for (double tightness : TIGHTNESS) {
+        double stdDevX = rect.width / tightness;
+        double stdDevY = rect.height / tightness;
+        for (int i = 0; i < WARMUP; i++) {
+          referencePoint(rect, stdDevX, stdDevY);
+          ClickDistribution.generateRandomPoint(rect, tightness);
+        }
+
+        long[] oldCounts = new long[rect.width * rect.height];
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) {
+          count(oldCounts, rect, referencePoint(rect, stdDevX, stdDevY));
+        }
+        long oldNanos = System.nanoTime() - start;
+
+        long[] newCounts = new long[rect.width * rect.height];
+        start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) {
+          count(newCounts, rect, ClickDistribution.generateRandomPoint(rect, tightness));
+        }
+        long newNanos = System.nanoTime() - start;
+
+        System.out.printf(
+            "%-22s %9.1f %12.1f %12.1f %7.1fx %10.4f%n",
+            rect.width + "x" + rect.height + "@" + rect.x + "," + rect.y,
+            tightness,
+            (double) oldNanos / SAMPLES,
+            (double) newNanos / SAMPLES,
+            (double) oldNanos / newNanos,
+            chiSquaredP(oldCounts, newCounts));
+      }
+    }
+  }
+
+  /**
+   * The sampler {@link ClickDistribution} used before, kept here as the reference distribution.
+   *
+   * @param rect the rectangular region to sample from
+   * @param stdDevX the standard deviation along the x axis
+   * @param stdDevY the standard deviation along the y axis
+   * @return a Point within {@code rect}
+   */
+  static Point referencePoint(Rectangle rect, double stdDevX, double stdDevY) {
+    double[] mean = {rect.getX() + rect.getWidth() / 2.0, rect.getY() + rect.getHeight() / 2.0};
+    double[][] covariance = {{stdDevX * stdDevX, 0}, {0, stdDevY * stdDevY}};
+    MultivariateNormalDistribution mnd = new MultivariateNormalDistribution(rng, mean, covariance);
+    Point point;
+    do {
+      double[] sample = mnd.sample();
+      point = new Point((int) Math.round(sample[0]), (int) Math.round(sample[1]));
+    } while (!rect.contains(point));
+    return point;
+  }
+
+  /**
+   * Adds a point to a per-pixel histogram of a rectangle.
+   *
+   * @param counts the histogram, row by row
+   * @param rect the rectangle the histogram covers
+   * @param point the point, which must lie inside {@code rect}
+   */
+  static void count(long[] counts, Rectangle rect, Point point) {
+    counts[(point.y - rect.y) * rect.width + point.x - rect.x]++;
+  }
+
+  /**
+   * Runs a chi-squared test of whether two histograms with equal totals come from the same
+   * distribution, pooling sparse bins so every expected count is at least five.
+   *
+   * @param a the first histogram
+   * @param b the second histogram
+   * @return the p-value of the test
+   */
+  static double chiSquaredP(long[] a, long[] b) {
+    double statistic = 0;
+    int bins = 0;
+    long pooledA = 0;
+    long pooledB = 0;
+    for (int i = 0; i < a.length; i++) {
+      pooledA += a[i];
+      pooledB += b[i];
+      // Equal totals, so the expected count of each side is the mean of the two
+      if ((pooledA + pooledB) / 2.0 >= 5 || i == a.length - 1) {
+        if (pooledA + pooledB > 0) {
+          double difference = pooledA - pooledB;
+          statistic += difference * difference / (pooledA + pooledB);
+          bins++;
+        }
+        pooledA = 0;
+        pooledB = 0;
+      }
+    }
+    if (bins < 2) {
+      return 1;
+    }
+    return 1 - new ChiSquaredDistribution(bins - 1).cumulativeProbability(statistic);
+  }
+}
@@ -0,0 +1,110 @@
+package com.chromascape.utils.core.input.distribution;
+
+import static com.chromascape.utils.core.input.distribution.ClickDistributionBenchmark.chiSquaredP;
+import static com.chromascape.utils.core.input.distribution.ClickDistributionBenchmark.count;
+import static com.chromascape.utils.core.input.distribution.ClickDistributionBenchmark.referencePoint;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link ClickDistribution} draws from the same distribution as the rejection sampler
+ * it replaced, with a chi-squared two-sample test over per-pixel counts.
+ */
+class ClickDistributionTest {
+
+  private static final int SAMPLES = 100_000;
+
+  /**
+   * The test fails when the histograms are this unlikely under one distribution. Kept low, as the
+   * new sampler cannot be seeded; with this many samples a real difference still scores far below.
+   */
+  private static final double MIN_P_VALUE = 1e-4;
+
+  /** An inventory slot, as ItemDropper clicks 28 per cycle. */
+  private static final Rectangle INVENTORY_SLOT = new Rectangle(563, 213, 36, 32);
+
+  /** A target under 15 pixels on both sides, which gets the narrowest heuristic spread. */
+  private static final Rectangle SMALL = new Rectangle(100, 100, 12, 9);
+
+  /** A wide, short target, where a broad spread rejects many points. */
+  private static final Rectangle WIDE = new Rectangle(0, 0, 60, 20);
+
+  @Test
+  void inventorySlotMatchesReference() {
+    assertHeuristicMatches(INVENTORY_SLOT);
+    assertTightnessMatches(INVENTORY_SLOT, 4.0);
+  }
+
+  @Test
+  void smallTargetMatchesReference() {
+    assertHeuristicMatches(SMALL);
+    assertTightnessMatches(SMALL, 15.0);
+  }
+
+  @Test
+  void broadSpreadMatchesReference() {
+    assertHeuristicMatches(WIDE);
+    assertTightnessMatches(WIDE, 2.0);
+  }
+
+  @Test
+  void pointsStayInsideTheRectangle() {
+    for (Rectangle rect : new Rectangle[] {INVENTORY_SLOT, SMALL, WIDE}) {
+      for (int i = 0; i < SAMPLES; i++) {
+        Point point = ClickDistribution.generateRandomPoint(rect, 1.0);
+        assertTrue(rect.contains(point), "Sampled " + point + " outside " + rect);
+      }
+    }
+  }
+
+  /**
+   * Compares {@link ClickDistribution#generateRandomPoint(Rectangle)} against the reference.
+   *
+   * @param rect the rectangle to sample
+   */
+  private static void assertHeuristicMatches(Rectangle rect) {
+    long[] expected = new long[rect.width * rect.height];
+    long[] actual = new long[rect.width * rect.height];
+    double stdDevX = ClickDistribution.heuristicStdDev(rect.width);
+    double stdDevY = ClickDistribution.heuristicStdDev(rect.height);
+    for (int i = 0; i < SAMPLES; i++) {
+      count(expected, rect, referencePoint(rect, stdDevX, stdDevY));
+      count(actual, rect, ClickDistribution.generateRandomPoint(rect));
+    }
+    assertSameDistribution(expected, actual, rect + " with the heuristic spread");
+  }
+
+  /**
+   * Compares {@link ClickDistribution#generateRandomPoint(Rectangle, double)} against the
+   * reference.
+   *
+   * @param rect the rectangle to sample
+   * @param tightness the factor by which to divide the dimensions to get sigma
+   */
+  private static void assertTightnessMatches(Rectangle rect, double tightness) {
+    long[] expected = new long[rect.width * rect.height];
+    long[] actual = new long[rect.width * rect.height];
+    double stdDevX = rect.width / tightness;
+    double stdDevY = rect.height / tightness;
+    for (int i = 0; i < SAMPLES; i++) {
+      count(expected, rect, referencePoint(rect, stdDevX, stdDevY));
+      count(actual, rect, ClickDistribution.generateRandomPoint(rect, tightness));
+    }
+    assertSameDistribution(expected, actual, rect + " at tightness " + tightness);
+  }
+
+  /**
+   * Fails if two histograms are unlikely to come from the same distribution.
+   *
+   * @param expected the reference sampler's histogram
+   * @param actual the new sampler's histogram
+   * @param description what was sampled, for the failure message
+   */
+  private static void assertSameDistribution(long[] expected, long[] actual, String description) {
+    double p = chiSquaredP(expected, actual);
+    assertTrue(p >= MIN_P_VALUE, description + " differs from the reference, p = " + p);
+  }
+}
@@ -0,0 +1,75 @@
+package com.chromascape.utils.core.input.distribution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chromascape.utils.core.screen.topology.ChromaObj;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Checks that {@link ContourPointSampler} only ever draws pixels of the object. */
+class ContourPointSamplerTest {
+
+  private static final int SAMPLES = 5_000;
+
+  /**
+   * A 10x10 square with its top right 6x6 quadrant cut away. The centre of its bounding box lies in
+   * the cut, where a bounding box sampler aims.
+   */
+  private static final int[] L_SHAPE = {0, 0, 4, 0, 4, 6, 10, 6, 10, 10, 0, 10};
+
+  @Test
+  void concaveObjectSamplesStayInside() {
+    ChromaObj obj = new ChromaObj(0, L_SHAPE);
+    for (ContourPointSampler sampler :
+        List.of(ContourPointSampler.of(obj), ContourPointSampler.of(obj, 15.0))) {
+      for (int i = 0; i < SAMPLES; i++) {
+        Point point = sampler.sample();
+        assertTrue(obj.contains(point.x, point.y), "Sampled outside at " + point);
+      }
+    }
+  }
+
+  @Test
+  void concaveObjectCanDrawEveryInsidePixel() {
+    ChromaObj obj = new ChromaObj(0, L_SHAPE);
+    Rectangle box = obj.boundingBox();
+    int inside = 0;
+    for (int x = box.x; x < box.x + box.width; x++) {
+      for (int y = box.y; y < box.y + box.height; y++) {
+        if (obj.contains(x, y)) {
+          inside++;
+        }
+      }
+    }
+
+    assertEquals(inside, ContourPointSampler.of(obj).size());
+  }
+
+  @Test
+  void onePixelWideLineFallsBackToItsOutline() {
+    // A horizontal run of pixels has nothing strictly inside it
+    ChromaObj line = new ChromaObj(0, new int[] {2, 5, 8, 5});
+    ContourPointSampler sampler = ContourPointSampler.of(line);
+
+    assertEquals(7, sampler.size());
+    for (int i = 0; i < SAMPLES; i++) {
+      Point point = sampler.sample();
+      assertTrue(point.y == 5 && point.x >= 2 && point.x <= 8, "Sampled off the line at " + point);
+    }
+  }
+
+  @Test
+  void diagonalLineFallsBackToItsOutline() {
+    ChromaObj line = new ChromaObj(0, new int[] {0, 0, 4, 4});
+    ContourPointSampler sampler = ContourPointSampler.of(line, 15.0);
+
+    assertEquals(5, sampler.size());
+    for (int i = 0; i < SAMPLES; i++) {
+      Point point = sampler.sample();
+      assertTrue(point.x == point.y && point.x >= 0 && point.x <= 4, "Sampled at " + point);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.chromascape.utils.core.screen;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_MAT_CN;
+import static org.bytedeco.opencv.global.opencv_core.bitwise_xor;
+import static org.bytedeco.opencv.global.opencv_core.countNonZero;
+
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/** Synthetic frames and mask comparisons shared by the screen tests. */
+public final class TestFrames {
+
+  private TestFrames() {}
+
+  /**
+   * Creates the raw bytes of a frame of random pixels.
+   *
+   * @param length The number of bytes
+   * @param random The source of the pixels
+   * @return The bytes
+   */
+  public static byte[] randomPixels(int length, Random random) {
+    byte[] pixels = new byte[length];
+    random.nextBytes(pixels);
+    return pixels;
+  }
+
+  /**
+   * Creates a frame of random pixels.
+   *
+   * @param random The source of the pixels
+   * @param width The width of the frame
+   * @param height The height of the frame
+   * @param type The OpenCV type of the frame, 8 bits per channel
+   * @return A new {@link Mat} owned by the caller
+   */
+  public static Mat randomFrame(Random random, int width, int height, int type) {
+    return frame(randomPixels(width * height * CV_MAT_CN(type), random), width, height, type);
+  }
+
+  /**
+   * Creates a frame of random pixels where half the pixels are taken from a few base colours with
+   * small offsets, so the frame has runs of similar colours as a game frame does.
+   *
+   * @param random The source of the pixels
+   * @param width The width of the frame
+   * @param height The height of the frame
+   * @param type The OpenCV type of the frame, 8 bits per channel
+   * @return A new {@link Mat} owned by the caller
+   */
+  public static Mat gameLikeFrame(Random random, int width, int height, int type) {
+    int channels = CV_MAT_CN(type);
+    byte[] pixels = randomPixels(width * height * channels, random);
+    byte[] base = new byte[channels];
+    for (int p = 0; p < pixels.length; p += channels * 2) {
+      if (random.nextInt(16) == 0) {
+        random.nextBytes(base);
+      }
+      for (int c = 0; c < channels; c++) {
+        pixels[p + c] = (byte) (base[c] + random.nextInt(9) - 4);
+      }
+    }
+    return frame(pixels, width, height, type);
+  }
+
+  /**
+   * Counts the pixels that differ between two binary masks.
+   *
+   * @param a The first mask
+   * @param b The second mask
+   * @return The number of differing pixels
+   */
+  public static int differingPixels(Mat a, Mat b) {
+    try (Mat difference = new Mat()) {
+      bitwise_xor(a, b, difference);
+      return countNonZero(difference);
+    }
+  }
+
+  /**
+   * Internal helper to wrap raw bytes in a new frame.
+   *
+   * @param pixels The bytes, row by row
+   * @param width The width of the frame
+   * @param height The height of the frame
+   * @param type The OpenCV type of the frame
+   * @return A new {@link Mat} owning a copy of the bytes
+   */
+  private static Mat frame(byte[] pixels, int width, int height, int type) {
+    Mat frame = new Mat(height, width, type);
+    frame.data().put(pixels);
+    return frame;
+  }
+}
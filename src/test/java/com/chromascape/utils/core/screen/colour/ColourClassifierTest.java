@@ -0,0 +1,112 @@
+package com.chromascape.utils.core.screen.colour;
+
+import static com.chromascape.utils.core.screen.TestFrames.differingPixels;
+import static com.chromascape.utils.core.screen.TestFrames.gameLikeFrame;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC4;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.chromascape.utils.core.screen.topology.ColourContours;
+import java.util.List;
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link ColourClassifier} labels agree pixel for pixel with {@link
+ * ColourContours#extractColours(Mat, ColourObj)} for every colour in {@link ColourInstances}.
+ */
+class ColourClassifierTest {
+
+  /** The size of the random frames. */
+  private static final int WIDTH = 320;
+
+  private static final int HEIGHT = 240;
+
+  private static List<ColourObj> colours;
+
+  private static ColourClassifier compact;
+
+  private static ColourClassifier full;
+
+  @BeforeAll
+  static void compile() {
+    colours = ColourInstances.getAll();
+    assertFalse(colours.isEmpty(), "colours/colours.json was not loaded");
+    compact = ColourClassifier.compile(colours, ColourClassifier.Table.COMPACT);
+    full = ColourClassifier.compile(colours, ColourClassifier.Table.FULL);
+  }
+
+  @Test
+  void everyBgrColourMatchesInRange() {
+    // Each plane holds every green and red value for one blue value, so together the planes
+    // cover every block that straddles a range edge, which the compact table stores per colour
+    byte[] bgr = new byte[256 * 256 * 3];
+    try (Mat plane = new Mat(256, 256, CV_8UC3)) {
+      for (int blue = 0; blue < 256; blue++) {
+        for (int i = 0, p = 0; i < 256 * 256; i++, p += 3) {
+          bgr[p] = (byte) blue;
+          bgr[p + 1] = (byte) (i >> 8);
+          bgr[p + 2] = (byte) i;
+        }
+        plane.data().put(bgr);
+        assertSameAsInRange(plane, "Blue " + blue);
+      }
+    }
+  }
+
+  @Test
+  void randomBgrFramesMatchInRange() {
+    Random random = new Random(15);
+    for (int i = 0; i < 3; i++) {
+      try (Mat frame = gameLikeFrame(random, WIDTH, HEIGHT, CV_8UC3)) {
+        assertSameAsInRange(frame, "BGR frame " + i);
+      }
+    }
+  }
+
+  @Test
+  void randomBgraFramesMatchInRange() {
+    Random random = new Random(16);
+    for (int i = 0; i < 3; i++) {
+      try (Mat frame = gameLikeFrame(random, WIDTH, HEIGHT, CV_8UC4)) {
+        assertSameAsInRange(frame, "BGRA frame " + i);
+      }
+    }
+  }
+
+  @Test
+  void regionOfInterestMatchesInRange() {
+    try (Mat frame = gameLikeFrame(new Random(17), WIDTH, HEIGHT, CV_8UC4);
+        Rect rect = new Rect(13, 7, 101, 59);
+        Mat region = new Mat(frame, rect)) {
+      assertSameAsInRange(region, "Region");
+    }
+  }
+
+  /**
+   * Labels an image with both tables and checks every colour's mask against {@code inRange}.
+   *
+   * @param image The BGR or BGRA image
+   * @param description What the image is, for failure messages
+   */
+  private static void assertSameAsInRange(Mat image, String description) {
+    LabelMap compactLabels = compact.label(image);
+    LabelMap fullLabels = full.label(image);
+    for (ColourObj colour : colours) {
+      try (Mat expected = ColourContours.extractColours(image, colour);
+          Mat fromCompact = compactLabels.mask(colour.name());
+          Mat fromFull = fullLabels.mask(colour.name())) {
+        assertEquals(
+            0,
+            differingPixels(expected, fromCompact),
+            description + ", COMPACT, " + colour.name());
+        assertEquals(
+            0, differingPixels(expected, fromFull), description + ", FULL, " + colour.name());
+      }
+    }
+  }
+}
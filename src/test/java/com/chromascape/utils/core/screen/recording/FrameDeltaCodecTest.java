@@ -0,0 +1,127 @@
+package com.chromascape.utils.core.screen.recording;
+
+import static com.chromascape.utils.core.screen.TestFrames.randomPixels;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Round trips frames through {@link FrameDeltaCodec}, as the recorder and replayer use it. */
+class FrameDeltaCodecTest {
+
+  private final FrameDeltaCodec encoder = new FrameDeltaCodec();
+
+  private final FrameDeltaCodec decoder = new FrameDeltaCodec();
+
+  @Test
+  void keyframeDecodesWithoutHistory() {
+    byte[] frame = randomPixels(64 * 48 * 4, new Random(1));
+    byte[] decoded = new byte[frame.length];
+    // Leftover pixels from an unrelated frame must be ignored
+    Arrays.fill(decoded, (byte) 0x5A);
+
+    decode(encoder.encode(frame, null, frame.length), true, decoded, frame.length);
+
+    assertArrayEquals(frame, decoded);
+  }
+
+  @Test
+  void deltaDecodesAgainstPreviousFrame() {
+    byte[] first = randomPixels(64 * 48 * 4, new Random(2));
+    byte[] second = first.clone();
+    // A moving sprite, a changed pixel and a changed byte at either end
+    for (int i = 1000; i < 1400; i++) {
+      second[i] = (byte) (second[i] + 17);
+    }
+    second[5000] ^= 1;
+    second[0] ^= (byte) 0xFF;
+    second[second.length - 1] ^= (byte) 0xFF;
+
+    byte[] decoded = new byte[first.length];
+    decode(encoder.encode(first, null, first.length), true, decoded, first.length);
+    decode(encoder.encode(second, first, second.length), false, decoded, second.length);
+
+    assertArrayEquals(second, decoded);
+  }
+
+  @Test
+  void identicalFramesEncodeToAlmostNothing() {
+    byte[] frame = randomPixels(765 * 503 * 4, new Random(3));
+    byte[] payload = encoder.encode(frame, frame.clone(), frame.length);
+
+    byte[] decoded = frame.clone();
+    decode(payload, false, decoded, frame.length);
+
+    assertArrayEquals(frame, decoded);
+    assertTrue(payload.length < 32, "Unchanged frame took " + payload.length + " bytes");
+  }
+
+  @Test
+  void sizeChangeRoundTripsThroughKeyframes() {
+    byte[] small = randomPixels(16 * 16 * 4, new Random(4));
+    byte[] large = randomPixels(40 * 30 * 4, new Random(5));
+    byte[] smallAgain = randomPixels(16 * 16 * 4, new Random(6));
+    // The replayer keeps one buffer, which only grows
+    byte[] decoded = new byte[large.length];
+
+    decode(encoder.encode(small, null, small.length), true, decoded, small.length);
+    assertArrayEquals(small, Arrays.copyOf(decoded, small.length));
+
+    decode(encoder.encode(large, null, large.length), true, decoded, large.length);
+    assertArrayEquals(large, decoded);
+
+    decode(encoder.encode(smallAgain, null, smallAgain.length), true, decoded, smallAgain.length);
+    assertArrayEquals(smallAgain, Arrays.copyOf(decoded, smallAgain.length));
+  }
+
+  @Test
+  void runsSpanningTheWholeFrameRoundTrip() {
+    int length = 765 * 503 * 4;
+    byte[] previous = new byte[length];
+    // Every byte differs, so the frame is one literal run as long as the frame
+    byte[] inverted = new byte[length];
+    Arrays.fill(inverted, (byte) 0xFF);
+
+    byte[] decoded = new byte[length];
+    decode(encoder.encode(inverted, previous, length), false, decoded, length);
+    assertArrayEquals(inverted, decoded);
+
+    // A keyframe of an all-zero frame is one zero run as long as the frame
+    decode(encoder.encode(previous, null, length), true, decoded, length);
+    assertArrayEquals(previous, decoded);
+  }
+
+  @Test
+  void runLengthsAtVarintBoundariesRoundTrip() {
+    for (int run : new int[] {1, 7, 8, 9, 127, 128, 129, 16383, 16384, 16385}) {
+      byte[] previous = randomPixels(3 * 16385 + 64, new Random(run));
+      byte[] current = previous.clone();
+      // Alternate changed and unchanged runs of exactly this length
+      for (int start = 3; start + run <= current.length; start += 2 * run) {
+        for (int i = start; i < start + run; i++) {
+          current[i] = (byte) ~current[i];
+        }
+      }
+
+      byte[] decoded = previous.clone();
+      decode(encoder.encode(current, previous, current.length), false, decoded, current.length);
+
+      assertArrayEquals(current, decoded, "Runs of " + run + " bytes");
+    }
+  }
+
+  /**
+   * Decodes a payload with the replaying codec.
+   *
+   * @param payload The encoded payload
+   * @param keyframe Whether the payload is a keyframe
+   * @param frame The buffer to decode into
+   * @param length The number of bytes of the frame
+   */
+  private void decode(byte[] payload, boolean keyframe, byte[] frame, int length) {
+    decoder.decode(ByteBuffer.wrap(payload), keyframe, frame, length);
+  }
+}
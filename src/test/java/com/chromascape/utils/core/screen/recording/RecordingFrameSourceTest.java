@@ -0,0 +1,111 @@
+package com.chromascape.utils.core.screen.recording;
+
+import static com.chromascape.utils.core.screen.TestFrames.randomPixels;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Replays segments written by {@link SegmentWriter}, whole and as a crash would leave them. */
+class RecordingFrameSourceTest {
+
+  private static final int WIDTH = 64;
+
+  private static final int HEIGHT = 48;
+
+  private static final int LENGTH = WIDTH * HEIGHT * 4;
+
+  private static final RecordedInput CLICK =
+      new RecordedInput(5, RecordedInput.Kind.MOUSE_DOWN, 10, 20, 1);
+
+  @TempDir Path temp;
+
+  private final byte[] first = randomPixels(LENGTH, new Random(1));
+
+  private final byte[] second = randomPixels(LENGTH, new Random(2));
+
+  private final FrameDeltaCodec codec = new FrameDeltaCodec();
+
+  private final byte[] keyframe = codec.encode(first, null, LENGTH);
+
+  private final byte[] delta = codec.encode(second, first, LENGTH);
+
+  @Test
+  void completeSegmentReplaysEveryRecord() throws IOException {
+    Path session = writeSession(temp.resolve("complete"));
+    RecordingFrameSource source = new RecordingFrameSource(session, 0);
+    List<RecordedInput> inputs = new ArrayList<>();
+    source.setInputListener(inputs::add);
+
+    assertArrayEquals(second, grab(source));
+    assertEquals(List.of(CLICK), inputs);
+  }
+
+  @Test
+  void segmentCutShortMidRecordReadsUpToLastCompleteRecord() throws IOException {
+    Path session = writeSession(temp.resolve("complete"));
+    byte[] complete = Files.readAllBytes(session.resolve("segment-0000.rec"));
+    int lastRecord =
+        SegmentWriter.HEADER_SIZE
+            + SegmentWriter.FRAME_HEADER_SIZE
+            + keyframe.length
+            + SegmentWriter.INPUT_SIZE;
+    int lastRecordEnd = lastRecord + SegmentWriter.FRAME_HEADER_SIZE + delta.length;
+
+    // A crash leaves the body written up to some byte and the type byte still unset
+    for (int cut = lastRecord + 1; cut < lastRecordEnd; cut += 7) {
+      byte[] crashed = complete.clone();
+      crashed[lastRecord] = SegmentWriter.END;
+      Arrays.fill(crashed, cut, crashed.length, (byte) 0);
+      Path dir = Files.createDirectories(temp.resolve("cut-" + cut));
+      Files.write(dir.resolve("segment-0000.rec"), crashed);
+
+      RecordingFrameSource source = new RecordingFrameSource(dir, 0);
+      List<RecordedInput> inputs = new ArrayList<>();
+      source.setInputListener(inputs::add);
+
+      assertArrayEquals(first, grab(source), "Cut at " + cut);
+      assertEquals(List.of(CLICK), inputs, "Cut at " + cut);
+    }
+  }
+
+  /**
+   * Records a keyframe, an input event and a delta frame into one segment.
+   *
+   * @param dir The session directory to create
+   * @return The session directory
+   * @throws IOException If the segment cannot be written
+   */
+  private Path writeSession(Path dir) throws IOException {
+    Files.createDirectories(dir);
+    try (SegmentWriter writer = new SegmentWriter(dir, 1L << 30)) {
+      writer.writeFrame(0, true, WIDTH, HEIGHT, keyframe);
+      writer.writeInput(CLICK);
+      writer.writeFrame(10, false, WIDTH, HEIGHT, delta);
+    }
+    return dir;
+  }
+
+  /**
+   * Grabs the next frame and copies its pixels out.
+   *
+   * @param source The source to grab from
+   * @return The frame's BGRA bytes
+   */
+  private static byte[] grab(RecordingFrameSource source) {
+    try (Mat frame = source.grab()) {
+      byte[] pixels = new byte[LENGTH];
+      frame.data().get(pixels);
+      return pixels;
+    }
+  }
+}
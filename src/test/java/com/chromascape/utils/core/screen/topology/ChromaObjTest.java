@@ -0,0 +1,137 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.contourArea;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import org.junit.jupiter.api.Test;
+
+/** Checks the geometry of {@link ChromaObj} against polygons worked out by hand. */
+class ChromaObjTest {
+
+  /** A 10x10 square with its top right 6x6 quadrant cut away, as a concave L. */
+  private static final int[] L_SHAPE = {0, 0, 4, 0, 4, 6, 10, 6, 10, 10, 0, 10};
+
+  /**
+   * Two 3x3 blocks touching diagonally, as {@code CHAIN_APPROX_SIMPLE} traces them: one contour
+   * that passes through the touching corners twice.
+   */
+  private static final int[] TOUCHING_BLOCKS = {
+    0, 0, 2, 0, 2, 2, 3, 3, 5, 3, 5, 5, 3, 5, 3, 3, 2, 2, 0, 2
+  };
+
+  @Test
+  void concaveShapeHasItsAreaCentroidAndBounds() {
+    ChromaObj obj = new ChromaObj(0, L_SHAPE);
+
+    // A 4x10 column plus a 6x4 foot
+    assertEquals(64, obj.area(), 1e-9);
+    assertEquals((40 * 2 + 24 * 7) / 64.0, obj.centroidX(), 1e-9);
+    assertEquals((40 * 5 + 24 * 8) / 64.0, obj.centroidY(), 1e-9);
+    assertEquals(new Rectangle(0, 0, 11, 11), obj.boundingBox());
+    assertEquals(6, obj.vertexCount());
+  }
+
+  @Test
+  void concaveShapeExcludesItsNotch() {
+    ChromaObj obj = new ChromaObj(0, L_SHAPE);
+
+    assertTrue(obj.contains(2, 2));
+    assertTrue(obj.contains(2, 8));
+    assertTrue(obj.contains(8, 8));
+    assertTrue(obj.contains(5, 7));
+    // Inside the bounding box but within the cut away quadrant
+    assertFalse(obj.contains(7, 3));
+    assertFalse(obj.contains(5, 1));
+    assertFalse(obj.contains(9, 5));
+  }
+
+  @Test
+  void pointsOnEdgesAndVerticesAreOutside() {
+    ChromaObj obj = new ChromaObj(0, L_SHAPE);
+
+    // Edges, including the inner edges of the notch
+    assertFalse(obj.contains(2, 0));
+    assertFalse(obj.contains(0, 5));
+    assertFalse(obj.contains(4, 3));
+    assertFalse(obj.contains(7, 6));
+    assertFalse(obj.contains(10, 8));
+    assertFalse(obj.contains(5, 10));
+    // Every vertex, convex and reflex
+    for (int i = 0; i < L_SHAPE.length; i += 2) {
+      assertFalse(obj.contains(L_SHAPE[i], L_SHAPE[i + 1]), "Vertex " + i / 2);
+    }
+  }
+
+  @Test
+  void onePixelWideContourHasNoInside() {
+    // A horizontal run of pixels traces as its two end points
+    ChromaObj line = new ChromaObj(0, new int[] {2, 5, 8, 5});
+
+    assertEquals(0, line.area(), 1e-9);
+    assertEquals(5, line.centroidX(), 1e-9);
+    assertEquals(5, line.centroidY(), 1e-9);
+    assertEquals(new Rectangle(2, 5, 7, 1), line.boundingBox());
+    for (int x = 0; x <= 10; x++) {
+      for (int y = 3; y <= 7; y++) {
+        assertFalse(line.contains(x, y), "(" + x + ", " + y + ")");
+      }
+    }
+  }
+
+  @Test
+  void singlePixelContourHasNoInside() {
+    ChromaObj pixel = new ChromaObj(0, new int[] {3, 4});
+
+    assertEquals(0, pixel.area(), 1e-9);
+    assertEquals(3, pixel.centroidX(), 1e-9);
+    assertEquals(4, pixel.centroidY(), 1e-9);
+    assertEquals(new Rectangle(3, 4, 1, 1), pixel.boundingBox());
+    assertFalse(pixel.contains(3, 4));
+  }
+
+  @Test
+  void selfTouchingContourCountsBothParts() {
+    ChromaObj obj = new ChromaObj(0, TOUCHING_BLOCKS);
+
+    // Two 2x2 squares, the doubled diagonal adds nothing
+    assertEquals(8, obj.area(), 1e-9);
+    assertEquals(2.5, obj.centroidX(), 1e-9);
+    assertEquals(2.5, obj.centroidY(), 1e-9);
+    assertEquals(new Rectangle(0, 0, 6, 6), obj.boundingBox());
+
+    assertTrue(obj.contains(1, 1));
+    assertTrue(obj.contains(4, 4));
+    // The touching corners lie on the contour, and the gaps beside them are outside
+    assertFalse(obj.contains(2, 2));
+    assertFalse(obj.contains(3, 3));
+    assertFalse(obj.contains(2, 3));
+    assertFalse(obj.contains(3, 2));
+    assertFalse(obj.contains(4, 1));
+    assertFalse(obj.contains(1, 4));
+  }
+
+  @Test
+  void containsAndAreaAgreeWithOpenCv() {
+    int[][] polygons = {L_SHAPE, TOUCHING_BLOCKS, {2, 5, 8, 5}, {3, 4}};
+    for (int[] polygon : polygons) {
+      ChromaObj obj = new ChromaObj(0, polygon);
+      try {
+        assertEquals(contourArea(obj.contour()), obj.area(), 1e-9);
+        for (int x = -1; x <= 12; x++) {
+          for (int y = -1; y <= 12; y++) {
+            assertEquals(
+                ColourContours.isPointInContour(new Point(x, y), obj.contour()),
+                obj.contains(x, y),
+                "(" + x + ", " + y + ")");
+          }
+        }
+      } finally {
+        obj.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_core.bitwise_and;
+import static org.bytedeco.opencv.global.opencv_core.bitwise_or;
+import static org.bytedeco.opencv.global.opencv_core.countNonZero;
+import static org.bytedeco.opencv.global.opencv_imgproc.LINE_8;
+import static org.bytedeco.opencv.global.opencv_imgproc.ellipse;
+import static org.bytedeco.opencv.global.opencv_imgproc.line;
+
+import com.chromascape.utils.core.screen.colour.MorphClosing;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.MatVector;
+import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+
+/**
+ * Compares every {@link MorphClosing} strategy against {@link MorphClosing#DEFAULT} on synthetic
+ * 1920x1080 masks of broken highlight outlines, the case closing exists for. Reports the mean time
+ * per close, the intersection over union of the closed mask with the default's, and how often the
+ * strategy finds the same number of objects.
+ *
+ * <p>Not a unit test; run the main method by hand, with OpenCV's natives available.
+ */
+public final class MorphClosingBenchmark {
+
+  private static final int WIDTH = 1920;
+  private static final int HEIGHT = 1080;
+  private static final int FRAMES = 20;
+  private static final int OUTLINES_PER_FRAME = 12;
+  private static final int WARMUP = 3;
+
+  private MorphClosingBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Unused
+   */
+  public static void main(String[] args) {
+    Map<String, MorphClosing> strategies = new LinkedHashMap<>();
+    strategies.put("ellipse 20 (current)", MorphClosing.DEFAULT);
+    strategies.put("ellipse 12", MorphClosing.ellipse(12));
+    strategies.put("rect 20", MorphClosing.rect(20));
+    strategies.put("ellipse 20 downsampled", MorphClosing.DEFAULT.downsample());
+    strategies.put("rect 20 downsampled", MorphClosing.rect(20).downsample());
+    strategies.put("none", MorphClosing.NONE);
+
+    Random random = new Random(42);
+    Mat[] frames = new Mat[FRAMES];
+    Mat[] reference = new Mat[FRAMES];
+    int[] referenceObjects = new int[FRAMES];
+    for (int i = 0; i < FRAMES; i++) {
+      frames[i] = brokenOutlines(random, WIDTH, HEIGHT, OUTLINES_PER_FRAME);
+      reference[i] = frames[i].clone();
+      ColourContours.morphClose(reference[i], MorphClosing.DEFAULT);
+      referenceObjects[i] = countObjects(reference[i]);
+    }
+
+    System.out.printf("%-24s %10s %8s %12s%n", "strategy", "ms/close", "IoU", "same count");
+    for (Map.Entry<String, MorphClosing> entry : strategies.entrySet()) {
+      MorphClosing closing = entry.getValue();
+      for (int i = 0; i < WARMUP; i++) {
+        try (Mat mask = frames[i].clone()) {
+          ColourContours.morphClose(mask, closing);
+        }
+      }
+
+      long totalNanos = 0;
+      double totalIou = 0;
+      int sameCount = 0;
+      for (int i = 0; i < FRAMES; i++) {
+        try (Mat mask = frames[i].clone()) {
+          long start = System.nanoTime();
+          ColourContours.morphClose(mask, closing);
+          totalNanos += System.nanoTime() - start;
+          totalIou += iou(mask, reference[i]);
+          if (countObjects(mask) == referenceObjects[i]) {
+            sameCount++;
+          }
+        }
+      }
+      System.out.printf(
+          "%-24s %10.2f %8.3f %9d/%d%n",
+          entry.getKey(), totalNanos / 1e6 / FRAMES, totalIou / FRAMES, sameCount, FRAMES);
+    }
+
+    for (int i = 0; i < FRAMES; i++) {
+      frames[i].close();
+      reference[i].close();
+    }
+  }
+
+  /**
+   * Draws ellipse outlines with gaps cut into them, like the clickbox highlights scripts detect.
+   * Outlines are sized to the mask, at most an eighth of its shorter side across each axis.
+   *
+   * @param random The source of shape positions
+   * @param width The width of the mask
+   * @param height The height of the mask
+   * @param outlines How many outlines to draw
+   * @return A new binary mask
+   */
+  static Mat brokenOutlines(Random random, int width, int height, int outlines) {
+    int maxAxis = Math.min(width, height) / 8;
+    int minAxis = maxAxis / 4;
+    Mat mask = new Mat(height, width, CV_8UC1, new Scalar(0));
+    try (Scalar white = new Scalar(255);
+        Scalar black = new Scalar(0)) {
+      for (int i = 0; i < outlines; i++) {
+        int cx = maxAxis + random.nextInt(width - 2 * maxAxis);
+        int cy = maxAxis + random.nextInt(height - 2 * maxAxis);
+        int ax = minAxis + random.nextInt(maxAxis - minAxis);
+        int ay = minAxis + random.nextInt(maxAxis - minAxis);
+        try (Point centre = new Point(cx, cy);
+            Size axes = new Size(ax, ay)) {
+          ellipse(mask, centre, axes, random.nextInt(180), 0, 360, white, 2, LINE_8, 0);
+        }
+        // Gaps up to 12 pixels wide, which the current closing bridges
+        for (int gap = 0; gap < 3; gap++) {
+          double angle = random.nextDouble() * 2 * Math.PI;
+          int x = cx + (int) (ax * Math.cos(angle));
+          int y = cy + (int) (ay * Math.sin(angle));
+          try (Point from = new Point(x - 6, y);
+              Point to = new Point(x + 6, y)) {
+            line(mask, from, to, black, 12, LINE_8, 0);
+          }
+        }
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Counts the objects in a closed mask, as {@link ColourContours} would report them.
+   *
+   * @param mask A closed binary mask
+   * @return The number of contours
+   */
+  private static int countObjects(Mat mask) {
+    try (Mat copy = mask.clone();
+        MatVector contours = ColourContours.extractContours(copy)) {
+      return (int) contours.size();
+    }
+  }
+
+  /**
+   * Computes the intersection over union of two binary masks.
+   *
+   * @param a The first mask
+   * @param b The second mask
+   * @return The IoU, or {@code 1} if both are empty
+   */
+  private static double iou(Mat a, Mat b) {
+    try (Mat and = new Mat();
+        Mat or = new Mat()) {
+      bitwise_and(a, b, and);
+      bitwise_or(a, b, or);
+      int union = countNonZero(or);
+      return union == 0 ? 1 : (double) countNonZero(and) / union;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static com.chromascape.utils.core.screen.TestFrames.differingPixels;
+import static com.chromascape.utils.core.screen.topology.MorphClosingBenchmark.brokenOutlines;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_imgproc.CHAIN_APPROX_SIMPLE;
+import static org.bytedeco.opencv.global.opencv_imgproc.LINE_8;
+import static org.bytedeco.opencv.global.opencv_imgproc.MORPH_DILATE;
+import static org.bytedeco.opencv.global.opencv_imgproc.MORPH_ELLIPSE;
+import static org.bytedeco.opencv.global.opencv_imgproc.MORPH_ERODE;
+import static org.bytedeco.opencv.global.opencv_imgproc.RETR_EXTERNAL;
+import static org.bytedeco.opencv.global.opencv_imgproc.drawContours;
+import static org.bytedeco.opencv.global.opencv_imgproc.findContours;
+import static org.bytedeco.opencv.global.opencv_imgproc.getStructuringElement;
+import static org.bytedeco.opencv.global.opencv_imgproc.line;
+import static org.bytedeco.opencv.global.opencv_imgproc.morphologyEx;
+import static org.bytedeco.opencv.global.opencv_imgproc.rectangle;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.chromascape.utils.core.screen.colour.MorphClosing;
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.MatVector;
+import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+import org.junit.jupiter.api.Test;
+
+/** Checks {@link ColourContours#morphClose(Mat, MorphClosing)} against the closing it replaced. */
+class MorphClosingTest {
+
+  private static final int WIDTH = 640;
+
+  private static final int HEIGHT = 480;
+
+  private static final int OUTLINES = 6;
+
+  @Test
+  void defaultMatchesOriginalClosingOnBrokenOutlines() {
+    Random random = new Random(42);
+    for (int frame = 0; frame < 5; frame++) {
+      try (Mat mask = brokenOutlines(random, WIDTH, HEIGHT, OUTLINES)) {
+        assertSameAsOriginal(mask);
+      }
+    }
+  }
+
+  @Test
+  void defaultMatchesOriginalClosingAtTheEdges() {
+    try (Mat mask = new Mat(HEIGHT, WIDTH, CV_8UC1, new Scalar(0));
+        Scalar white = new Scalar(255);
+        Point topLeft = new Point(0, 0);
+        Point inside = new Point(30, 25);
+        Point corner = new Point(WIDTH - 1, HEIGHT - 1);
+        Point nearCorner = new Point(WIDTH - 40, HEIGHT - 3)) {
+      rectangle(mask, topLeft, inside, white, 2, LINE_8, 0);
+      line(mask, corner, nearCorner, white, 1, LINE_8, 0);
+      assertSameAsOriginal(mask);
+    }
+  }
+
+  @Test
+  void defaultMatchesOriginalClosingOnAnEmptyMask() {
+    try (Mat mask = new Mat(HEIGHT, WIDTH, CV_8UC1, new Scalar(0))) {
+      assertSameAsOriginal(mask);
+    }
+  }
+
+  @Test
+  void noneLeavesTheMaskUnchanged() {
+    try (Mat mask = brokenOutlines(new Random(7), WIDTH, HEIGHT, OUTLINES);
+        Mat closed = mask.clone()) {
+      ColourContours.morphClose(closed, MorphClosing.NONE);
+      assertEquals(0, differingPixels(mask, closed));
+    }
+  }
+
+  /**
+   * Closes a copy of a mask both ways and checks every pixel agrees.
+   *
+   * @param mask The mask to close, left unmodified
+   */
+  private static void assertSameAsOriginal(Mat mask) {
+    try (Mat expected = mask.clone();
+        Mat actual = mask.clone()) {
+      originalMorphClose(expected);
+      ColourContours.morphClose(actual, MorphClosing.DEFAULT);
+      assertEquals(0, differingPixels(expected, actual));
+    }
+  }
+
+  /**
+   * The closing {@link ColourContours#morphClose(Mat)} performed before strategies were added: a
+   * 20x20 elliptical dilation, filling every outer contour, then a 20x20 elliptical erosion.
+   *
+   * @param result The mask to close in place
+   */
+  private static void originalMorphClose(Mat result) {
+    try (Size size = new Size(20, 20);
+        Mat kernel = getStructuringElement(MORPH_ELLIPSE, size);
+        MatVector contours = new MatVector();
+        Scalar white = new Scalar(255);
+        Mat hierarchy = new Mat();
+        Point offset = new Point(0, 0)) {
+      morphologyEx(result, result, MORPH_DILATE, kernel);
+      findContours(result, contours, RETR_EXTERNAL, CHAIN_APPROX_SIMPLE);
+      drawContours(
+          result, contours, -1, white, -1, LINE_8, hierarchy, Integer.MAX_VALUE, offset);
+      morphologyEx(result, result, MORPH_ERODE, kernel);
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC4;
+import static org.bytedeco.opencv.global.opencv_imgproc.FILLED;
+import static org.bytedeco.opencv.global.opencv_imgproc.LINE_8;
+import static org.bytedeco.opencv.global.opencv_imgproc.rectangle;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Rectangle;
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks a template trimmed of uneven transparent margins is still placed where the untrimmed
+ * template would be, in every match mode.
+ */
+class PreparedTemplateTest {
+
+  private static final int WIDTH = 640;
+
+  private static final int HEIGHT = 480;
+
+  private static final double THRESHOLD = 0.15;
+
+  /** The transparent margins around the opaque part of the template, all different. */
+  private static final int LEFT = 3;
+
+  private static final int TOP = 7;
+
+  private static final int RIGHT = 11;
+
+  private static final int BOTTOM = 2;
+
+  /** The opaque part, large enough for the pyramid to shrink it by 4. */
+  private static final int CORE_WIDTH = 48;
+
+  private static final int CORE_HEIGHT = 36;
+
+  private static final int TEMPLATE_WIDTH = LEFT + CORE_WIDTH + RIGHT;
+
+  private static final int TEMPLATE_HEIGHT = TOP + CORE_HEIGHT + BOTTOM;
+
+  @Test
+  void trimsToTheOpaquePart() {
+    try (Mat base = TemplateFixtures.texturedBase(new Random(1), WIDTH, HEIGHT)) {
+      PreparedTemplate template = unevenTemplate(base, 100, 100);
+      assertEquals(CORE_WIDTH, template.width());
+      assertEquals(CORE_HEIGHT, template.height());
+      assertEquals(LEFT, template.offsetX());
+      assertEquals(TOP, template.offsetY());
+      assertEquals(
+          new Rectangle(0, 0, TEMPLATE_WIDTH, TEMPLATE_HEIGHT),
+          template.placement(LEFT, TOP));
+    }
+  }
+
+  @Test
+  void searchAreaKeepsEveryPlacementInsideTheBase() {
+    try (Mat base = TemplateFixtures.texturedBase(new Random(2), WIDTH, HEIGHT)) {
+      PreparedTemplate template = unevenTemplate(base, 100, 100);
+      Rectangle area = template.searchArea(WIDTH, HEIGHT);
+      assertNotNull(area);
+
+      Rectangle first = template.placement(area.x, area.y);
+      Rectangle last =
+          template.placement(
+              area.x + area.width - template.width(), area.y + area.height - template.height());
+      assertEquals(new Rectangle(0, 0, TEMPLATE_WIDTH, TEMPLATE_HEIGHT), first);
+      assertEquals(
+          new Rectangle(
+              WIDTH - TEMPLATE_WIDTH,
+              HEIGHT - TEMPLATE_HEIGHT,
+              TEMPLATE_WIDTH,
+              TEMPLATE_HEIGHT),
+          last);
+
+      // Room for the opaque part alone is not enough
+      assertNull(template.searchArea(TEMPLATE_WIDTH - 1, TEMPLATE_HEIGHT));
+      assertNull(template.searchArea(TEMPLATE_WIDTH, TEMPLATE_HEIGHT - 1));
+      assertNotNull(template.searchArea(TEMPLATE_WIDTH, TEMPLATE_HEIGHT));
+    }
+  }
+
+  @Test
+  void everyModeReturnsTheUntrimmedBounds() {
+    int[][] placements = {
+      {211, 149},
+      {0, 0},
+      {WIDTH - TEMPLATE_WIDTH, HEIGHT - TEMPLATE_HEIGHT},
+      {0, HEIGHT - TEMPLATE_HEIGHT},
+      {WIDTH - TEMPLATE_WIDTH, 0}
+    };
+    Random random = new Random(3);
+    for (int[] placement : placements) {
+      Rectangle expected =
+          new Rectangle(placement[0], placement[1], TEMPLATE_WIDTH, TEMPLATE_HEIGHT);
+      try (Mat base = TemplateFixtures.texturedBase(random, WIDTH, HEIGHT)) {
+        PreparedTemplate template = unevenTemplate(base, expected.x, expected.y);
+        for (MatchMode mode : MatchMode.values()) {
+          MatchResult result = TemplateMatching.match(template, base, THRESHOLD, mode);
+          assertTrue(result.success(), mode + " missed " + expected);
+          assertEquals(expected, result.bounds(), mode + " bounds");
+          assertInsideBase(result.bounds());
+        }
+        assertHintedFinds(template, base, expected);
+      }
+    }
+  }
+
+  @Test
+  void noModeHangsTheTemplateOverTheEdge() {
+    // The opaque part sits closer to the right edge than the right margin is wide
+    int x = WIDTH - LEFT - CORE_WIDTH - RIGHT / 2;
+    try (Mat base = TemplateFixtures.texturedBase(new Random(4), WIDTH, HEIGHT)) {
+      PreparedTemplate template = unevenTemplate(base, x, 200);
+      for (MatchMode mode : MatchMode.values()) {
+        MatchResult result = TemplateMatching.match(template, base, THRESHOLD, mode);
+        if (result.success()) {
+          assertInsideBase(result.bounds());
+        }
+      }
+      HintedMatchResult hinted =
+          TemplateMatching.matchHinted(
+              template,
+              base,
+              THRESHOLD,
+              new SearchHint(new Rectangle(x, 200, TEMPLATE_WIDTH, TEMPLATE_HEIGHT), 8));
+      if (hinted.success()) {
+        assertInsideBase(hinted.result().bounds());
+      }
+    }
+  }
+
+  /**
+   * Checks a hinted match finds the template with a remembered hint, both on the first full
+   * search and within the window on the next, and with an explicit hint.
+   *
+   * @param template The template to match
+   * @param base The base to search
+   * @param expected The untrimmed template's bounds in the base
+   */
+  private static void assertHintedFinds(PreparedTemplate template, Mat base, Rectangle expected) {
+    HintedMatchResult first =
+        TemplateMatching.matchHinted(template, base, THRESHOLD, SearchHint.remembered(4));
+    assertTrue(first.success(), "Hinted missed " + expected);
+    assertFalse(first.hintHit(), "Nothing was remembered yet");
+    assertEquals(expected, first.result().bounds());
+
+    HintedMatchResult second =
+        TemplateMatching.matchHinted(template, base, THRESHOLD, SearchHint.remembered(4));
+    assertTrue(second.hintHit(), "Remembered location of " + expected);
+    assertEquals(expected, second.result().bounds());
+
+    HintedMatchResult explicit =
+        TemplateMatching.matchHinted(template, base, THRESHOLD, new SearchHint(expected, 0));
+    assertTrue(explicit.hintHit(), "Explicit hint of " + expected);
+    assertEquals(expected, explicit.result().bounds());
+    assertInsideBase(explicit.result().bounds());
+  }
+
+  /**
+   * Checks bounds lie entirely within the base.
+   *
+   * @param bounds The bounds of a match
+   */
+  private static void assertInsideBase(Rectangle bounds) {
+    assertTrue(
+        new Rectangle(0, 0, WIDTH, HEIGHT).contains(bounds), bounds + " hangs over the base");
+  }
+
+  /**
+   * Builds a template whose opaque part is copied from the base, surrounded by transparent margins
+   * of different widths, and prepares it as the cache would. A third of the opaque part is painted
+   * pure red first, so colour guided matching has a dominant colour to search for.
+   *
+   * @param base The base to copy from
+   * @param x Where the untrimmed template's left edge sits in the base
+   * @param y Where the untrimmed template's top edge sits in the base
+   * @return The trimmed {@link PreparedTemplate}
+   */
+  private static PreparedTemplate unevenTemplate(Mat base, int x, int y) {
+    Mat image = new Mat(TEMPLATE_HEIGHT, TEMPLATE_WIDTH, CV_8UC4, new Scalar(0, 0, 0, 0));
+    try (Rect patch = new Rect(x + LEFT, y + TOP, CORE_WIDTH / 2, 2 * CORE_HEIGHT / 3);
+        Scalar red = new Scalar(0, 0, 255, 255)) {
+      rectangle(base, patch, red, FILLED, LINE_8, 0);
+    }
+    try (Rect from = new Rect(x + LEFT, y + TOP, CORE_WIDTH, CORE_HEIGHT);
+        Rect to = new Rect(LEFT, TOP, CORE_WIDTH, CORE_HEIGHT);
+        Mat source = new Mat(base, from);
+        Mat target = new Mat(image, to)) {
+      source.copyTo(target);
+    }
+    return TemplateCache.prepare("test/uneven@" + x + "," + y, image);
+  }
+}
@@ -0,0 +1,45 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.INTER_CUBIC;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+import static org.bytedeco.opencv.global.opencv_imgproc.resize;
+
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+
+/** Base images shared by the template matching tests. */
+final class TemplateFixtures {
+
+  /** How many base pixels each noise sample is stretched over. */
+  private static final int NOISE_SCALE = 8;
+
+  private TemplateFixtures() {}
+
+  /**
+   * Creates a smoothly varying BGRA base from upscaled noise, so every crop is distinct but
+   * survives being shrunk for the pyramid, like a game frame does.
+   *
+   * @param random The source of the noise
+   * @param width The width of the base in pixels
+   * @param height The height of the base in pixels
+   * @return A new {@link Mat} owned by the caller
+   */
+  static Mat texturedBase(Random random, int width, int height) {
+    int cols = Math.max(1, width / NOISE_SCALE);
+    int rows = Math.max(1, height / NOISE_SCALE);
+    byte[] noise = new byte[cols * rows * 3];
+    random.nextBytes(noise);
+    Mat base = new Mat();
+    try (Mat small = new Mat(rows, cols, CV_8UC3);
+        Mat large = new Mat();
+        Size size = new Size(width, height)) {
+      small.data().put(noise);
+      resize(small, large, size, 0, 0, INTER_CUBIC);
+      cvtColor(large, base, COLOR_BGR2BGRA);
+    }
+    return base;
+  }
+}
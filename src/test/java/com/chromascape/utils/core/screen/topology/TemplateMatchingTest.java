@@ -0,0 +1,165 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_core.extractChannel;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link MatchMode#PYRAMID} finds what {@link MatchMode#EXACT} finds, including for the UI
+ * templates the zone manager locates with it at startup.
+ */
+class TemplateMatchingTest {
+
+  private static final int WIDTH = 640;
+
+  private static final int HEIGHT = 480;
+
+  private static final double THRESHOLD = 0.15;
+
+  /** A client window size large enough for every UI template. */
+  private static final int CLIENT_WIDTH = 1280;
+
+  private static final int CLIENT_HEIGHT = 720;
+
+  /** The templates {@code ZoneManager} locates at startup, fetched by {@code CVTemplates.bat}. */
+  private static final String[] UI_TEMPLATES = {
+    "/images/ui/minimap.png",
+    "/images/ui/inv.png",
+    "/images/ui/chat.png",
+    "/images/ui/minimap_fixed.png"
+  };
+
+  /** Sides either side of where the pyramid switches between factors 1, 2 and 4. */
+  private static final int[] SIDES = {15, 16, 17, 31, 32, 33, 64};
+
+  @Test
+  void pyramidMatchesExactAroundFactorBoundaries() {
+    try (Mat base = TemplateFixtures.texturedBase(new Random(42), WIDTH, HEIGHT)) {
+      for (int side : SIDES) {
+        assertPyramidMatchesExact(base, new Rectangle(123, 77, side, side));
+        assertPyramidMatchesExact(base, new Rectangle(301, 219, side, side));
+      }
+    }
+  }
+
+  @Test
+  void pyramidMatchesExactForUnevenSides() {
+    try (Mat base = TemplateFixtures.texturedBase(new Random(7), WIDTH, HEIGHT)) {
+      for (int width : SIDES) {
+        for (int height : SIDES) {
+          assertPyramidMatchesExact(base, new Rectangle(211, 143, width, height));
+        }
+      }
+    }
+  }
+
+  @Test
+  void pyramidMatchesExactAtTheEdges() {
+    try (Mat base = TemplateFixtures.texturedBase(new Random(3), WIDTH, HEIGHT)) {
+      for (int side : SIDES) {
+        assertPyramidMatchesExact(base, new Rectangle(0, 0, side, side));
+        assertPyramidMatchesExact(base, new Rectangle(WIDTH - side, HEIGHT - side, side, side));
+        // Just off the coarse grid, so the coarse base drops the template's last pixels
+        assertPyramidMatchesExact(
+            base, new Rectangle(WIDTH - side - 1, HEIGHT - side - 3, side, side));
+      }
+    }
+  }
+
+  @Test
+  void pyramidFindsTheUiTemplates() throws IOException {
+    for (String path : UI_TEMPLATES) {
+      assumeTrue(
+          TemplateMatchingTest.class.getResource(path) != null, "UI templates have not been fetched");
+    }
+    for (String path : UI_TEMPLATES) {
+      try (Mat base = TemplateFixtures.texturedBase(new Random(11), CLIENT_WIDTH, CLIENT_HEIGHT);
+          Mat template = TemplateCache.decode(path)) {
+        // Off the coarse grid, as a UI element in a real client rarely lines up with it
+        Rectangle expected =
+            new Rectangle(
+                CLIENT_WIDTH - template.cols() - 17,
+                CLIENT_HEIGHT - template.rows() - 11,
+                template.cols(),
+                template.rows());
+        paste(template, base, expected);
+
+        MatchResult exact = TemplateMatching.match(path, base, THRESHOLD, MatchMode.EXACT);
+        MatchResult pyramid = TemplateMatching.match(path, base, THRESHOLD, MatchMode.PYRAMID);
+        assertTrue(exact.success(), "Exact missed " + path);
+        assertTrue(pyramid.success(), "Pyramid missed " + path);
+        assertEquals(expected, exact.bounds(), "Exact bounds of " + path);
+        assertEquals(exact.bounds(), pyramid.bounds(), "Pyramid bounds of " + path);
+      }
+    }
+  }
+
+  /**
+   * Crops a template out of the base and matches it both ways, checking both find the crop with
+   * the same score.
+   *
+   * @param base The base to crop from and search
+   * @param crop Where to crop the template
+   */
+  private static void assertPyramidMatchesExact(Mat base, Rectangle crop) {
+    PreparedTemplate template = opaqueTemplate(base, crop);
+    MatchResult exact = TemplateMatching.match(template, base, THRESHOLD, MatchMode.EXACT);
+    MatchResult pyramid = TemplateMatching.match(template, base, THRESHOLD, MatchMode.PYRAMID);
+
+    assertTrue(exact.success(), "Exact missed " + crop);
+    assertTrue(pyramid.success(), "Pyramid missed " + crop);
+    assertEquals(crop, exact.bounds(), "Exact bounds of " + crop);
+    assertEquals(exact.bounds(), pyramid.bounds(), "Pyramid bounds of " + crop);
+    assertEquals(exact.score(), pyramid.score(), 1e-6, "Pyramid score of " + crop);
+  }
+
+  /**
+   * Wraps a region of the base as a fully opaque template.
+   *
+   * @param base The base to crop from
+   * @param crop The region to copy
+   * @return A new {@link PreparedTemplate} owning a copy of the region
+   */
+  private static PreparedTemplate opaqueTemplate(Mat base, Rectangle crop) {
+    try (Rect rect = new Rect(crop.x, crop.y, crop.width, crop.height);
+        Mat roi = new Mat(base, rect)) {
+      Mat opaque = new Mat(crop.height, crop.width, CV_8UC1, new Scalar(255));
+      return new PreparedTemplate("test/" + crop, roi.clone(), opaque);
+    }
+  }
+
+  /**
+   * Copies a template's opaque pixels onto the base, as the client draws a UI element over the
+   * game.
+   *
+   * @param template The BGR or BGRA template, as decoded
+   * @param base The BGRA base to draw on
+   * @param where Where the template goes in the base
+   */
+  private static void paste(Mat template, Mat base, Rectangle where) {
+    try (Rect rect = new Rect(where.x, where.y, where.width, where.height);
+        Mat target = new Mat(base, rect);
+        Mat bgra = new Mat();
+        Mat alpha = new Mat()) {
+      if (template.channels() == 4) {
+        template.copyTo(bgra);
+      } else {
+        cvtColor(template, bgra, COLOR_BGR2BGRA);
+      }
+      extractChannel(bgra, alpha, 3);
+      bgra.copyTo(target, alpha);
+    }
+  }
+}
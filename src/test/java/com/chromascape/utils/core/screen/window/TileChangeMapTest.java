@@ -0,0 +1,124 @@
+package com.chromascape.utils.core.screen.window;
+
+import static com.chromascape.utils.core.screen.TestFrames.randomFrame;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC4;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Rectangle;
+import java.util.Random;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.Test;
+
+/** Checks that {@link TileChangeMap} reports exactly the zones whose pixels changed. */
+class TileChangeMapTest {
+
+  /** Not a multiple of the tile size, so the right and bottom tiles are partial. */
+  private static final int WIDTH = 765;
+
+  private static final int HEIGHT = 503;
+
+  @Test
+  void identicalFramesDoNotDiffer() {
+    try (Mat first = randomFrame(new Random(1), WIDTH, HEIGHT, CV_8UC4);
+        Mat second = first.clone()) {
+      Rectangle zone = new Rectangle(100, 40, 90, 70);
+      assertFalse(map(second, zone).differs(map(first, zone), zone));
+    }
+  }
+
+  @Test
+  void changedPixelInsideZoneDiffers() {
+    try (Mat first = randomFrame(new Random(2), WIDTH, HEIGHT, CV_8UC4);
+        Mat second = first.clone()) {
+      Rectangle zone = new Rectangle(100, 40, 90, 70);
+      flipByte(second, 150, 80, 2);
+      assertTrue(map(second, zone).differs(map(first, zone), zone));
+    }
+  }
+
+  @Test
+  void changedPixelOutsideZoneTilesDoesNotDiffer() {
+    try (Mat first = randomFrame(new Random(3), WIDTH, HEIGHT, CV_8UC4);
+        Mat second = first.clone()) {
+      // The zone's tiles end at x = 192, so a change beyond them is invisible to it
+      Rectangle zone = new Rectangle(100, 40, 90, 70);
+      flipByte(second, 400, 300, 0);
+      assertFalse(map(second, zone).differs(map(first, zone), zone));
+    }
+  }
+
+  @Test
+  void changeInPartialEdgeTileDiffers() {
+    try (Mat first = randomFrame(new Random(4), WIDTH, HEIGHT, CV_8UC4);
+        Mat second = first.clone()) {
+      Rectangle corner = new Rectangle(WIDTH - 5, HEIGHT - 5, 5, 5);
+      flipByte(second, WIDTH - 1, HEIGHT - 1, 3);
+      assertTrue(map(second, corner).differs(map(first, corner), corner));
+    }
+  }
+
+  @Test
+  void tilesNotHashedInEitherMapDiffer() {
+    try (Mat first = randomFrame(new Random(5), WIDTH, HEIGHT, CV_8UC4);
+        Mat second = first.clone()) {
+      Rectangle hashed = new Rectangle(0, 0, 32, 32);
+      Rectangle elsewhere = new Rectangle(320, 320, 32, 32);
+      TileChangeMap older = map(first, hashed);
+      TileChangeMap newer = map(second, hashed);
+
+      assertTrue(newer.differs(older, elsewhere));
+
+      newer.hash(second, elsewhere);
+      assertTrue(newer.differs(older, elsewhere));
+
+      older.hash(first, elsewhere);
+      assertFalse(newer.differs(older, elsewhere));
+    }
+  }
+
+  @Test
+  void framesOfDifferentSizesDiffer() {
+    try (Mat first = randomFrame(new Random(6), WIDTH, HEIGHT, CV_8UC4);
+        Mat smaller = new Mat(HEIGHT - 1, WIDTH, CV_8UC4)) {
+      Rectangle zone = new Rectangle(0, 0, 10, 10);
+      assertTrue(map(smaller, zone).differs(map(first, zone), zone));
+    }
+  }
+
+  @Test
+  void zoneOutsideFrameDoesNotDiffer() {
+    try (Mat first = randomFrame(new Random(7), WIDTH, HEIGHT, CV_8UC4);
+        Mat second = randomFrame(new Random(8), WIDTH, HEIGHT, CV_8UC4)) {
+      Rectangle outside = new Rectangle(WIDTH + 10, 0, 20, 20);
+      assertFalse(map(second, outside).differs(map(first, outside), outside));
+    }
+  }
+
+  /**
+   * Creates a map for a frame with the tiles under a zone hashed.
+   *
+   * @param frame The frame
+   * @param zone The zone to hash
+   * @return The map
+   */
+  private static TileChangeMap map(Mat frame, Rectangle zone) {
+    TileChangeMap map = new TileChangeMap(frame.cols(), frame.rows());
+    map.hash(frame, zone);
+    return map;
+  }
+
+  /**
+   * Inverts one channel of one pixel.
+   *
+   * @param frame The BGRA frame to modify
+   * @param x The pixel's column
+   * @param y The pixel's row
+   * @param channel The channel to invert
+   */
+  private static void flipByte(Mat frame, int x, int y, int channel) {
+    BytePointer pixel = frame.ptr(y, x);
+    pixel.put(channel, (byte) ~pixel.get(channel));
+  }
+}
@@ -0,0 +1,215 @@
+package com.chromascape.utils.domain.ocr;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC4;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.window.FrameSource;
+import com.chromascape.utils.core.screen.window.ScreenManager;
+import java.awt.Rectangle;
+import java.time.Duration;
+import java.util.Map;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link OcrMode#EXACT} and {@link OcrMode#NUMERIC} read what {@link
+ * OcrMode#CORRELATION} reads, on text laid out from the font's own glyphs. The fonts are fetched
+ * by {@code CVTemplates.bat}, so the tests are skipped where they have not been.
+ */
+class OcrEngineTest {
+
+  private static final ColourObj WHITE =
+      new ColourObj("White", new Scalar(0, 0, 255, 0), new Scalar(0, 0, 255, 0));
+
+  /** Blank pixels around the text, as a zone has around a counter. */
+  private static final int MARGIN = 2;
+
+  private final OcrEngine engine = new OcrEngine();
+
+  private Duration frameBudget;
+
+  @BeforeAll
+  static void requireFonts() {
+    for (String font : new String[] {"Plain 11", "Plain 12"}) {
+      assumeTrue(
+          OcrEngineTest.class.getResource("/fonts/" + font + "/" + font + ".index") != null,
+          "Fonts have not been fetched");
+    }
+  }
+
+  @AfterEach
+  void restoreScreen() {
+    if (frameBudget != null) {
+      ScreenManager.setFrameBudget(frameBudget);
+      ScreenManager.setFrameSource(null);
+    }
+  }
+
+  @Test
+  void exactReadsWhatCorrelationReads() {
+    String[][] cases = {
+      {"Plain 11", "1,234,567"},
+      {"Plain 12", "1,234,567"},
+      {"Plain 11", "3200,3200,0"},
+      {"Plain 12", "3200,3200,0"},
+      {"Plain 12", "\"Hi\""},
+      {"Plain 12", "a,'b"},
+      {"Plain 12", "b',a"},
+    };
+    for (String[] c : cases) {
+      String font = c[0];
+      String text = c[1];
+      try (Mat mask = render(font, text)) {
+        String correlation = engine.readMask(mask, font, OcrMode.CORRELATION).text();
+        String exact = engine.readMask(mask, font, OcrMode.EXACT).text();
+        assertEquals(text, correlation, font + " correlation");
+        assertEquals(correlation, exact, font + " exact");
+      }
+    }
+  }
+
+  @Test
+  void numericReadsWhatCorrelationReads() {
+    for (String font : new String[] {"Plain 11", "Plain 12"}) {
+      for (String text : new String[] {"1,234,567", "3200,3200,0", "99"}) {
+        try (Mat mask = render(font, text)) {
+          assertEquals(
+              engine.readMask(mask, font, OcrMode.CORRELATION).text(),
+              engine.readMask(mask, font, OcrMode.NUMERIC).text(),
+              font + " " + text);
+        }
+      }
+    }
+  }
+
+  @Test
+  void readNumberSkipsThousandsSeparators() {
+    try (Mat mask = render("Plain 12", "1,234,567")) {
+      assertEquals(1_234_567L, engine.readNumber(mask, "Plain 12"));
+    }
+    assertEquals(1_234_567L, engine.readNumber(show("Plain 12", "1,234,567"), "Plain 12", WHITE));
+    assertEquals(99L, engine.readNumber(show("Plain 11", "99"), "Plain 11", WHITE));
+  }
+
+  @Test
+  void readNumbersSplitsOnCommas() {
+    Rectangle zone = show("Plain 12", "3200,3200,0");
+    assertArrayEquals(new long[] {3200, 3200, 0}, engine.readNumbers(zone, "Plain 12", WHITE));
+  }
+
+  @Test
+  void blankZoneIsNotFound() {
+    try (Mat blank = new Mat(16, 40, CV_8UC1, new Scalar(0))) {
+      assertEquals(OcrEngine.NOT_FOUND, engine.readNumber(blank, "Plain 12"));
+    }
+    Rectangle zone = show("Plain 12", "");
+    assertEquals(OcrEngine.NOT_FOUND, engine.readNumber(zone, "Plain 12", WHITE));
+    assertEquals(0, engine.readNumbers(zone, "Plain 12", WHITE).length);
+  }
+
+  @Test
+  void commaWithoutDigitsOnBothSidesIsNotFound() {
+    assertEquals(0, engine.readNumbers(show("Plain 12", "3200,,0"), "Plain 12", WHITE).length);
+    assertEquals(0, engine.readNumbers(show("Plain 12", "3200,"), "Plain 12", WHITE).length);
+    assertEquals(0, engine.readNumbers(show("Plain 12", ",0"), "Plain 12", WHITE).length);
+  }
+
+  @Test
+  void tooManyDigitsIsNotFound() {
+    Rectangle zone = show("Plain 12", "1234567890123456789");
+    assertEquals(OcrEngine.NOT_FOUND, engine.readNumber(zone, "Plain 12", WHITE));
+    assertEquals(0, engine.readNumbers(zone, "Plain 12", WHITE).length);
+  }
+
+  /**
+   * Lays text out from a font's glyphs into a binary mask, as a colour mask of the game's text
+   * would be. Glyph images are placed side by side with one blank column between them.
+   *
+   * @param font The font name
+   * @param text The text, every character of which must be in the font
+   * @return A new CV_8UC1 mask, 255 where the glyphs are inked
+   */
+  private static Mat render(String font, String text) {
+    Map<String, Mat> glyphs = FontStore.load(font);
+    int width = 0;
+    int height = 0;
+    for (char c : text.toCharArray()) {
+      Mat glyph = glyphs.get(String.valueOf(c));
+      assumeTrue(glyph != null, font + " has no glyph for " + c);
+      width += glyph.cols() + 1;
+      height = Math.max(height, glyph.rows());
+    }
+    int cols = width + 2 * MARGIN;
+    int rows = Math.max(1, height) + 2 * MARGIN;
+    byte[] pixels = new byte[cols * rows];
+    int x = MARGIN;
+    for (char c : text.toCharArray()) {
+      Mat glyph = glyphs.get(String.valueOf(c));
+      byte[] row = new byte[glyph.cols()];
+      for (int y = 0; y < glyph.rows(); y++) {
+        glyph.ptr(y).get(row);
+        for (int i = 0; i < row.length; i++) {
+          if ((row[i] & 0xFF) > 127) {
+            pixels[(MARGIN + y) * cols + x + i] = (byte) 255;
+          }
+        }
+      }
+      x += glyph.cols() + 1;
+    }
+    Mat mask = new Mat(rows, cols, CV_8UC1);
+    mask.data().put(pixels);
+    return mask;
+  }
+
+  /**
+   * Puts text on the screen, white on black, through a fixed {@link FrameSource}.
+   *
+   * @param font The font name
+   * @param text The text to show
+   * @return The zone the text was drawn in, in client co-ordinates
+   */
+  private Rectangle show(String font, String text) {
+    if (frameBudget == null) {
+      frameBudget = ScreenManager.getFrameBudget();
+      // Every read must see the frame shown for it
+      ScreenManager.setFrameBudget(Duration.ZERO);
+    }
+    try (Mat mask = render(font, text)) {
+      Rectangle zone = new Rectangle(10, 5, mask.cols(), mask.rows());
+      Mat frame = new Mat(zone.height + 10, zone.width + 20, CV_8UC4, new Scalar(0, 0, 0, 255));
+      byte[] maskPixels = new byte[mask.cols() * mask.rows()];
+      mask.data().get(maskPixels);
+      byte[] white = {(byte) 255, (byte) 255, (byte) 255, (byte) 255};
+      for (int y = 0; y < zone.height; y++) {
+        for (int x = 0; x < zone.width; x++) {
+          if (maskPixels[y * zone.width + x] != 0) {
+            frame.ptr(zone.y + y, zone.x + x).put(white);
+          }
+        }
+      }
+      ScreenManager.setFrameSource(new FixedFrameSource(frame));
+      return zone;
+    }
+  }
+
+  /** Serves the same frame on every grab. */
+  private record FixedFrameSource(Mat frame) implements FrameSource {
+
+    @Override
+    public Rectangle getBounds() {
+      return new Rectangle(0, 0, frame.cols(), frame.rows());
+    }
+
+    @Override
+    public Mat grab() {
+      return new Mat(frame);
+    }
+  }
+}